@@ -20,6 +20,10 @@ application {
 tasks.compileJava { options.encoding = "UTF-8" }
 tasks.compileTestJava { options.encoding = "UTF-8" }
 
+// JMH benchmarks of the solvers in src/jmh/java, run by "gradle jmh",
+// e.g., gradle jmh -PjmhArgs="WorkListSolverBenchmark -p program=synthetic-2000".
+apply(from = "../../bench/jmh.gradle.kts")
+
 tasks.test {
     useJUnit()
     maxHeapSize = "4G"
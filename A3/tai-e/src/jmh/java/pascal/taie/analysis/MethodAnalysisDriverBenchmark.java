@@ -0,0 +1,86 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.analysis.dataflow.analysis.DeadCodeDetection;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.bench.BenchmarkWorld;
+import pascal.taie.bench.SyntheticPrograms;
+import pascal.taie.config.AnalysisConfig;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks dead code detection (with its required analyses)
+ * over all application methods at different levels of parallelism.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4G")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MethodAnalysisDriverBenchmark {
+
+    @Param({"synthetic-200", "synthetic-2000"})
+    public String program;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private MethodAnalysisDriver driver;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkWorld.build("src/test/resources/dataflow/deadcode",
+                program, SyntheticPrograms.Kind.DATAFLOW, CFGBuilder.ID);
+        driver = new MethodAnalysisDriver(List.of(
+                new ConstantPropagation(new AnalysisConfig(
+                        ConstantPropagation.ID, "edge-refine", false)),
+                new LiveVariableAnalysis(new AnalysisConfig(
+                        LiveVariableAnalysis.ID, "strongly", false)),
+                new DeadCodeDetection(new AnalysisConfig(
+                        DeadCodeDetection.ID, "fused", false))),
+                parallelism);
+    }
+
+    @Benchmark
+    public void run() {
+        driver.run();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.bench.BenchmarkWorld;
+import pascal.taie.bench.SyntheticPrograms;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the work-list solver of intra-procedural data-flow analyses.
+ * Each invocation solves the analysis for all application methods.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4G")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class WorkListSolverBenchmark {
+
+    /**
+     * Constant propagation solved by the sparse solver.
+     */
+    private static final String SPARSE_CONSTANT_PROPAGATION = "sparse-constprop";
+
+    @Param({"ControlFlowUnreachable", "DeadAssignment", "Loops",
+            "UnreachableIfBranch", "UnreachableSwitchBranch",
+            "synthetic-200", "synthetic-2000"})
+    public String program;
+
+    @Param({ConstantPropagation.ID, SPARSE_CONSTANT_PROPAGATION,
+            LiveVariableAnalysis.ID})
+    public String analysis;
+
+    private AbstractDataflowAnalysis<?, ?> dataflowAnalysis;
+
+    private List<IR> irs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkWorld.build("src/test/resources/dataflow/deadcode",
+                program, SyntheticPrograms.Kind.DATAFLOW, CFGBuilder.ID);
+        irs = World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .map(JMethod::getIR)
+                .toList();
+        dataflowAnalysis = switch (analysis) {
+            case ConstantPropagation.ID -> new ConstantPropagation(
+                    new AnalysisConfig(ConstantPropagation.ID, "edge-refine", false));
+            case SPARSE_CONSTANT_PROPAGATION -> new ConstantPropagation(
+                    new AnalysisConfig(ConstantPropagation.ID,
+                            "edge-refine", false, "sparse", true));
+            case LiveVariableAnalysis.ID -> new LiveVariableAnalysis(
+                    new AnalysisConfig(LiveVariableAnalysis.ID, "strongly", false));
+            default -> throw new IllegalArgumentException(
+                    "Unknown analysis: " + analysis);
+        };
+    }
+
+    @Benchmark
+    public void solve(Blackhole bh) {
+        for (IR ir : irs) {
+            bh.consume(dataflowAnalysis.analyze(ir));
+        }
+    }
+}
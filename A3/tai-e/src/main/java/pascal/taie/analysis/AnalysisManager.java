@@ -0,0 +1,159 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.Timer;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Creates and executes analyses based on given analysis plan.
+ * <p>
+ * Each sequence of consecutive method analyses in the plan is run by
+ * {@link MethodAnalysisDriver}, which runs the whole sequence on each
+ * method in one task. The plan puts every analysis after the analyses
+ * it requires, so does each sequence.
+ */
+public class AnalysisManager {
+
+    private static final Logger logger = LogManager.getLogger(AnalysisManager.class);
+
+    private List<JClass> classScope;
+
+    private List<JMethod> methodScope;
+
+    public void execute(List<AnalysisConfig> analyses) {
+        List<MethodAnalysis> methodAnalyses = new ArrayList<>();
+        for (AnalysisConfig config : analyses) {
+            Analysis analysis = newAnalysis(config);
+            if (analysis instanceof MethodAnalysis ma) {
+                methodAnalyses.add(ma);
+            } else {
+                runMethodAnalyses(methodAnalyses);
+                Timer.runAndCount(() -> runAnalysis(analysis), config.getId());
+            }
+        }
+        runMethodAnalyses(methodAnalyses);
+    }
+
+    private static Analysis newAnalysis(AnalysisConfig config) {
+        try {
+            Class<?> clazz = Class.forName(config.getAnalysisClass());
+            Constructor<?> ctor = clazz.getConstructor(AnalysisConfig.class);
+            return (Analysis) ctor.newInstance(config);
+        } catch (ClassNotFoundException | NoSuchMethodException |
+                 InstantiationException | IllegalAccessException |
+                 InvocationTargetException e) {
+            throw new AnalysisException("Failed to initialize " +
+                    config.getAnalysisClass(), e);
+        }
+    }
+
+    private void runAnalysis(Analysis analysis) {
+        if (analysis instanceof ProgramAnalysis pa) {
+            runProgramAnalysis(pa);
+        } else if (analysis instanceof ClassAnalysis ca) {
+            runClassAnalysis(ca);
+        } else {
+            logger.warn(analysis.getClass() + " is not an analysis");
+        }
+    }
+
+    private void runProgramAnalysis(ProgramAnalysis analysis) {
+        Object result = analysis.analyze();
+        if (result != null) {
+            World.get().storeResult(analysis.getId(), result);
+        }
+    }
+
+    private void runClassAnalysis(ClassAnalysis analysis) {
+        getClassScope().parallelStream().forEach(c -> {
+            Object result = analysis.analyze(c);
+            if (result != null) {
+                c.storeResult(analysis.getId(), result);
+            }
+        });
+    }
+
+    private List<JClass> getClassScope() {
+        if (classScope == null) {
+            String scope = World.get().getOptions().getScope();
+            classScope = switch (scope) {
+                case "app" -> World.get().getClassHierarchy()
+                        .applicationClasses().toList();
+                case "all" -> World.get().getClassHierarchy()
+                        .allClasses().toList();
+                // this assignment has no call graph to compute
+                // the reachable scope
+                default -> throw new ConfigException(
+                        "Unexpected scope option: " + scope);
+            };
+            logger.info("{} classes in scope ({}) of class analyses",
+                    classScope.size(), scope);
+        }
+        return classScope;
+    }
+
+    /**
+     * Runs given method analyses, which are consecutive in the plan,
+     * and clears the list.
+     */
+    private void runMethodAnalyses(List<MethodAnalysis> analyses) {
+        if (!analyses.isEmpty()) {
+            new MethodAnalysisDriver(analyses).run(getMethodScope());
+            analyses.clear();
+        }
+    }
+
+    private List<JMethod> getMethodScope() {
+        if (methodScope == null) {
+            String scope = World.get().getOptions().getScope();
+            methodScope = switch (scope) {
+                case "app", "all" -> getClassScope()
+                        .stream()
+                        .map(JClass::getDeclaredMethods)
+                        .flatMap(Collection::stream)
+                        .filter(m -> !m.isAbstract() && !m.isNative())
+                        .toList();
+                default -> throw new ConfigException(
+                        "Unexpected scope option: " + scope);
+            };
+            logger.info("{} methods in scope ({}) of method analyses",
+                    methodScope.size(), scope);
+        }
+        return methodScope;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis;
+
+import pascal.taie.World;
+import pascal.taie.config.AnalysisRequires;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Timer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs a chain of method analyses over many methods in parallel
+ * on a {@link ForkJoinPool}.
+ * <p>
+ * The analyses must be given in the order of the analysis plan, i.e.,
+ * every analysis comes after the analyses it requires (e.g., deadcode
+ * after constprop and livevar), which is checked against the requires
+ * declared in the analysis config file. As method analyses only depend
+ * on the results of their required analyses on the same IR, each method
+ * is processed by a single task that runs the whole chain on its IR,
+ * so the requires ordering holds without a barrier between analyses.
+ * <p>
+ * {@link AnalysisManager} runs each sequence of consecutive method
+ * analyses in the plan by this driver.
+ */
+public class MethodAnalysisDriver {
+
+    private final List<MethodAnalysis> analyses;
+
+    private final int parallelism;
+
+    public MethodAnalysisDriver(List<MethodAnalysis> analyses) {
+        this(analyses, Runtime.getRuntime().availableProcessors());
+    }
+
+    public MethodAnalysisDriver(List<MethodAnalysis> analyses, int parallelism) {
+        List<String> ids = analyses.stream().map(Analysis::getId).toList();
+        for (int i = 0; i < ids.size(); ++i) {
+            String id = ids.get(i);
+            if (ids.lastIndexOf(id) != i) {
+                throw new IllegalArgumentException("Duplicate analysis: " + id);
+            }
+            for (String required : AnalysisRequires.getRequiredIds(
+                    id, analyses.get(i).getOptions())) {
+                if (ids.indexOf(required) > i) {
+                    throw new IllegalArgumentException(id + " requires "
+                            + required + ", but is given before it");
+                }
+            }
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "Parallelism must be positive, given: " + parallelism);
+        }
+        this.analyses = List.copyOf(analyses);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Runs the analyses on all non-abstract, non-native methods
+     * of the application classes.
+     */
+    public void run() {
+        run(World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .toList());
+    }
+
+    /**
+     * Runs the analyses on given methods, and stores the results
+     * in the IR of each method.
+     */
+    public void run(Collection<JMethod> methods) {
+        // IRs are built lazily by JMethod.getIR(), which is not thread-safe,
+        // thus builds them on the calling thread before forking
+        List<IR> irs = methods.stream().map(JMethod::getIR).toList();
+        List<ForkJoinTask<?>> tasks = irs.stream()
+                .<ForkJoinTask<?>>map(ir -> ForkJoinTask.adapt(() -> analyze(ir)))
+                .toList();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Timer.runAndCount(() -> pool.invoke(ForkJoinTask.adapt(
+                            () -> ForkJoinTask.invokeAll(tasks))),
+                    "MethodAnalysisDriver (" + methods.size() + " methods)");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void analyze(IR ir) {
+        for (MethodAnalysis analysis : analyses) {
+            Object result = analysis.analyze(ir);
+            if (result != null) {
+                // the result holder of IR is not thread-safe; the lock
+                // also publishes the results to threads that read
+                // them after the pool finishes
+                synchronized (ir) {
+                    ir.storeResult(analysis.getId(), result);
+                }
+            }
+        }
+    }
+}
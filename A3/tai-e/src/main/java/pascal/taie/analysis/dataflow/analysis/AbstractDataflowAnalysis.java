@@ -31,6 +31,8 @@ import pascal.taie.analysis.graph.cfg.Edge;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 
+import java.util.Set;
+
 public abstract class AbstractDataflowAnalysis<Node, Fact>
         extends MethodAnalysis
         implements DataflowAnalysis<Node, Fact> {
@@ -48,6 +50,19 @@ public abstract class AbstractDataflowAnalysis<Node, Fact>
         return solver.solve(cfg);
     }
 
+    /**
+     * Re-analyzes given IR after some of its statements have changed,
+     * reusing the facts of {@code previous} which are not affected by
+     * the change. The result is the same as that of {@link #analyze(IR)}.
+     *
+     * @see Solver#solve(CFG, DataflowResult, Set)
+     */
+    public DataflowResult<Node, Fact> analyze(
+            IR ir, DataflowResult<Node, Fact> previous, Set<Node> changedNodes) {
+        CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
+        return solver.solve(cfg, previous, changedNodes);
+    }
+
     /**
      * By default, a data-flow analysis does not have edge transfer, i.e.,
      * does not need to perform transfer for any edges.
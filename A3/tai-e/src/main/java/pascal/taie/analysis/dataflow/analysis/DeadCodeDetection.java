@@ -42,14 +42,26 @@ public class DeadCodeDetection extends MethodAnalysis {
 
     public static final String ID = "deadcode";
 
+    /**
+     * Detector of fused mode, which is enabled by option fused, or null
+     * if the results of constprop and livevar are used. In fused mode,
+     * constprop and livevar are not required (see tai-e-analyses.yml).
+     */
+    private final FusedDeadCodeDetector fusedDetector;
+
     public DeadCodeDetection(AnalysisConfig config) {
         super(config);
+        fusedDetector = getOptions().getBooleanOrDefault("fused", false) ?
+                new FusedDeadCodeDetector(getOptions()) : null;
     }
 
     @Override
     public Set<Stmt> analyze(IR ir) {
         // obtain CFG
         CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        if (fusedDetector != null) {
+            return fusedDetector.detect(ir, cfg);
+        }
         // obtain result of constant propagation
         DataflowResult<Stmt, CPFact> constants =
                 ir.getResult(ConstantPropagation.ID);
@@ -62,9 +74,10 @@ public class DeadCodeDetection extends MethodAnalysis {
         // Your task is to recognize dead code in ir and add it to deadCode
         ArrayDeque<Stmt> queue = new ArrayDeque<>();
         Set<Stmt> reachable = new HashSet<>();
-        Set<Stmt> visited = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
+        // visited nodes, indexed by Stmt.getIndex()
+        BitSet visited = new BitSet(ir.getStmts().size() + 2);
         queue.add(cfg.getEntry());
-        visited.add(cfg.getEntry());
+        visited.set(cfg.getEntry().getIndex());
         while(!queue.isEmpty()) {
             Stmt head = queue.pollFirst();
             reachable.add(head);
@@ -77,18 +90,18 @@ public class DeadCodeDetection extends MethodAnalysis {
                     if(val.getConstant() == 1) {
                         for(Edge<Stmt> edge: cfg.getOutEdgesOf(head)) {
                             if(edge.getKind() == Edge.Kind.IF_TRUE) {
-                                if(!visited.contains(edge.getTarget())){
+                                if(!visited.get(edge.getTarget().getIndex())){
                                     queue.add(edge.getTarget());
-                                    visited.add(edge.getTarget());
+                                    visited.set(edge.getTarget().getIndex());
                                 }
                             }
                         }
                     } else {
                         for (Edge<Stmt> edge : cfg.getOutEdgesOf(head)) {
                             if (edge.getKind() == Edge.Kind.IF_FALSE) {
-                                if (!visited.contains(edge.getTarget())) {
+                                if (!visited.get(edge.getTarget().getIndex())) {
                                     queue.add(edge.getTarget());
-                                    visited.add(edge.getTarget());
+                                    visited.set(edge.getTarget().getIndex());
                                 }
                             }
                         }
@@ -104,17 +117,17 @@ public class DeadCodeDetection extends MethodAnalysis {
                     for(Edge<Stmt> edge: cfg.getOutEdgesOf(head)) {
                         if(edge.isSwitchCase() && edge.getCaseValue() == constants.getOutFact(head).get(v1).getConstant()) {
                             matched = true;
-                            if(!visited.contains(edge.getTarget())) {
+                            if(!visited.get(edge.getTarget().getIndex())) {
                                 queue.add(edge.getTarget());
-                                visited.add(edge.getTarget());
+                                visited.set(edge.getTarget().getIndex());
                             }
                         }
                     }
                     if(!matched) {
                         Stmt defaultTarget = switch_stmt.getDefaultTarget();  // 获取default对应的目标语句
-                        if(!visited.contains(defaultTarget)) {
+                        if(!visited.get(defaultTarget.getIndex())) {
                             queue.add(defaultTarget);
-                            visited.add(defaultTarget);
+                            visited.set(defaultTarget.getIndex());
                         }
                     }
                 } else {
@@ -136,9 +149,9 @@ public class DeadCodeDetection extends MethodAnalysis {
             }
             if(add_all) {
                 for(Edge<Stmt> edge: cfg.getOutEdgesOf(head)) {
-                    if(!visited.contains(edge.getTarget())){
+                    if(!visited.get(edge.getTarget().getIndex())){
                         queue.add(edge.getTarget());
-                        visited.add(edge.getTarget());
+                        visited.set(edge.getTarget().getIndex());
                     }
                 }
             }
@@ -154,7 +167,7 @@ public class DeadCodeDetection extends MethodAnalysis {
     /**
      * @return true if given RValue has no side effect, otherwise false.
      */
-    private static boolean hasNoSideEffect(RValue rvalue) {
+    static boolean hasNoSideEffect(RValue rvalue) {
         // new expression modifies the heap
         if (rvalue instanceof NewExp ||
                 // cast may trigger ClassCastException
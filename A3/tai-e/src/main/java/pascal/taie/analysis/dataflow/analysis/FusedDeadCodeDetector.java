@@ -0,0 +1,241 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.LValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignStmt;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Detects dead code in one pass of conditional constant propagation
+ * (in the style of Wegman and Zadeck) followed by a liveness pass on
+ * the reachable statements, instead of consuming whole-method results
+ * of {@link ConstantPropagation} and {@link LiveVariableAnalysis}.
+ * <p>
+ * Constant propagation only flows through executable edges, and the
+ * out edges of a branch become executable as decided by the constant
+ * value of its condition, exactly as the branches are pruned by
+ * {@link DeadCodeDetection}. Thus, values from unreachable code never
+ * reach reachable code, and variables used only by unreachable code
+ * are not live, which may reveal more dead code than the unfused
+ * detection. The reached statements are kept in a bit set indexed
+ * by {@link Stmt#getIndex()}.
+ */
+class FusedDeadCodeDetector {
+
+    private final ConstantPropagation constprop;
+
+    private final LiveVariableAnalysis livevar;
+
+    /**
+     * @param options options of deadcode, which are also used as the
+     *                options of the fused analyses (e.g., dense-fact)
+     */
+    FusedDeadCodeDetector(AnalysisOptions options) {
+        constprop = new ConstantPropagation(new AnalysisConfig(
+                null, null, ConstantPropagation.ID, null, options));
+        livevar = new LiveVariableAnalysis(new AnalysisConfig(
+                null, null, LiveVariableAnalysis.ID, null, options));
+    }
+
+    Set<Stmt> detect(IR ir, CFG<Stmt> cfg) {
+        // entry and exit nodes are indexed after the statements of IR
+        int capacity = Math.max(ir.getStmts().size(),
+                Math.max(cfg.getEntry().getIndex(), cfg.getExit().getIndex()) + 1);
+        BitSet reached = new BitSet(capacity);
+        Set<Edge<Stmt>> executable = Sets.newSet();
+        propagateConstants(cfg, capacity, reached, executable);
+        SetFact<Var>[] liveOut = computeLiveVars(cfg, capacity, reached, executable);
+        Set<Stmt> deadCode = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
+        for (Stmt stmt : ir) {
+            if (!reached.get(stmt.getIndex()) ||
+                    isDeadAssignment(stmt, liveOut[stmt.getIndex()])) {
+                deadCode.add(stmt);
+            }
+        }
+        return deadCode;
+    }
+
+    /**
+     * Propagates constants from the entry along executable edges,
+     * and collects the reached nodes and executable edges.
+     */
+    private void propagateConstants(CFG<Stmt> cfg, int capacity, BitSet reached,
+                                    Set<Edge<Stmt>> executable) {
+        CPFact[] outFacts = new CPFact[capacity];
+        Queue<Stmt> workList = new ArrayDeque<>();
+        BitSet inWorkList = new BitSet(capacity);
+        Stmt entry = cfg.getEntry();
+        reached.set(entry.getIndex());
+        outFacts[entry.getIndex()] = constprop.newBoundaryFact(cfg);
+        for (Edge<Stmt> edge : cfg.getOutEdgesOf(entry)) {
+            executable.add(edge);
+            workList.add(edge.getTarget());
+            inWorkList.set(edge.getTarget().getIndex());
+        }
+        while (!workList.isEmpty()) {
+            Stmt node = workList.poll();
+            inWorkList.clear(node.getIndex());
+            CPFact in = constprop.newInitialFact();
+            for (Edge<Stmt> inEdge : cfg.getInEdgesOf(node)) {
+                if (executable.contains(inEdge)) {
+                    constprop.meetInto(outFacts[inEdge.getSource().getIndex()], in);
+                }
+            }
+            boolean changed = !reached.get(node.getIndex());
+            reached.set(node.getIndex());
+            CPFact out = outFacts[node.getIndex()];
+            if (out == null) {
+                out = outFacts[node.getIndex()] = constprop.newInitialFact();
+            }
+            changed |= constprop.transferNode(node, in, out);
+            for (Edge<Stmt> edge : getTakenEdges(cfg, node, out)) {
+                // the target is (re-)processed if the edge becomes
+                // executable, or the fact flowing through it changes
+                if ((executable.add(edge) || changed) &&
+                        !inWorkList.get(edge.getTarget().getIndex())) {
+                    workList.add(edge.getTarget());
+                    inWorkList.set(edge.getTarget().getIndex());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the out edges of given node which may be taken
+     * according to the constant values in the out fact of the node.
+     */
+    private static Set<Edge<Stmt>> getTakenEdges(
+            CFG<Stmt> cfg, Stmt node, CPFact out) {
+        if (node instanceof If ifStmt) {
+            Var v1 = ifStmt.getCondition().getOperand1();
+            Var v2 = ifStmt.getCondition().getOperand2();
+            if (out.get(v1).isConstant() && out.get(v2).isConstant()) {
+                Value cond = ConstantPropagation.evaluate(ifStmt.getCondition(), out);
+                Edge.Kind kind = cond.getConstant() == 1 ?
+                        Edge.Kind.IF_TRUE : Edge.Kind.IF_FALSE;
+                return filterEdges(cfg, node, e -> e.getKind() == kind);
+            }
+        } else if (node instanceof SwitchStmt switchStmt) {
+            Value value = out.get(switchStmt.getVar());
+            if (value.isConstant()) {
+                Set<Edge<Stmt>> cases = filterEdges(cfg, node, e ->
+                        e.isSwitchCase() && e.getCaseValue() == value.getConstant());
+                return !cases.isEmpty() ? cases : filterEdges(cfg, node,
+                        e -> e.getKind() == Edge.Kind.SWITCH_DEFAULT);
+            }
+        }
+        return cfg.getOutEdgesOf(node);
+    }
+
+    private static Set<Edge<Stmt>> filterEdges(
+            CFG<Stmt> cfg, Stmt node, Predicate<Edge<Stmt>> filter) {
+        Set<Edge<Stmt>> edges = Sets.newSet();
+        for (Edge<Stmt> edge : cfg.getOutEdgesOf(node)) {
+            if (filter.test(edge)) {
+                edges.add(edge);
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Computes live variables on the reached nodes along executable edges.
+     *
+     * @return the live variables after each reached node.
+     */
+    @SuppressWarnings("unchecked")
+    private SetFact<Var>[] computeLiveVars(CFG<Stmt> cfg, int capacity,
+                                          BitSet reached, Set<Edge<Stmt>> executable) {
+        SetFact<Var>[] inFacts = (SetFact<Var>[]) new SetFact<?>[capacity];
+        SetFact<Var>[] outFacts = (SetFact<Var>[]) new SetFact<?>[capacity];
+        // visit nodes in reverse order of indexes, which is close to
+        // postorder for the statements of a method
+        Queue<Stmt> workList = new ArrayDeque<>();
+        BitSet inWorkList = new BitSet(capacity);
+        List<Stmt> stmts = cfg.getIR().getStmts();
+        for (int i = stmts.size() - 1; i >= 0; --i) {
+            Stmt stmt = stmts.get(i);
+            if (reached.get(stmt.getIndex())) {
+                inFacts[stmt.getIndex()] = livevar.newInitialFact();
+                outFacts[stmt.getIndex()] = livevar.newInitialFact();
+                workList.add(stmt);
+                inWorkList.set(stmt.getIndex());
+            }
+        }
+        while (!workList.isEmpty()) {
+            Stmt node = workList.poll();
+            inWorkList.clear(node.getIndex());
+            SetFact<Var> out = outFacts[node.getIndex()];
+            for (Edge<Stmt> outEdge : cfg.getOutEdgesOf(node)) {
+                SetFact<Var> succIn = inFacts[outEdge.getTarget().getIndex()];
+                if (succIn != null && executable.contains(outEdge)) {
+                    livevar.meetInto(succIn, out);
+                }
+            }
+            if (livevar.transferNode(node, inFacts[node.getIndex()], out)) {
+                for (Edge<Stmt> inEdge : cfg.getInEdgesOf(node)) {
+                    Stmt pred = inEdge.getSource();
+                    if (inFacts[pred.getIndex()] != null &&
+                            executable.contains(inEdge) &&
+                            !inWorkList.get(pred.getIndex())) {
+                        workList.add(pred);
+                        inWorkList.set(pred.getIndex());
+                    }
+                }
+            }
+        }
+        return outFacts;
+    }
+
+    private static boolean isDeadAssignment(Stmt stmt, SetFact<Var> liveOut) {
+        if (stmt instanceof AssignStmt<?, ?> assignStmt) {
+            LValue lValue = assignStmt.getLValue();
+            return lValue instanceof Var var && !liveOut.contains(var) &&
+                    DeadCodeDetection.hasNoSideEffect(assignStmt.getRValue());
+        }
+        return false;
+    }
+}
@@ -22,6 +22,8 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.analysis.dataflow.fact.BitSetFact;
+import pascal.taie.analysis.dataflow.fact.PersistentSetFact;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
@@ -31,14 +33,22 @@ import pascal.taie.ir.stmt.Stmt;
 
 /**
  * Implementation of classic live variable analysis.
+ * The facts are {@link BitSetFact}s indexed by variable indexes by default,
+ * or {@link PersistentSetFact}s if option persistent-fact is true.
  */
 public class LiveVariableAnalysis extends
         AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
 
     public static final String ID = "livevar";
 
+    /**
+     * Whether to use {@link PersistentSetFact} instead of {@link BitSetFact}.
+     */
+    private final boolean persistentFact;
+
     public LiveVariableAnalysis(AnalysisConfig config) {
         super(config);
+        persistentFact = getOptions().getBooleanOrDefault("persistent-fact", false);
     }
 
     @Override
@@ -48,41 +58,36 @@ public class LiveVariableAnalysis extends
 
     @Override
     public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
-        // TODO - finish me
-        return new SetFact<>();
+        return newInitialFact();
     }
 
     @Override
     public SetFact<Var> newInitialFact() {
-        // TODO - finish me
-        return new SetFact<>();
+        return persistentFact ? new PersistentSetFact<>() : new BitSetFact();
     }
 
     @Override
     public void meetInto(SetFact<Var> fact, SetFact<Var> target) {
-        // TODO - finish me
         target.union(fact);
     }
 
     @Override
     public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
-        // TODO - finish me
-        SetFact<Var> inTmp = new SetFact<>();
-        inTmp.union(out);
-        if (stmt.getDef().isPresent()) {
-            if (stmt.getDef().get() instanceof Var) {
-                inTmp.remove((Var)(stmt.getDef().get()));
+        SetFact<Var> newIn = out.copy();
+        stmt.getDef().ifPresent(def -> {
+            if (def instanceof Var var) {
+                newIn.remove(var);
             }
-        }
-        for (RValue rValue: stmt.getUses()) {
-            if (rValue instanceof Var) {
-                inTmp.add((Var)rValue);
+        });
+        for (RValue use : stmt.getUses()) {
+            if (use instanceof Var var) {
+                newIn.add(var);
             }
         }
-        if (in.equals(inTmp)) {
+        if (in.equals(newIn)) {
             return false;
         } else {
-            in.set(inTmp);
+            in.set(newIn);
             return true;
         }
     }
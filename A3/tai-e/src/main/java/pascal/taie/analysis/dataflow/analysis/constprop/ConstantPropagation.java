@@ -23,8 +23,12 @@
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.*;
 import pascal.taie.ir.exp.BitwiseExp.Op;
 import pascal.taie.ir.stmt.DefinitionStmt;
@@ -32,13 +36,67 @@ import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.type.PrimitiveType;
 import pascal.taie.language.type.Type;
 
+import java.util.Set;
+import java.util.function.Supplier;
+
 public class ConstantPropagation extends
         AbstractDataflowAnalysis<Stmt, CPFact> {
 
     public static final String ID = "constprop";
 
+    /**
+     * Creates the data-flow facts, which are {@link DenseCPFact}s if option
+     * dense-fact is true, {@link PersistentCPFact}s if option persistent-fact
+     * is true, otherwise map-based {@link CPFact}s.
+     */
+    private final Supplier<CPFact> factFactory;
+
+    /**
+     * Whether to solve with {@link SparseCPSolver}, which is enabled by
+     * option sparse. The sparse solver gives the same result as the
+     * dense solvers.
+     */
+    private final boolean sparse;
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        boolean denseFact = getOptions().getBooleanOrDefault("dense-fact", false);
+        boolean persistentFact = getOptions().getBooleanOrDefault("persistent-fact", false);
+        if (denseFact && persistentFact) {
+            throw new ConfigException("dense-fact and persistent-fact" +
+                    " cannot be enabled at the same time");
+        }
+        factFactory = denseFact ? DenseCPFact::new :
+                persistentFact ? PersistentCPFact::new : CPFact::new;
+        sparse = getOptions().getBooleanOrDefault("sparse", false);
+        if (sparse && getOptions().getString("solver") != null) {
+            throw new ConfigException("sparse and solver" +
+                    " cannot be specified at the same time");
+        }
+    }
+
+    @Override
+    public DataflowResult<Stmt, CPFact> analyze(IR ir) {
+        if (sparse) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return new SparseCPSolver(this, cfg).solve();
+        }
+        return super.analyze(ir);
+    }
+
+    /**
+     * With option sparse, solves the problem from scratch by
+     * {@link SparseCPSolver}, which cannot reuse the facts of
+     * {@code previous}, like the other solvers without
+     * incremental solving.
+     */
+    @Override
+    public DataflowResult<Stmt, CPFact> analyze(
+            IR ir, DataflowResult<Stmt, CPFact> previous, Set<Stmt> changedNodes) {
+        if (sparse) {
+            return analyze(ir);
+        }
+        return super.analyze(ir, previous, changedNodes);
     }
 
     @Override
@@ -48,8 +106,7 @@ public class ConstantPropagation extends
 
     @Override
     public CPFact newBoundaryFact(CFG<Stmt> cfg) {
-        // TODO - finish me
-        CPFact cpf = new CPFact();
+        CPFact cpf = newInitialFact();
         for (Var var: cfg.getIR().getParams()) {
             if (canHoldInt(var)) {
                 cpf.update(var, Value.getNAC());
@@ -60,13 +117,21 @@ public class ConstantPropagation extends
 
     @Override
     public CPFact newInitialFact() {
-        // TODO - finish me
-        return new CPFact();
+        return factFactory.get();
     }
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
-        // TODO - finish me
+        if (fact instanceof DenseCPFact dense &&
+                target instanceof DenseCPFact denseTarget) {
+            denseTarget.meet(dense, this::meetValue);
+            return;
+        }
+        if (fact instanceof PersistentCPFact persistent &&
+                target instanceof PersistentCPFact persistentTarget) {
+            persistentTarget.meet(persistent, this::meetValue);
+            return;
+        }
         for(Var var: fact.keySet()) {
             target.update(var, meetValue(fact.get(var),target.get(var)));
         }
@@ -76,7 +141,6 @@ public class ConstantPropagation extends
      * Meets two Values.
      */
     public Value meetValue(Value v1, Value v2) {
-        // TODO - finish me
         if(v1.isNAC()) return Value.getNAC();
         if(v1.isUndef()) return v2;
         if(v2.isNAC()) return Value.getNAC();
@@ -89,25 +153,26 @@ public class ConstantPropagation extends
 
     @Override
     public boolean transferNode(Stmt stmt, CPFact in, CPFact out) {
-        // TODO - finish me
-        CPFact old_out = out.copy();
-        if(!in.equals(out)) {
-            for(Var var: in.keySet()) {
-                out.update(var, in.get(var));
+        Var def = null;
+        Value value = null;
+        if (stmt instanceof DefinitionStmt<?, ?> definition_stmt &&
+                definition_stmt.getLValue() instanceof Var x && canHoldInt(x)) {
+            value = evaluate(definition_stmt.getRValue(), in);
+            if (value != null) {
+                def = x;
             }
         }
-        if(stmt instanceof DefinitionStmt<?, ?> definition_stmt) {
-            if (stmt.getDef().isPresent()) {
-                LValue lValue = definition_stmt.getLValue();
-                if((lValue instanceof Var x) && canHoldInt(x)) {
-                    Value y = evaluate(definition_stmt.getRValue(),in);
-                    if (y != null) {
-                        out.update(x, y);
-                    }
-                }
-            }
+        if (def == null) {
+            return out.copyFrom(in);
         }
-        return !old_out.equals(out);
+        // sets def to its IN value before copying, so that the change flag
+        // of copyFrom only reflects the other variables; otherwise a def
+        // whose IN and OUT values differ would always be reported as changed
+        Value oldValue = out.get(def);
+        out.update(def, in.get(def));
+        boolean changed = out.copyFrom(in);
+        out.update(def, value);
+        return changed || !value.equals(oldValue);
     }
 
     /**
@@ -136,7 +201,6 @@ public class ConstantPropagation extends
      * @return the resulting {@link Value}
      */
     public static Value evaluate(Exp exp, CPFact in) {
-        // TODO - finish me
         if(exp instanceof Var x) {
             return in.get(x);
         }
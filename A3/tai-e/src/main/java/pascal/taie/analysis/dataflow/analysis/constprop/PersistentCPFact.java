@@ -0,0 +1,74 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.util.collection.HamtMap;
+
+import java.util.function.BinaryOperator;
+
+/**
+ * {@link CPFact} backed by persistent hash tries, so that {@link #copy()}
+ * takes O(1) time and the copies share their content until they are
+ * updated. As in {@link CPFact}, UNDEF is represented by absence.
+ *
+ * @see HamtMap
+ */
+public class PersistentCPFact extends CPFact {
+
+    private final HamtMap<Var, Value> hamt;
+
+    public PersistentCPFact() {
+        this(new HamtMap<>());
+    }
+
+    private PersistentCPFact(HamtMap<Var, Value> hamt) {
+        super(() -> hamt);
+        this.hamt = hamt;
+    }
+
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        if (fact instanceof PersistentCPFact that) {
+            return hamt.union(that.hamt, (v1, v2) -> v2);
+        }
+        return super.copyFrom(fact);
+    }
+
+    /**
+     * Meets other fact into this fact by {@code meet}, which is applied
+     * to the variables whose values are not UNDEF in both facts, and must
+     * be idempotent. The parts shared by the two facts are skipped.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean meet(PersistentCPFact fact, BinaryOperator<Value> meet) {
+        return hamt.union(fact.hamt, meet);
+    }
+
+    @Override
+    public PersistentCPFact copy() {
+        return new PersistentCPFact(hamt.copy());
+    }
+}
@@ -0,0 +1,661 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.LValue;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Sparse solver of constant propagation, which propagates values
+ * along def-use chains instead of pushing whole {@link CPFact}s
+ * through every statement.
+ * <p>
+ * The definitions are the statements that assign int variables, plus
+ * one pseudo definition (with value NAC) for each int parameter at the
+ * entry of the CFG. The def-use chains are built in SSA style: phi
+ * definitions are placed at the iterated dominance frontiers of the
+ * definitions of each variable, and then each use is linked to the
+ * single definition that is current when walking the dominator tree.
+ * The value of a phi is the meet of the values of its operands, so
+ * the value of the definition of a use is the meet of the values of
+ * the definitions reaching it, i.e., the equations are the same as
+ * the dense analysis, and so is the (least) fixed point.
+ * <p>
+ * A virtual root precedes the entry and each node that is unreachable
+ * from the entry, so that every node of the CFG is in the dominator
+ * tree; the root defines nothing, which adds nothing to the meets.
+ * <p>
+ * Cost: the dominators are computed by the iterative algorithm of
+ * Cooper, Harvey and Kennedy, which takes a few passes over the
+ * CFG in practice. Phi placement is linear in the size of the
+ * dominance frontiers, which is quadratic in the worst case but close
+ * to linear for structured code. Renaming and propagation are linear
+ * in the number of statements, phis and operands. No per-statement
+ * sets are kept: the facts of a statement are materialized when they
+ * are queried, by walking up the dominator tree from the statement,
+ * which takes time linear in its depth in the tree.
+ */
+class SparseCPSolver {
+
+    private final ConstantPropagation analysis;
+
+    private final CFG<Stmt> cfg;
+
+    /**
+     * Index of the virtual root, which is after the indexes of the nodes.
+     */
+    private final int root;
+
+    /**
+     * Node of each index.
+     */
+    private final Stmt[] nodes;
+
+    /**
+     * Nodes which are successors of the virtual root.
+     */
+    private final BitSet rootSuccs = new BitSet();
+
+    /**
+     * Immediate dominator of each node.
+     */
+    private final int[] idom;
+
+    /**
+     * Variable defined by each definition.
+     */
+    private final List<Var> defVars = new ArrayList<>();
+
+    /**
+     * Statement of each definition, i.e., the defining statement, or the
+     * node at whose entry a phi is placed, or null for pseudo definitions
+     * of parameters.
+     */
+    private final List<Stmt> defStmts = new ArrayList<>();
+
+    /**
+     * Definitions after this one are phis.
+     */
+    private int firstPhi;
+
+    /**
+     * Definition of each statement (indexed by {@link Stmt#getIndex()}),
+     * or -1 if the statement does not define an int variable.
+     */
+    private final int[] stmtDefs;
+
+    /**
+     * Phi definitions placed at the entry of each node, or null if none.
+     */
+    private final int[][] phis;
+
+    /**
+     * For the definition of a statement, the definition of each operand
+     * (in the order given by {@link #getOperands(Stmt)}), or -1 if no
+     * definition of the operand reaches it; for a phi, the definitions
+     * merged by it; null for pseudo definitions of parameters.
+     */
+    private int[][] operandDefs;
+
+    /**
+     * Value of each definition.
+     */
+    private Value[] values;
+
+    SparseCPSolver(ConstantPropagation analysis, CFG<Stmt> cfg) {
+        this.analysis = analysis;
+        this.cfg = cfg;
+        // entry and exit nodes are indexed after the statements of IR
+        root = Math.max(cfg.getIR().getStmts().size(),
+                Math.max(cfg.getEntry().getIndex(), cfg.getExit().getIndex()) + 1);
+        nodes = new Stmt[root + 1];
+        idom = new int[root + 1];
+        stmtDefs = new int[root + 1];
+        phis = new int[root + 1][];
+    }
+
+    DataflowResult<Stmt, CPFact> solve() {
+        Map<Var, List<Integer>> defNodes = collectDefs();
+        int[][] preds = computeDominators();
+        placePhis(defNodes, computeFrontiers(preds));
+        rename();
+        propagate(buildDefUseChains());
+        return new Result();
+    }
+
+    /**
+     * Collects the definitions of parameters and statements.
+     *
+     * @return the nodes defining each variable.
+     */
+    private Map<Var, List<Integer>> collectDefs() {
+        Map<Var, List<Integer>> defNodes = new LinkedHashMap<>();
+        int entry = cfg.getEntry().getIndex();
+        for (Var param : cfg.getIR().getParams()) {
+            if (ConstantPropagation.canHoldInt(param)) {
+                addDef(param, null);
+                defNodes.computeIfAbsent(param, v -> new ArrayList<>()).add(entry);
+            }
+        }
+        Arrays.fill(stmtDefs, -1);
+        for (Stmt stmt : cfg) {
+            nodes[stmt.getIndex()] = stmt;
+            Var var = getDefVar(stmt);
+            if (var != null) {
+                stmtDefs[stmt.getIndex()] = addDef(var, stmt);
+                defNodes.computeIfAbsent(var, v -> new ArrayList<>())
+                        .add(stmt.getIndex());
+            }
+        }
+        return defNodes;
+    }
+
+    private int addDef(Var var, Stmt stmt) {
+        int def = defVars.size();
+        defVars.add(var);
+        defStmts.add(stmt);
+        return def;
+    }
+
+    /**
+     * @return the int variable defined by given statement, or null if
+     * the statement does not define an int variable.
+     */
+    private static Var getDefVar(Stmt stmt) {
+        if (stmt instanceof DefinitionStmt<?, ?> definitionStmt &&
+                stmt.getDef().isPresent()) {
+            LValue lValue = definitionStmt.getLValue();
+            if (lValue instanceof Var var &&
+                    ConstantPropagation.canHoldInt(var)) {
+                return var;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Computes the immediate dominator of each node.
+     *
+     * @return the predecessors of each node, including the virtual root.
+     */
+    private int[][] computeDominators() {
+        // visits the nodes reachable from the entry, and then the others,
+        // each of which not visited yet becomes a successor of the root
+        int[] postorder = new int[root + 1];
+        List<Integer> order = new ArrayList<>(root + 1);
+        BitSet visited = new BitSet(root + 1);
+        rootSuccs.set(cfg.getEntry().getIndex());
+        visit(cfg.getEntry(), visited, postorder, order);
+        for (Stmt node : cfg) {
+            if (!visited.get(node.getIndex())) {
+                rootSuccs.set(node.getIndex());
+                visit(node, visited, postorder, order);
+            }
+        }
+        postorder[root] = order.size();
+        order.add(root);
+        int[][] preds = new int[root + 1][];
+        preds[root] = new int[0];
+        for (Stmt node : cfg) {
+            int[] nodePreds = cfg.getPredsOf(node)
+                    .stream()
+                    .mapToInt(Stmt::getIndex)
+                    .toArray();
+            if (rootSuccs.get(node.getIndex())) {
+                nodePreds = Arrays.copyOf(nodePreds, nodePreds.length + 1);
+                nodePreds[nodePreds.length - 1] = root;
+            }
+            preds[node.getIndex()] = nodePreds;
+        }
+        Arrays.fill(idom, -1);
+        idom[root] = root;
+        boolean changed;
+        do {
+            changed = false;
+            // processes the nodes in reverse postorder, except the root
+            for (int i = order.size() - 2; i >= 0; --i) {
+                int node = order.get(i);
+                int newIdom = -1;
+                for (int pred : preds[node]) {
+                    if (idom[pred] != -1) {
+                        newIdom = newIdom == -1 ? pred :
+                                intersect(pred, newIdom, postorder);
+                    }
+                }
+                if (idom[node] != newIdom) {
+                    idom[node] = newIdom;
+                    changed = true;
+                }
+            }
+        } while (changed);
+        return preds;
+    }
+
+    /**
+     * Visits the nodes reachable from given node in depth-first order,
+     * and numbers them in postorder.
+     */
+    private void visit(Stmt start, BitSet visited,
+                       int[] postorder, List<Integer> order) {
+        Deque<Stmt> stack = new ArrayDeque<>();
+        Deque<Iterator<Stmt>> succs = new ArrayDeque<>();
+        visited.set(start.getIndex());
+        stack.push(start);
+        succs.push(cfg.getSuccsOf(start).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<Stmt> iter = succs.peek();
+            if (iter.hasNext()) {
+                Stmt succ = iter.next();
+                if (!visited.get(succ.getIndex())) {
+                    visited.set(succ.getIndex());
+                    stack.push(succ);
+                    succs.push(cfg.getSuccsOf(succ).iterator());
+                }
+            } else {
+                int node = stack.pop().getIndex();
+                succs.pop();
+                postorder[node] = order.size();
+                order.add(node);
+            }
+        }
+    }
+
+    private int intersect(int node1, int node2, int[] postorder) {
+        while (node1 != node2) {
+            while (postorder[node1] < postorder[node2]) {
+                node1 = idom[node1];
+            }
+            while (postorder[node2] < postorder[node1]) {
+                node2 = idom[node2];
+            }
+        }
+        return node1;
+    }
+
+    /**
+     * @return the dominance frontier of each node, null for empty frontiers.
+     */
+    private List<List<Integer>> computeFrontiers(int[][] preds) {
+        List<List<Integer>> frontiers = new ArrayList<>(
+                Collections.nCopies(root + 1, null));
+        for (int node = 0; node < root; ++node) {
+            if (preds[node] == null || preds[node].length < 2) {
+                continue;
+            }
+            for (int pred : preds[node]) {
+                for (int runner = pred; runner != idom[node]; runner = idom[runner]) {
+                    List<Integer> frontier = frontiers.get(runner);
+                    if (frontier == null) {
+                        frontier = new ArrayList<>();
+                        frontiers.set(runner, frontier);
+                    }
+                    if (frontier.isEmpty() ||
+                            frontier.get(frontier.size() - 1) != node) {
+                        frontier.add(node);
+                    }
+                }
+            }
+        }
+        return frontiers;
+    }
+
+    /**
+     * Places the phi definitions of each variable at the iterated
+     * dominance frontier of its definitions.
+     */
+    private void placePhis(Map<Var, List<Integer>> defNodes,
+                           List<List<Integer>> frontiers) {
+        firstPhi = defVars.size();
+        // marks of the variable being processed, which avoid clearing
+        // the arrays for each variable
+        int[] hasPhi = new int[root + 1];
+        int[] added = new int[root + 1];
+        int mark = 0;
+        Queue<Integer> workList = new ArrayDeque<>();
+        for (Map.Entry<Var, List<Integer>> entry : defNodes.entrySet()) {
+            ++mark;
+            for (int node : entry.getValue()) {
+                if (added[node] != mark) {
+                    added[node] = mark;
+                    workList.add(node);
+                }
+            }
+            while (!workList.isEmpty()) {
+                List<Integer> frontier = frontiers.get(workList.poll());
+                if (frontier == null) {
+                    continue;
+                }
+                for (int node : frontier) {
+                    if (hasPhi[node] != mark) {
+                        hasPhi[node] = mark;
+                        int phi = addDef(entry.getKey(), nodes[node]);
+                        phis[node] = phis[node] == null ? new int[]{ phi } :
+                                append(phis[node], phi);
+                        if (added[node] != mark) {
+                            added[node] = mark;
+                            workList.add(node);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static int[] append(int[] array, int element) {
+        int[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = element;
+        return result;
+    }
+
+    /**
+     * Walks the dominator tree, links each operand to the definition
+     * which is current at its statement, and collects the operands of
+     * each phi from the predecessors of its node.
+     */
+    private void rename() {
+        operandDefs = new int[defVars.size()][];
+        List<List<Integer>> phiOperands = new ArrayList<>();
+        for (int phi = firstPhi; phi < defVars.size(); ++phi) {
+            phiOperands.add(new ArrayList<>());
+        }
+        // children of each node in the dominator tree
+        int[] firstChild = new int[root + 1];
+        int[] nextSibling = new int[root + 1];
+        Arrays.fill(firstChild, -1);
+        for (int node = 0; node < root; ++node) {
+            if (nodes[node] != null) {
+                nextSibling[node] = firstChild[idom[node]];
+                firstChild[idom[node]] = node;
+            }
+        }
+        // current definition of each variable, and the definition which
+        // was current before each definition
+        Map<Var, Integer> current = Maps.newMap();
+        int[] prevDefs = new int[defVars.size()];
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            int node = stack.peek();
+            int child = firstChild[node];
+            if (child != -1) {
+                // the first child is consumed when it is entered
+                firstChild[node] = nextSibling[child];
+                stack.push(child);
+                for (int def : getDefsAt(child)) {
+                    if (def == stmtDefs[child]) {
+                        operandDefs[def] = getOperands(nodes[child])
+                                .stream()
+                                .mapToInt(v -> current.getOrDefault(v, -1))
+                                .toArray();
+                    }
+                    Integer prev = current.put(defVars.get(def), def);
+                    prevDefs[def] = prev == null ? -1 : prev;
+                }
+                for (Stmt succ : cfg.getSuccsOf(nodes[child])) {
+                    if (phis[succ.getIndex()] != null) {
+                        for (int phi : phis[succ.getIndex()]) {
+                            Integer def = current.get(defVars.get(phi));
+                            if (def != null) {
+                                phiOperands.get(phi - firstPhi).add(def);
+                            }
+                        }
+                    }
+                }
+            } else {
+                stack.pop();
+                if (node != root) {
+                    int[] defs = getDefsAt(node);
+                    for (int i = defs.length - 1; i >= 0; --i) {
+                        int prev = prevDefs[defs[i]];
+                        if (prev == -1) {
+                            current.remove(defVars.get(defs[i]));
+                        } else {
+                            current.put(defVars.get(defs[i]), prev);
+                        }
+                    }
+                }
+            }
+        }
+        for (int phi = firstPhi; phi < defVars.size(); ++phi) {
+            operandDefs[phi] = phiOperands.get(phi - firstPhi)
+                    .stream()
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+    }
+
+    /**
+     * @return the definitions at given node in the order they take
+     * effect, i.e., the phis, the pseudo definitions of parameters
+     * (at the entry), and the definition of the statement.
+     */
+    private int[] getDefsAt(int node) {
+        int[] defs = phis[node] == null ? new int[0] : phis[node];
+        if (cfg.isEntry(nodes[node])) {
+            for (int def = 0; def < firstPhi && defStmts.get(def) == null; ++def) {
+                defs = append(defs, def);
+            }
+        }
+        if (stmtDefs[node] != -1) {
+            defs = append(defs, stmtDefs[node]);
+        }
+        return defs;
+    }
+
+    /**
+     * @return the uses of each definition, i.e., the definitions whose
+     * values are computed from the defined value.
+     */
+    private List<List<Integer>> buildDefUseChains() {
+        List<List<Integer>> uses = new ArrayList<>(defVars.size());
+        for (int i = 0; i < defVars.size(); ++i) {
+            uses.add(new ArrayList<>());
+        }
+        for (int use = 0; use < defVars.size(); ++use) {
+            if (operandDefs[use] != null) {
+                for (int def : operandDefs[use]) {
+                    if (def != -1) {
+                        uses.get(def).add(use);
+                    }
+                }
+            }
+        }
+        return uses;
+    }
+
+    /**
+     * @return the variables whose values are read by
+     * {@link ConstantPropagation#evaluate(pascal.taie.ir.exp.Exp, CPFact)}
+     * for the right-hand side of given definition statement.
+     */
+    private static List<Var> getOperands(Stmt stmt) {
+        RValue rValue = ((DefinitionStmt<?, ?>) stmt).getRValue();
+        if (rValue instanceof Var var) {
+            return List.of(var);
+        } else if (rValue instanceof BinaryExp binaryExp) {
+            return List.of(binaryExp.getOperand1(), binaryExp.getOperand2());
+        } else {
+            return List.of();
+        }
+    }
+
+    /**
+     * Propagates values along the def-use chains until reaching fixed point.
+     */
+    private void propagate(List<List<Integer>> uses) {
+        values = new Value[defVars.size()];
+        Queue<Integer> workList = new ArrayDeque<>();
+        BitSet inWorkList = new BitSet(values.length);
+        for (int def = 0; def < values.length; ++def) {
+            if (defStmts.get(def) == null) {
+                values[def] = Value.getNAC();
+            } else {
+                values[def] = Value.getUndef();
+                workList.add(def);
+                inWorkList.set(def);
+            }
+        }
+        while (!workList.isEmpty()) {
+            int def = workList.poll();
+            inWorkList.clear(def);
+            Value value = def >= firstPhi ? meetDefs(operandDefs[def]) :
+                    evaluate(def);
+            if (!value.equals(values[def])) {
+                values[def] = value;
+                for (int use : uses.get(def)) {
+                    if (!inWorkList.get(use)) {
+                        workList.add(use);
+                        inWorkList.set(use);
+                    }
+                }
+            }
+        }
+    }
+
+    private Value evaluate(int def) {
+        Stmt stmt = defStmts.get(def);
+        List<Var> operands = getOperands(stmt);
+        CPFact operandValues = new CPFact();
+        for (int i = 0; i < operands.size(); ++i) {
+            int operandDef = operandDefs[def][i];
+            if (operandDef != -1) {
+                operandValues.update(operands.get(i), values[operandDef]);
+            }
+        }
+        return ConstantPropagation.evaluate(
+                ((DefinitionStmt<?, ?>) stmt).getRValue(), operandValues);
+    }
+
+    private Value meetDefs(int[] defs) {
+        Value value = Value.getUndef();
+        for (int def : defs) {
+            value = analysis.meetValue(value, values[def]);
+        }
+        return value;
+    }
+
+    /**
+     * Data-flow result which materializes the {@link CPFact}s of
+     * statements from the values of the definitions which are current
+     * at them when they are queried. The facts set via {@link #setInFact}
+     * and {@link #setOutFact} replace the materialized facts of the given
+     * statement, and they do not affect the facts of other statements.
+     * This class is not thread-safe.
+     */
+    private class Result extends DataflowResult<Stmt, CPFact> {
+
+        private final Map<Stmt, CPFact> inFacts = Maps.newMap();
+
+        private final Map<Stmt, CPFact> outFacts = Maps.newMap();
+
+        @Override
+        public CPFact getInFact(Stmt stmt) {
+            // as in the dense solvers, entry node has no flowing-in fact
+            if (cfg.isEntry(stmt) && !inFacts.containsKey(stmt)) {
+                return null;
+            }
+            return inFacts.computeIfAbsent(stmt, this::computeInFact);
+        }
+
+        /**
+         * Computes the in fact of given statement from the phis at it
+         * and the definitions at its dominators, where the nearest
+         * definition of each variable is the current one.
+         */
+        private CPFact computeInFact(Stmt stmt) {
+            CPFact fact = analysis.newInitialFact();
+            Set<Var> defined = Sets.newHybridSet();
+            if (phis[stmt.getIndex()] != null) {
+                addValues(phis[stmt.getIndex()], fact, defined);
+            }
+            for (int node = idom[stmt.getIndex()]; node != root; node = idom[node]) {
+                addValues(getDefsAt(node), fact, defined);
+            }
+            return fact;
+        }
+
+        /**
+         * Adds the values of given definitions, from the last one, to
+         * the fact if the variable is not defined by a nearer definition.
+         */
+        private void addValues(int[] defs, CPFact fact, Set<Var> defined) {
+            for (int i = defs.length - 1; i >= 0; --i) {
+                Var var = defVars.get(defs[i]);
+                if (defined.add(var)) {
+                    fact.update(var, values[defs[i]]);
+                }
+            }
+        }
+
+        @Override
+        public CPFact getOutFact(Stmt stmt) {
+            if (cfg.isEntry(stmt)) {
+                return outFacts.computeIfAbsent(stmt,
+                        s -> analysis.newBoundaryFact(cfg));
+            }
+            return outFacts.computeIfAbsent(stmt, s -> {
+                // computes from the materialized in fact instead of
+                // getInFact(s), which may have been replaced
+                CPFact fact = computeInFact(s);
+                int def = stmtDefs[s.getIndex()];
+                if (def != -1) {
+                    fact.update(defVars.get(def), values[def]);
+                }
+                return fact;
+            });
+        }
+
+        @Override
+        public void setInFact(Stmt stmt, CPFact fact) {
+            inFacts.put(stmt, fact);
+        }
+
+        @Override
+        public void setOutFact(Stmt stmt, CPFact fact) {
+            outFacts.put(stmt, fact);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.ir.exp.Var;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Set-like data-flow facts of the variables of a method, which are
+ * represented by {@link BitSet}s indexed by {@link Var#getIndex()},
+ * so that union, intersection and comparison work on whole words.
+ */
+public class BitSetFact extends SetFact<Var> {
+
+    private final VarBitSet bits;
+
+    public BitSetFact() {
+        this(new VarBitSet(null, new BitSet()));
+    }
+
+    private BitSetFact(VarBitSet bits) {
+        super(() -> bits);
+        this.bits = bits;
+    }
+
+    @Override
+    public boolean union(SetFact<Var> other) {
+        if (other instanceof BitSetFact that) {
+            bits.vars = VarIndexes.merge(bits.vars, that.bits.vars);
+            int oldSize = bits.bitSet.cardinality();
+            bits.bitSet.or(that.bits.bitSet);
+            return bits.bitSet.cardinality() != oldSize;
+        }
+        return super.union(other);
+    }
+
+    @Override
+    public boolean intersect(SetFact<Var> other) {
+        if (other instanceof BitSetFact that) {
+            int oldSize = bits.bitSet.cardinality();
+            bits.bitSet.and(that.bits.bitSet);
+            return bits.bitSet.cardinality() != oldSize;
+        }
+        return super.intersect(other);
+    }
+
+    @Override
+    public void set(SetFact<Var> other) {
+        if (other instanceof BitSetFact that) {
+            bits.vars = VarIndexes.merge(bits.vars, that.bits.vars);
+            bits.bitSet.clear();
+            bits.bitSet.or(that.bits.bitSet);
+        } else {
+            super.set(other);
+        }
+    }
+
+    @Override
+    public BitSetFact copy() {
+        return new BitSetFact(new VarBitSet(bits.vars, (BitSet) bits.bitSet.clone()));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof BitSetFact that) {
+            return bits.bitSet.equals(that.bits.bitSet) &&
+                    (bits.vars == that.bits.vars || bits.bitSet.isEmpty());
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    /**
+     * Set of the variables of a method backed by a {@link BitSet}.
+     */
+    private static class VarBitSet extends AbstractSet<Var> {
+
+        /**
+         * Variables of the method, or null if no variable has been added.
+         */
+        private List<Var> vars;
+
+        private final BitSet bitSet;
+
+        private VarBitSet(List<Var> vars, BitSet bitSet) {
+            this.vars = vars;
+            this.bitSet = bitSet;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Var var && VarIndexes.contains(vars, var) &&
+                    bitSet.get(var.getIndex());
+        }
+
+        @Override
+        public boolean add(Var var) {
+            vars = VarIndexes.checkVar(vars, var);
+            int index = var.getIndex();
+            if (bitSet.get(index)) {
+                return false;
+            }
+            bitSet.set(index);
+            return true;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (contains(o)) {
+                bitSet.clear(((Var) o).getIndex());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            bitSet.clear();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return bitSet.isEmpty();
+        }
+
+        @Override
+        public int size() {
+            return bitSet.cardinality();
+        }
+
+        @Override
+        public Iterator<Var> iterator() {
+            return new Iterator<>() {
+
+                private int next = bitSet.nextSetBit(0);
+
+                private int last = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public Var next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    last = next;
+                    next = bitSet.nextSetBit(next + 1);
+                    return vars.get(last);
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    bitSet.clear(last);
+                    last = -1;
+                }
+            };
+        }
+    }
+}
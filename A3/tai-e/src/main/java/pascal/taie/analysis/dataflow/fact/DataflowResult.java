@@ -33,9 +33,23 @@ import java.util.Map;
  */
 public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
 
-    private final Map<Node, Fact> inFacts = new LinkedHashMap<>();
+    private final Map<Node, Fact> inFacts;
 
-    private final Map<Node, Fact> outFacts = new LinkedHashMap<>();
+    private final Map<Node, Fact> outFacts;
+
+    public DataflowResult() {
+        this(new LinkedHashMap<>(), new LinkedHashMap<>());
+    }
+
+    /**
+     * Creates a result which stores the facts in given maps. A subclass
+     * which stores the facts by itself passes null for the maps, and
+     * overrides all methods which get or set facts.
+     */
+    protected DataflowResult(Map<Node, Fact> inFacts, Map<Node, Fact> outFacts) {
+        this.inFacts = inFacts;
+        this.outFacts = outFacts;
+    }
 
     /**
      * @return the flowing-in fact of given node.
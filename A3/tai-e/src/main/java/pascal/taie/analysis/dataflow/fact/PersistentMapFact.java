@@ -0,0 +1,61 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.collection.HamtMap;
+
+/**
+ * Map-like data-flow facts backed by persistent hash tries, so that
+ * {@link #copy()} takes O(1) time and the copies share their content
+ * until they are updated.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ * @see HamtMap
+ */
+public class PersistentMapFact<K, V> extends MapFact<K, V> {
+
+    private final HamtMap<K, V> hamt;
+
+    public PersistentMapFact() {
+        this(new HamtMap<>());
+    }
+
+    private PersistentMapFact(HamtMap<K, V> hamt) {
+        super(() -> hamt);
+        this.hamt = hamt;
+    }
+
+    @Override
+    public boolean copyFrom(MapFact<K, V> fact) {
+        if (fact instanceof PersistentMapFact<K, V> that) {
+            return hamt.union(that.hamt, (v1, v2) -> v2);
+        }
+        return super.copyFrom(fact);
+    }
+
+    @Override
+    public PersistentMapFact<K, V> copy() {
+        return new PersistentMapFact<>(hamt.copy());
+    }
+}
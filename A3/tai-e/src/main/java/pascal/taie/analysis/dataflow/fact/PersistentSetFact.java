@@ -0,0 +1,127 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.collection.HamtMap;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+
+/**
+ * Set-like data-flow facts backed by persistent hash tries, so that
+ * {@link #copy()} takes O(1) time and the copies share their content
+ * until they are updated.
+ *
+ * @param <E> type of elements
+ * @see HamtMap
+ */
+public class PersistentSetFact<E> extends SetFact<E> {
+
+    private final HamtMap<E, Boolean> hamt;
+
+    public PersistentSetFact() {
+        this(new HamtMap<>());
+    }
+
+    private PersistentSetFact(HamtMap<E, Boolean> hamt) {
+        super(() -> new ElementSet<>(hamt));
+        this.hamt = hamt;
+    }
+
+    @Override
+    public boolean union(SetFact<E> other) {
+        if (other instanceof PersistentSetFact<E> that) {
+            return hamt.union(that.hamt, (b1, b2) -> b1);
+        }
+        return super.union(other);
+    }
+
+    @Override
+    public void set(SetFact<E> other) {
+        if (other instanceof PersistentSetFact<E> that) {
+            hamt.set(that.hamt);
+        } else {
+            super.set(other);
+        }
+    }
+
+    @Override
+    public PersistentSetFact<E> copy() {
+        return new PersistentSetFact<>(hamt.copy());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof PersistentSetFact<?> that) {
+            return hamt.equals(that.hamt);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    /**
+     * Set view of the keys of a {@link HamtMap}.
+     */
+    private static class ElementSet<E> extends AbstractSet<E> {
+
+        private final HamtMap<E, Boolean> hamt;
+
+        private ElementSet(HamtMap<E, Boolean> hamt) {
+            this.hamt = hamt;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return hamt.containsKey(o);
+        }
+
+        @Override
+        public boolean add(E e) {
+            return hamt.put(e, Boolean.TRUE) == null;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return hamt.remove(o) != null;
+        }
+
+        @Override
+        public void clear() {
+            hamt.clear();
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return hamt.keySet().iterator();
+        }
+
+        @Override
+        public int size() {
+            return hamt.size();
+        }
+    }
+}
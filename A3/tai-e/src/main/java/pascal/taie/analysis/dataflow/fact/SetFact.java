@@ -29,6 +29,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 /**
@@ -48,6 +49,14 @@ public class SetFact<E> {
         this(Collections.emptySet());
     }
 
+    /**
+     * Creates a fact backed by the set given by {@code setFactory},
+     * so that subclasses can provide specialized set implementations.
+     */
+    protected SetFact(Supplier<Set<E>> setFactory) {
+        set = setFactory.get();
+    }
+
     /**
      * @return true if this set contains the specified element, otherwise false.
      */
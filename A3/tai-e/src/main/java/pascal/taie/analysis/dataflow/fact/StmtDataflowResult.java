@@ -0,0 +1,148 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * {@link DataflowResult} for the nodes of statement CFGs, which stores
+ * the facts in arrays indexed by {@link Stmt#getIndex()}, so that
+ * looking up and associating facts do not involve hashing.
+ * <p>
+ * As in {@link DataflowResult}, the facts are associated with the
+ * statements themselves: the result also records the statement of each
+ * index, thus it still finds the facts of a statement which has been
+ * re-indexed since (e.g., the statements after an inserted one), and
+ * never returns the facts of another statement with the same index.
+ * Facts associated with a statement are always stored at its current
+ * index, and replace the facts of the statement previously at the index,
+ * thus the statements associated in a result should come from the same
+ * IR (plus the entry and exit nodes of its CFG).
+ *
+ * @param <Fact> type of data-flow facts
+ */
+public class StmtDataflowResult<Fact> extends DataflowResult<Stmt, Fact> {
+
+    private Stmt[] stmts;
+
+    private Object[] inFacts;
+
+    private Object[] outFacts;
+
+    /**
+     * Positions in the arrays of the statements which have been
+     * re-indexed, built on demand.
+     */
+    private Map<Stmt, Integer> movedStmts;
+
+    /**
+     * @param capacity the expected number of nodes, i.e., the maximum
+     *                 index of the nodes plus 1.
+     */
+    public StmtDataflowResult(int capacity) {
+        super(null, null);
+        stmts = new Stmt[capacity];
+        inFacts = new Object[capacity];
+        outFacts = new Object[capacity];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Fact getInFact(Stmt stmt) {
+        int pos = positionOf(stmt);
+        return pos >= 0 ? (Fact) inFacts[pos] : null;
+    }
+
+    @Override
+    public void setInFact(Stmt stmt, Fact fact) {
+        inFacts[associate(stmt)] = fact;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Fact getOutFact(Stmt stmt) {
+        int pos = positionOf(stmt);
+        return pos >= 0 ? (Fact) outFacts[pos] : null;
+    }
+
+    @Override
+    public void setOutFact(Stmt stmt, Fact fact) {
+        outFacts[associate(stmt)] = fact;
+    }
+
+    /**
+     * @return the position of the facts of given statement in the arrays,
+     * or -1 if the statement has no facts in this result.
+     */
+    private int positionOf(Stmt stmt) {
+        int index = stmt.getIndex();
+        if (index >= 0 && index < stmts.length && stmts[index] == stmt) {
+            return index;
+        }
+        if (movedStmts == null) {
+            movedStmts = new IdentityHashMap<>();
+            for (int i = 0; i < stmts.length; ++i) {
+                if (stmts[i] != null && stmts[i].getIndex() != i) {
+                    movedStmts.put(stmts[i], i);
+                }
+            }
+        }
+        return movedStmts.getOrDefault(stmt, -1);
+    }
+
+    /**
+     * Associates given statement with the facts at its current index.
+     *
+     * @return the position of the facts of given statement in the arrays.
+     */
+    private int associate(Stmt stmt) {
+        int index = stmt.getIndex();
+        if (index < 0) {
+            throw new IllegalArgumentException(stmt + " is not indexed");
+        }
+        if (index >= stmts.length) {
+            int length = newLength(index);
+            stmts = Arrays.copyOf(stmts, length);
+            inFacts = Arrays.copyOf(inFacts, length);
+            outFacts = Arrays.copyOf(outFacts, length);
+        }
+        if (stmts[index] != stmt) {
+            if (stmts[index] != null) {
+                // the facts of the statement previously at the index
+                // are replaced
+                inFacts[index] = outFacts[index] = null;
+            }
+            stmts[index] = stmt;
+            movedStmts = null;
+        }
+        return index;
+    }
+
+    private static int newLength(int index) {
+        return Math.max(index + 1, index + (index >> 1));
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data-flow result which only stores the facts at the boundaries of
+ * basic blocks, i.e., the flowing-in fact of the first node and the
+ * flowing-out fact of the last node of each block. The facts of the
+ * other nodes are recomputed from the boundary facts by the transfer
+ * functions of the analysis when they are queried.
+ * <p>
+ * The facts set via {@link #setInFact} and {@link #setOutFact} are stored
+ * as in {@link DataflowResult}, and they take precedence over the facts
+ * computed by the solver. They do not affect the facts of other nodes.
+ * <p>
+ * The facts of the most recently queried block are cached, thus querying
+ * the nodes block by block costs one pass of transfer functions.
+ * This class is not thread-safe.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <Fact> type of data-flow facts
+ */
+class BlockDataflowResult<Node, Fact> extends DataflowResult<Node, Fact> {
+
+    /**
+     * Basic block, i.e., a maximal sequence of nodes where each node
+     * except the first one has exactly one predecessor, and each node
+     * except the last one has exactly one successor.
+     */
+    static class Block<Node, Fact> {
+
+        private final List<Node> nodes = new ArrayList<>();
+
+        /**
+         * Flowing-in fact of the first node.
+         */
+        Fact in;
+
+        /**
+         * Flowing-out fact of the last node.
+         */
+        Fact out;
+
+        List<Node> getNodes() {
+            return nodes;
+        }
+
+        Node getFirst() {
+            return nodes.get(0);
+        }
+
+        Node getLast() {
+            return nodes.get(nodes.size() - 1);
+        }
+    }
+
+    private final DataflowAnalysis<Node, Fact> analysis;
+
+    private final List<Block<Node, Fact>> blocks = new ArrayList<>();
+
+    private final Map<Node, Block<Node, Fact>> blockOf;
+
+    /**
+     * Map from each node to its index in its block.
+     */
+    private final Map<Node, Integer> indexes;
+
+    /**
+     * The block whose node facts are cached.
+     */
+    private Block<Node, Fact> cachedBlock;
+
+    private List<Fact> cachedInFacts;
+
+    private List<Fact> cachedOutFacts;
+
+    BlockDataflowResult(CFG<Node> cfg, DataflowAnalysis<Node, Fact> analysis) {
+        this.analysis = analysis;
+        int size = cfg.getNumberOfNodes();
+        blockOf = Maps.newMap(size);
+        indexes = Maps.newMap(size);
+        for (Node node : cfg) {
+            if (!blockOf.containsKey(node) && isBlockHead(cfg, node)) {
+                Block<Node, Fact> block = new Block<>();
+                blocks.add(block);
+                for (Node n = node; ; n = cfg.getSuccsOf(n).iterator().next()) {
+                    indexes.put(n, block.nodes.size());
+                    block.nodes.add(n);
+                    blockOf.put(n, block);
+                    if (!hasFallThrough(cfg, n)) {
+                        break;
+                    }
+                }
+            }
+        }
+        // nodes which are not reachable from any block head (i.e., nodes
+        // in cycles without any branches or joins) form blocks by themselves
+        for (Node node : cfg) {
+            if (!blockOf.containsKey(node)) {
+                Block<Node, Fact> block = new Block<>();
+                blocks.add(block);
+                indexes.put(node, 0);
+                block.nodes.add(node);
+                blockOf.put(node, block);
+            }
+        }
+    }
+
+    /**
+     * @return true if node is in the same block as its only successor.
+     */
+    private static <Node> boolean hasFallThrough(CFG<Node> cfg, Node node) {
+        if (cfg.isEntry(node) || cfg.getOutDegreeOf(node) != 1) {
+            return false;
+        }
+        Node succ = cfg.getSuccsOf(node).iterator().next();
+        return !cfg.isExit(succ) && cfg.getInDegreeOf(succ) == 1
+                && succ != node;
+    }
+
+    private static <Node> boolean isBlockHead(CFG<Node> cfg, Node node) {
+        if (cfg.isEntry(node) || cfg.isExit(node) || cfg.getInDegreeOf(node) != 1) {
+            return true;
+        }
+        return !hasFallThrough(cfg, cfg.getPredsOf(node).iterator().next());
+    }
+
+    List<Block<Node, Fact>> getBlocks() {
+        return blocks;
+    }
+
+    Block<Node, Fact> getBlockOf(Node node) {
+        return blockOf.get(node);
+    }
+
+    @Override
+    public Fact getInFact(Node node) {
+        Fact fact = super.getInFact(node);
+        if (fact != null) {
+            return fact;
+        }
+        Block<Node, Fact> block = blockOf.get(node);
+        if (block == null) {
+            return null;
+        }
+        if (node == block.getFirst()) {
+            return block.in;
+        }
+        return expand(block).get(0).get(indexes.get(node));
+    }
+
+    @Override
+    public Fact getOutFact(Node node) {
+        Fact fact = super.getOutFact(node);
+        if (fact != null) {
+            return fact;
+        }
+        Block<Node, Fact> block = blockOf.get(node);
+        if (block == null) {
+            return null;
+        }
+        if (node == block.getLast()) {
+            return block.out;
+        }
+        return expand(block).get(1).get(indexes.get(node));
+    }
+
+    /**
+     * Recomputes the facts of the nodes in given block.
+     *
+     * @return the list of in facts and the list of out facts of the nodes.
+     */
+    private List<List<Fact>> expand(Block<Node, Fact> block) {
+        if (block != cachedBlock) {
+            List<Node> nodes = block.nodes;
+            int size = nodes.size();
+            List<Fact> inFacts = new ArrayList<>(size);
+            List<Fact> outFacts = new ArrayList<>(size);
+            for (int i = 0; i < size; ++i) {
+                inFacts.add(null);
+                outFacts.add(null);
+            }
+            if (analysis.isForward()) {
+                Fact fact = block.in;
+                for (int i = 0; i < size; ++i) {
+                    inFacts.set(i, fact);
+                    if (i < size - 1) {
+                        fact = transfer(nodes.get(i), fact);
+                    } else {
+                        fact = block.out;
+                    }
+                    outFacts.set(i, fact);
+                }
+            } else {
+                Fact fact = block.out;
+                for (int i = size - 1; i >= 0; --i) {
+                    outFacts.set(i, fact);
+                    if (i > 0) {
+                        fact = transfer(nodes.get(i), fact);
+                    } else {
+                        fact = block.in;
+                    }
+                    inFacts.set(i, fact);
+                }
+            }
+            cachedBlock = block;
+            cachedInFacts = inFacts;
+            cachedOutFacts = outFacts;
+        }
+        return List.of(cachedInFacts, cachedOutFacts);
+    }
+
+    /**
+     * Applies the transfer function of node on given fact, which is the
+     * flowing-in fact for forward analyses, and flowing-out fact for
+     * backward analyses.
+     *
+     * @return the resulting fact.
+     */
+    Fact transfer(Node node, Fact fact) {
+        Fact result = analysis.newInitialFact();
+        if (analysis.isForward()) {
+            analysis.transferNode(node, fact, result);
+        } else {
+            analysis.transferNode(node, result, fact);
+        }
+        return result;
+    }
+}
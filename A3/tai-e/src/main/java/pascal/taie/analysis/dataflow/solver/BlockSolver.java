@@ -0,0 +1,116 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.BlockDataflowResult.Block;
+import pascal.taie.analysis.graph.cfg.CFG;
+
+import java.util.List;
+
+/**
+ * Work-list solver which iterates over basic blocks instead of nodes.
+ * Only the facts at block boundaries are stored, and the facts of the
+ * nodes inside blocks are recomputed when they are queried.
+ *
+ * @see BlockDataflowResult
+ */
+class BlockSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    BlockSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    @Override
+    protected DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
+        BlockDataflowResult<Node, Fact> result =
+                new BlockDataflowResult<>(cfg, analysis);
+        for (Block<Node, Fact> block : result.getBlocks()) {
+            Node node = block.getFirst();
+            if (analysis.isForward() && cfg.isEntry(node)) {
+                block.out = analysis.newBoundaryFact(cfg);
+            } else if (!analysis.isForward() && cfg.isExit(node)) {
+                block.in = analysis.newBoundaryFact(cfg);
+            } else {
+                block.in = analysis.newInitialFact();
+                block.out = analysis.newInitialFact();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        BlockDataflowResult<Node, Fact> blockResult =
+                (BlockDataflowResult<Node, Fact>) result;
+        // block heads are added to the work-list
+        PriorityWorkList<Node> workList = new PriorityWorkList<>(cfg, true);
+        for (Block<Node, Fact> block : blockResult.getBlocks()) {
+            if (!cfg.isEntry(block.getFirst())) {
+                workList.add(block.getFirst());
+            }
+        }
+        while (!workList.isEmpty()) {
+            Block<Node, Fact> block = blockResult.getBlockOf(workList.poll());
+            for (Node pred : cfg.getPredsOf(block.getFirst())) {
+                analysis.meetInto(blockResult.getBlockOf(pred).out, block.in);
+            }
+            List<Node> nodes = block.getNodes();
+            Fact in = block.in;
+            for (int i = 0; i < nodes.size() - 1; ++i) {
+                in = blockResult.transfer(nodes.get(i), in);
+            }
+            if (analysis.transferNode(block.getLast(), in, block.out)) {
+                workList.addAll(cfg.getSuccsOf(block.getLast()));
+            }
+        }
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        BlockDataflowResult<Node, Fact> blockResult =
+                (BlockDataflowResult<Node, Fact>) result;
+        // block tails are added to the work-list
+        PriorityWorkList<Node> workList = new PriorityWorkList<>(cfg, false);
+        for (Block<Node, Fact> block : blockResult.getBlocks()) {
+            if (!cfg.isExit(block.getLast())) {
+                workList.add(block.getLast());
+            }
+        }
+        while (!workList.isEmpty()) {
+            Block<Node, Fact> block = blockResult.getBlockOf(workList.poll());
+            for (Node succ : cfg.getSuccsOf(block.getLast())) {
+                analysis.meetInto(blockResult.getBlockOf(succ).in, block.out);
+            }
+            List<Node> nodes = block.getNodes();
+            Fact out = block.out;
+            for (int i = nodes.size() - 1; i > 0; --i) {
+                out = blockResult.transfer(nodes.get(i), out);
+            }
+            if (analysis.transferNode(block.getFirst(), block.in, out)) {
+                workList.addAll(cfg.getPredsOf(block.getFirst()));
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.IR;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Work-list which always returns the pending node that comes first in
+ * reverse postorder (for forward analyses) or in postorder (for backward
+ * analyses) of the CFG. Processing nodes in such order visits a node after
+ * (most of) its predecessors in the direction of the analysis, so that
+ * loops converge in fewer iterations. A node which is already in this
+ * work-list will not be added again.
+ * <p>
+ * The order of a CFG is computed once for each direction and cached
+ * in the IR, since a CFG is usually solved many times, e.g., by
+ * different analyses.
+ *
+ * @param <Node> type of CFG nodes
+ */
+class PriorityWorkList<Node> {
+
+    /**
+     * Keys of the cached orders in the result holder of IR.
+     */
+    private static final String FORWARD_ORDER = "priority-order-forward";
+
+    private static final String BACKWARD_ORDER = "priority-order-backward";
+
+    /**
+     * Nodes sorted by their priorities.
+     */
+    private final List<Node> nodes;
+
+    /**
+     * Map from each node to its priority, i.e., its index in {@link #nodes}.
+     */
+    private final Map<Node, Integer> priorities;
+
+    /**
+     * Priorities of the nodes in this work-list.
+     */
+    private final BitSet pending;
+
+    PriorityWorkList(CFG<Node> cfg, boolean isForward) {
+        Order<Node> order = getOrder(cfg, isForward);
+        nodes = order.nodes();
+        priorities = order.priorities();
+        pending = new BitSet(nodes.size());
+    }
+
+    void add(Node node) {
+        pending.set(priorities.get(node));
+    }
+
+    void addAll(Set<Node> nodes) {
+        nodes.forEach(this::add);
+    }
+
+    boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * Removes and returns the node with the highest priority.
+     */
+    Node poll() {
+        int i = pending.nextSetBit(0);
+        pending.clear(i);
+        return nodes.get(i);
+    }
+
+    /**
+     * Nodes of a CFG sorted by their priorities, and the map from each
+     * node to its priority. Both are never modified after creation.
+     */
+    private record Order<Node>(CFG<Node> cfg, List<Node> nodes,
+                               Map<Node, Integer> priorities) {
+    }
+
+    /**
+     * @return the order of given CFG, which is cached in its IR.
+     */
+    private static <Node> Order<Node> getOrder(CFG<Node> cfg, boolean isForward) {
+        IR ir = cfg.getIR();
+        if (ir == null) {
+            return computeOrder(cfg, isForward);
+        }
+        String key = isForward ? FORWARD_ORDER : BACKWARD_ORDER;
+        // the result holder of IR is not thread-safe
+        synchronized (ir) {
+            Order<?> order = ir.getResult(key);
+            if (order != null && order.cfg() == cfg) {
+                // the nodes of the order are the nodes of cfg
+                @SuppressWarnings("unchecked")
+                Order<Node> cached = (Order<Node>) order;
+                return cached;
+            }
+            Order<Node> newOrder = computeOrder(cfg, isForward);
+            ir.storeResult(key, newOrder);
+            return newOrder;
+        }
+    }
+
+    /**
+     * Computes reverse postorder of the CFG from entry node (for forward
+     * analyses), or reverse postorder of the reverse CFG from exit node
+     * (i.e., postorder for backward analyses). The nodes which are not
+     * reachable from the start node are placed at the end.
+     */
+    private static <Node> Order<Node> computeOrder(CFG<Node> cfg, boolean isForward) {
+        int size = cfg.getNumberOfNodes();
+        Node start = isForward ? cfg.getEntry() : cfg.getExit();
+        Set<Node> visited = Sets.newSet(size);
+        List<Node> postOrder = new ArrayList<>(size);
+        postOrder(cfg, isForward, start, visited, postOrder);
+        List<Node> order = new ArrayList<>(size);
+        for (int i = postOrder.size() - 1; i >= 0; --i) {
+            order.add(postOrder.get(i));
+        }
+        for (Node node : cfg) {
+            if (!visited.contains(node)) {
+                postOrder.clear();
+                postOrder(cfg, isForward, node, visited, postOrder);
+                for (int i = postOrder.size() - 1; i >= 0; --i) {
+                    order.add(postOrder.get(i));
+                }
+            }
+        }
+        Map<Node, Integer> priorities = Maps.newMap(order.size());
+        for (int i = 0; i < order.size(); ++i) {
+            priorities.put(order.get(i), i);
+        }
+        return new Order<>(cfg, order, priorities);
+    }
+
+    /**
+     * Iterative depth-first search which appends the nodes reachable
+     * from {@code start} to {@code result} in postorder.
+     */
+    private static <Node> void postOrder(
+            CFG<Node> cfg, boolean isForward, Node start,
+            Set<Node> visited, List<Node> result) {
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<Iterator<Node>> iterators = new ArrayDeque<>();
+        visited.add(start);
+        stack.push(start);
+        iterators.push(next(cfg, isForward, start).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<Node> it = iterators.peek();
+            if (it.hasNext()) {
+                Node succ = it.next();
+                if (visited.add(succ)) {
+                    stack.push(succ);
+                    iterators.push(next(cfg, isForward, succ).iterator());
+                }
+            } else {
+                result.add(stack.pop());
+                iterators.pop();
+            }
+        }
+    }
+
+    private static <Node> Set<Node> next(CFG<Node> cfg, boolean isForward, Node node) {
+        return isForward ? cfg.getSuccsOf(node) : cfg.getPredsOf(node);
+    }
+}
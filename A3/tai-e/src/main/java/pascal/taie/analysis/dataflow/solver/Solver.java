@@ -22,9 +22,14 @@
 
 package pascal.taie.analysis.dataflow.solver;
 
+import pascal.taie.analysis.MethodAnalysis;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.StmtDataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.Set;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -35,6 +40,11 @@ import pascal.taie.analysis.graph.cfg.CFG;
  */
 public abstract class Solver<Node, Fact> {
 
+    /**
+     * Value of analysis option "solver" which selects {@link BlockSolver}.
+     */
+    private static final String BLOCK_SOLVER = "block";
+
     protected final DataflowAnalysis<Node, Fact> analysis;
 
     protected Solver(DataflowAnalysis<Node, Fact> analysis) {
@@ -43,9 +53,15 @@ public abstract class Solver<Node, Fact> {
 
     /**
      * Static factory method to create a new solver for given analysis.
+     * The solver is {@link BlockSolver} if the analysis is configured
+     * with option "solver:block", otherwise {@link WorkListSolver}.
      */
     public static <Node, Fact> Solver<Node, Fact> makeSolver(
             DataflowAnalysis<Node, Fact> analysis) {
+        if (analysis instanceof MethodAnalysis methodAnalysis &&
+                BLOCK_SOLVER.equals(methodAnalysis.getOptions().getString("solver"))) {
+            return new BlockSolver<>(analysis);
+        }
         return new WorkListSolver<>(analysis);
     }
 
@@ -61,13 +77,46 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
+    /**
+     * Re-solves the data-flow problem for the given CFG after some of its
+     * nodes have changed, reusing the facts of {@code previous} wherever
+     * they are still valid.
+     * <p>
+     * {@code changedNodes} must contain every node which is new, whose
+     * transfer function has changed (e.g., the statement was edited), or
+     * whose predecessors or successors have changed. {@code previous}
+     * must be the result of the same analysis on the CFG of the same
+     * method before the change, and its facts are looked up by node
+     * identity, so the CFG may be rebuilt from the edited IR, where
+     * the unchanged statements may have been re-indexed. The nodes
+     * without facts in {@code previous} are taken as changed, except
+     * the entry (or exit, for backward analysis) of a rebuilt CFG, which
+     * is assumed to have the same boundary fact. Under these conditions,
+     * the returned
+     * result is equal to the one of {@link #solve(CFG)}.
+     * <p>
+     * By default, this method solves the problem from scratch;
+     * {@link WorkListSolver} overrides it to re-analyze only the nodes
+     * affected by the change.
+     *
+     * @param cfg          control-flow graph after the change
+     * @param previous     analysis result of the CFG before the change
+     * @param changedNodes nodes affected directly by the change
+     * @return the analysis result
+     */
+    public DataflowResult<Node, Fact> solve(
+            CFG<Node> cfg, DataflowResult<Node, Fact> previous,
+            Set<Node> changedNodes) {
+        return solve(cfg);
+    }
+
     /**
      * Creates and initializes a new data-flow result for given CFG.
      *
      * @return the initialized data-flow result
      */
-    private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = new DataflowResult<>();
+    protected DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
+        DataflowResult<Node, Fact> result = newResult(cfg);
         if (analysis.isForward()) {
             initializeForward(cfg, result);
         } else {
@@ -76,6 +125,23 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
+    /**
+     * Creates an empty data-flow result for given CFG. If the nodes are
+     * {@link Stmt}s, the result is a {@link StmtDataflowResult}.
+     */
+    @SuppressWarnings("unchecked")
+    private DataflowResult<Node, Fact> newResult(CFG<Node> cfg) {
+        if (cfg.getEntry() instanceof Stmt entry &&
+                cfg.getExit() instanceof Stmt exit) {
+            // entry and exit nodes are indexed after the statements of IR
+            int capacity = Math.max(cfg.getIR().getStmts().size(),
+                    Math.max(entry.getIndex(), exit.getIndex()) + 1);
+            return (DataflowResult<Node, Fact>) (DataflowResult<?, Fact>)
+                    new StmtDataflowResult<Fact>(capacity);
+        }
+        return new DataflowResult<>();
+    }
+
     protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         // TODO - finish me
         result.setOutFact(cfg.getEntry(), analysis.newBoundaryFact(cfg));
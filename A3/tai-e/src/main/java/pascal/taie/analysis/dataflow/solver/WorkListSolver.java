@@ -25,72 +25,144 @@ package pascal.taie.analysis.dataflow.solver;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Sets;
 
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
 
+/**
+ * Work-list solver which processes nodes in the order given by
+ * {@link PriorityWorkList}.
+ */
 class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
 
     WorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
         super(analysis);
     }
 
+    /**
+     * Re-analyzes only the nodes reachable from the changed nodes in the
+     * direction of the analysis, and copies the facts of all other nodes
+     * from {@code previous}. The facts of these other nodes do not depend
+     * on any changed node, thus they are identical to the facts of a full
+     * re-solve. Copied fact objects are shared with {@code previous},
+     * which is safe as the solver never modifies facts of unaffected nodes.
+     */
     @Override
-    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
-        ArrayList<Node> nodeArrayList = new ArrayList<Node>();
-        for (Node node: cfg) {
-            if (cfg.isEntry(node)) {
+    public DataflowResult<Node, Fact> solve(
+            CFG<Node> cfg, DataflowResult<Node, Fact> previous,
+            Set<Node> changedNodes) {
+        boolean isForward = analysis.isForward();
+        DataflowResult<Node, Fact> result = initialize(cfg);
+        Node boundary = isForward ? cfg.getEntry() : cfg.getExit();
+        Set<Node> affected = getAffectedNodes(cfg, previous, changedNodes);
+        PriorityWorkList<Node> workList = new PriorityWorkList<>(cfg, isForward);
+        for (Node node : cfg) {
+            if (node.equals(boundary)) {
                 continue;
             }
-            nodeArrayList.add(node);
+            if (affected.contains(node)) {
+                workList.add(node);
+            } else {
+                result.setInFact(node, previous.getInFact(node));
+                result.setOutFact(node, previous.getOutFact(node));
+            }
+        }
+        if (isForward) {
+            solveForward(cfg, result, workList);
+        } else {
+            solveBackward(cfg, result, workList);
+        }
+        return result;
+    }
+
+    /**
+     * @return the nodes whose facts may differ from {@code previous},
+     * i.e., the changed nodes, the nodes without previous facts, and
+     * all nodes reachable from them in the direction of the analysis.
+     */
+    private Set<Node> getAffectedNodes(
+            CFG<Node> cfg, DataflowResult<Node, Fact> previous,
+            Set<Node> changedNodes) {
+        boolean isForward = analysis.isForward();
+        Node boundary = isForward ? cfg.getEntry() : cfg.getExit();
+        Deque<Node> queue = new ArrayDeque<>(changedNodes);
+        for (Node node : cfg) {
+            if (!node.equals(boundary) &&
+                    (previous.getInFact(node) == null ||
+                            previous.getOutFact(node) == null)) {
+                queue.add(node);
+            }
+        }
+        // the boundary fact is computed from the CFG, e.g., from the
+        // parameters of the method, so that it may change as well.
+        // If the CFG has been rebuilt, its boundary is a new node without
+        // previous fact, and the boundary fact is unchanged as it comes
+        // from the same method
+        Fact boundaryFact = isForward ? previous.getOutFact(boundary)
+                : previous.getInFact(boundary);
+        if (boundaryFact != null &&
+                !analysis.newBoundaryFact(cfg).equals(boundaryFact)) {
+            queue.add(boundary);
+        }
+        Set<Node> affected = Sets.newSet();
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            if (affected.add(node)) {
+                queue.addAll(isForward ?
+                        cfg.getSuccsOf(node) : cfg.getPredsOf(node));
+            }
         }
-        while(!nodeArrayList.isEmpty()) {
-            Node node = nodeArrayList.remove(0);
-            for (Node p: cfg.getPredsOf(node)) {
-                analysis.meetInto(result.getOutFact(p), result.getInFact(node));
+        return affected;
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        PriorityWorkList<Node> workList = new PriorityWorkList<>(cfg, true);
+        for (Node node : cfg) {
+            if (!cfg.isEntry(node)) {
+                workList.add(node);
             }
-            boolean changed = analysis.transferNode(node, result.getInFact(node), result.getOutFact(node));
-            if (changed) {
-                nodeArrayList.addAll(cfg.getSuccsOf(node));
+        }
+        solveForward(cfg, result, workList);
+    }
+
+    private void solveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                              PriorityWorkList<Node> workList) {
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            Fact in = result.getInFact(node);
+            for (Node pred : cfg.getPredsOf(node)) {
+                analysis.meetInto(result.getOutFact(pred), in);
+            }
+            if (analysis.transferNode(node, in, result.getOutFact(node))) {
+                workList.addAll(cfg.getSuccsOf(node));
             }
         }
     }
 
     @Override
     protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-//        boolean changesOccur = true;
-//        while(changesOccur) {
-//            boolean transferRes = false;
-//            for (Node node: cfg) {
-//                if (cfg.isExit(node)) {
-//                    continue;
-//                }
-//                for (Node s: cfg.getSuccsOf(node)) {
-//                    analysis.meetInto(result.getInFact(s), result.getOutFact(node));
-//                }
-//                boolean tmpRes = analysis.transferNode(node, result.getInFact(node), result.getOutFact(node));
-//                if (!transferRes && tmpRes) {
-//                    transferRes = true;
-//                }
-//            }
-//            changesOccur = transferRes;
-//        }
-        // TODO - finish me
-        ArrayList<Node> nodeArrayList = new ArrayList<Node>();
-        for (Node node: cfg) {
-            if (cfg.isExit(node)) {
-                continue;
+        PriorityWorkList<Node> workList = new PriorityWorkList<>(cfg, false);
+        for (Node node : cfg) {
+            if (!cfg.isExit(node)) {
+                workList.add(node);
             }
-            nodeArrayList.add(node);
         }
-        while(!nodeArrayList.isEmpty()) {
-            Node node = nodeArrayList.remove(0);
-            for (Node p: cfg.getSuccsOf(node)) {
-                analysis.meetInto(result.getInFact(p), result.getOutFact(node));
+        solveBackward(cfg, result, workList);
+    }
+
+    private void solveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                               PriorityWorkList<Node> workList) {
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            Fact out = result.getOutFact(node);
+            for (Node succ : cfg.getSuccsOf(node)) {
+                analysis.meetInto(result.getInFact(succ), out);
             }
-            boolean changed = analysis.transferNode(node, result.getInFact(node), result.getOutFact(node));
-            if (changed) {
-                nodeArrayList.addAll(cfg.getPredsOf(node));
+            if (analysis.transferNode(node, result.getInFact(node), out)) {
+                workList.addAll(cfg.getPredsOf(node));
             }
         }
     }
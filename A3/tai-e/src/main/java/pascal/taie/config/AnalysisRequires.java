@@ -0,0 +1,73 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Provides the requires relation declared in the analysis config file
+ * to the code outside this package.
+ */
+public final class AnalysisRequires {
+
+    /**
+     * Map from analysis id to the config declared in the config file,
+     * loaded on first use.
+     */
+    private static Map<String, AnalysisConfig> configs;
+
+    private AnalysisRequires() {
+    }
+
+    /**
+     * @return ids of the analyses that the analysis of given id requires
+     * when it runs with given options, or an empty list if given id is
+     * not declared in the analysis config file.
+     */
+    public static List<String> getRequiredIds(String id, AnalysisOptions options) {
+        AnalysisConfig config = getConfigs().get(id);
+        if (config == null || config.getRequires() == null) {
+            return List.of();
+        }
+        return config.getRequires()
+                .stream()
+                .filter(require -> Configs.satisfyConditions(
+                        Configs.extractConditions(require), options))
+                .map(Configs::extractId)
+                .toList();
+    }
+
+    private static synchronized Map<String, AnalysisConfig> getConfigs() {
+        if (configs == null) {
+            configs = AnalysisConfig.parseConfigs(Configs.getAnalysisConfig())
+                    .stream()
+                    .collect(Collectors.toMap(AnalysisConfig::getId,
+                            Function.identity()));
+        }
+        return configs;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+
+/**
+ * Mutable map whose content is a {@link PersistentMap}. Copying this map
+ * takes O(1) time as the copy shares the trie with this map, and each
+ * update only copies the path to the updated key.
+ * <p>
+ * Neither keys nor values can be null.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public class HamtMap<K, V> extends AbstractMap<K, V> {
+
+    private PersistentMap<K, V> map;
+
+    public HamtMap() {
+        this(PersistentMap.empty());
+    }
+
+    private HamtMap(PersistentMap<K, V> map) {
+        this.map = map;
+    }
+
+    /**
+     * @return a copy of this map, which shares the content with this map.
+     */
+    public HamtMap<K, V> copy() {
+        return new HamtMap<>(map);
+    }
+
+    /**
+     * Sets the content of this map to the same as other map.
+     */
+    public void set(HamtMap<K, V> other) {
+        map = other.map;
+    }
+
+    /**
+     * Unions other map into this map. For the keys contained in both maps,
+     * the resulting values are given by {@code combine(thisValue, otherValue)},
+     * which must be idempotent.
+     *
+     * @return true if this map changed as a result of the call, otherwise false.
+     * @see PersistentMap#union(PersistentMap, BinaryOperator)
+     */
+    public boolean union(HamtMap<K, V> other, BinaryOperator<V> combine) {
+        PersistentMap<K, V> old = map;
+        map = map.union(other.map, combine);
+        // union() returns the old map if nothing changes, otherwise
+        // (other map, or a new map) compare the content
+        return map != old && !map.equals(old);
+    }
+
+    @Override
+    public V get(Object key) {
+        return map.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        V old = map.get(key);
+        map = map.put(key, value);
+        return old;
+    }
+
+    @Override
+    public V remove(Object key) {
+        V old = map.get(key);
+        if (old != null) {
+            map = map.remove(key);
+        }
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        map = PersistentMap.empty();
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        map.forEach(action);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                PersistentMap<K, V> snapshot = map;
+                Iterator<Map.Entry<K, V>> it = snapshot.iterator();
+                return new Iterator<>() {
+
+                    private Map.Entry<K, V> last;
+
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<K, V> next() {
+                        return last = it.next();
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last == null) {
+                            throw new IllegalStateException();
+                        }
+                        HamtMap.this.remove(last.getKey());
+                        last = null;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof HamtMap<?, ?> that) {
+            return map.equals(that.map);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return map.hashCode();
+    }
+}
@@ -0,0 +1,646 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+/**
+ * Immutable map implemented by a hash array mapped trie (HAMT).
+ * Updates return new maps which share all unchanged sub-tries with
+ * the old ones (path copying), so an update costs O(log n) time and
+ * space, and keeping many similar versions of a map is cheap.
+ * <p>
+ * Neither keys nor values can be null.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public final class PersistentMap<K, V> implements Iterable<Map.Entry<K, V>> {
+
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null);
+
+    private final Node root;
+
+    /**
+     * Cached size of this map, -1 if not computed yet.
+     */
+    private int size = -1;
+
+    /**
+     * Cached hash code of this map, 0 if not computed yet.
+     */
+    private int hashCode;
+
+    private PersistentMap(Node root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    private PersistentMap<K, V> withRoot(Node newRoot) {
+        if (newRoot == root) {
+            return this;
+        }
+        return newRoot == null ? empty() : new PersistentMap<>(newRoot);
+    }
+
+    /**
+     * @return the value of given key, or null if the key is absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int hash = hash(key);
+        Node node = root;
+        for (int shift = 0; node instanceof Branch branch; shift += BITS) {
+            int bit = bit(hash, shift);
+            if ((branch.bitmap & bit) == 0) {
+                return null;
+            }
+            node = branch.children[branch.index(bit)];
+        }
+        if (node instanceof Leaf leaf) {
+            return leaf.hash == hash && leaf.key.equals(key) ?
+                    (V) leaf.value : null;
+        } else if (node instanceof Collision collision) {
+            Leaf leaf = collision.find(hash, key);
+            return leaf != null ? (V) leaf.value : null;
+        }
+        return null;
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return a map which maps key to value and has the same other mappings
+     * as this map. If this map already maps key to value, returns this map.
+     */
+    public PersistentMap<K, V> put(K key, V value) {
+        Objects.requireNonNull(value);
+        return withRoot(put(root, new Leaf(hash(key), key, value), 0, null));
+    }
+
+    /**
+     * @return a map which has the same mappings as this map except key.
+     * If this map does not contain key, returns this map.
+     */
+    public PersistentMap<K, V> remove(Object key) {
+        return withRoot(remove(root, hash(key), key, 0));
+    }
+
+    /**
+     * Computes the union of this map and other map. For the keys contained
+     * in both maps, the resulting values are given by
+     * {@code combine(valueInThisMap, valueInOtherMap)}.
+     * <p>
+     * The sub-tries shared by the two maps are reused without being
+     * traversed, thus {@code combine} must be idempotent, i.e.,
+     * {@code combine(v, v)} equals {@code v}.
+     *
+     * @return the resulting map. If the result equals this map (resp.
+     * other map), returns this map (resp. other map) whenever possible.
+     */
+    public PersistentMap<K, V> union(PersistentMap<K, V> other,
+                                     BinaryOperator<V> combine) {
+        return withRoot(union(root, other.root, 0, combine));
+    }
+
+    public int size() {
+        if (size < 0) {
+            int[] count = new int[1];
+            forEach((k, v) -> ++count[0]);
+            size = count[0];
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        forEachLeaf(root, leaf -> action.accept((K) leaf.key, (V) leaf.value));
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        return new EntryIterator<>(root);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PersistentMap<?, ?> that)) {
+            return false;
+        }
+        return size() == that.size() && nodeEquals(root, that.root, 0);
+    }
+
+    /**
+     * @return the hash code of this map, as specified by {@link Map#hashCode()}.
+     */
+    @Override
+    public int hashCode() {
+        if (hashCode == 0) {
+            int[] h = new int[1];
+            forEachLeaf(root, leaf -> h[0] += leaf.key.hashCode() ^ leaf.value.hashCode());
+            hashCode = h[0];
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((k, v) -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(k).append('=').append(v);
+        });
+        return sb.append('}').toString();
+    }
+
+    // ---------- trie nodes ----------
+
+    private abstract static class Node {
+    }
+
+    private static final class Leaf extends Node
+            implements Map.Entry<Object, Object> {
+
+        private final int hash;
+
+        private final Object key;
+
+        private final Object value;
+
+        private Leaf(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Object getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e &&
+                    key.equals(e.getKey()) && value.equals(e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Leaves whose keys have the same hash.
+     */
+    private static final class Collision extends Node {
+
+        private final int hash;
+
+        private final Leaf[] leaves;
+
+        private Collision(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        private Leaf find(int hash, Object key) {
+            if (this.hash == hash) {
+                for (Leaf leaf : leaves) {
+                    if (leaf.key.equals(key)) {
+                        return leaf;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Branch extends Node {
+
+        /**
+         * The i-th bit is set if the i-th (of 32) slot is occupied.
+         */
+        private final int bitmap;
+
+        /**
+         * Nodes in the occupied slots.
+         */
+        private final Node[] children;
+
+        private Branch(int bitmap, Node[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private Branch replace(int index, Node child) {
+            Node[] newChildren = children.clone();
+            newChildren[index] = child;
+            return new Branch(bitmap, newChildren);
+        }
+
+        private Branch insert(int bit, Node child) {
+            int index = index(bit);
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newChildren[index] = child;
+            System.arraycopy(children, index, newChildren, index + 1,
+                    children.length - index);
+            return new Branch(bitmap | bit, newChildren);
+        }
+
+        private Branch delete(int bit) {
+            int index = index(bit);
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(children, index + 1, newChildren, index,
+                    children.length - index - 1);
+            return new Branch(bitmap & ~bit, newChildren);
+        }
+    }
+
+    // ---------- trie operations ----------
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static int hashOf(Node node) {
+        return node instanceof Leaf leaf ? leaf.hash : ((Collision) node).hash;
+    }
+
+    /**
+     * Puts given leaf into the trie rooted by node.
+     *
+     * @param combine if not null, and the key of leaf is present in the trie,
+     *                the new value is combine(oldValue, leaf.value);
+     *                otherwise, the new value is leaf.value.
+     * @return the new trie, or node itself if the trie does not change.
+     */
+    private static Node put(Node node, Leaf leaf, int shift,
+                            BinaryOperator<Object> combine) {
+        if (node == null) {
+            return leaf;
+        }
+        if (node instanceof Branch branch) {
+            int bit = bit(leaf.hash, shift);
+            if ((branch.bitmap & bit) == 0) {
+                return branch.insert(bit, leaf);
+            }
+            int index = branch.index(bit);
+            Node child = branch.children[index];
+            Node newChild = put(child, leaf, shift + BITS, combine);
+            return newChild == child ? branch : branch.replace(index, newChild);
+        }
+        if (node instanceof Leaf old) {
+            if (old.hash == leaf.hash) {
+                if (old.key.equals(leaf.key)) {
+                    return updateLeaf(old, leaf, combine);
+                }
+                return new Collision(leaf.hash, new Leaf[]{ old, leaf });
+            }
+            return pair(old, leaf, shift);
+        }
+        Collision collision = (Collision) node;
+        if (collision.hash != leaf.hash) {
+            return pair(collision, leaf, shift);
+        }
+        Leaf[] leaves = collision.leaves;
+        for (int i = 0; i < leaves.length; ++i) {
+            if (leaves[i].key.equals(leaf.key)) {
+                Leaf newLeaf = updateLeaf(leaves[i], leaf, combine);
+                if (newLeaf == leaves[i]) {
+                    return collision;
+                }
+                Leaf[] newLeaves = leaves.clone();
+                newLeaves[i] = newLeaf;
+                return new Collision(collision.hash, newLeaves);
+            }
+        }
+        Leaf[] newLeaves = new Leaf[leaves.length + 1];
+        System.arraycopy(leaves, 0, newLeaves, 0, leaves.length);
+        newLeaves[leaves.length] = leaf;
+        return new Collision(collision.hash, newLeaves);
+    }
+
+    private static Leaf updateLeaf(Leaf old, Leaf leaf,
+                                   BinaryOperator<Object> combine) {
+        Object value = combine == null ? leaf.value :
+                combine.apply(old.value, leaf.value);
+        if (value.equals(old.value)) {
+            return old;
+        }
+        return value == leaf.value ? leaf : new Leaf(old.hash, old.key, value);
+    }
+
+    /**
+     * @return a branch containing two nodes of different hashes.
+     */
+    private static Node pair(Node n1, Node n2, int shift) {
+        int h1 = hashOf(n1), h2 = hashOf(n2);
+        int bit1 = bit(h1, shift), bit2 = bit(h2, shift);
+        if (bit1 == bit2) {
+            return new Branch(bit1, new Node[]{ pair(n1, n2, shift + BITS) });
+        }
+        return Integer.compareUnsigned(bit1, bit2) < 0 ?
+                new Branch(bit1 | bit2, new Node[]{ n1, n2 }) :
+                new Branch(bit1 | bit2, new Node[]{ n2, n1 });
+    }
+
+    /**
+     * @return the trie after removing key, or node itself if the trie
+     * does not contain key.
+     */
+    private static Node remove(Node node, int hash, Object key, int shift) {
+        if (node == null) {
+            return null;
+        }
+        if (node instanceof Branch branch) {
+            int bit = bit(hash, shift);
+            if ((branch.bitmap & bit) == 0) {
+                return branch;
+            }
+            int index = branch.index(bit);
+            Node child = branch.children[index];
+            Node newChild = remove(child, hash, key, shift + BITS);
+            if (newChild == child) {
+                return branch;
+            }
+            if (newChild == null) {
+                if (branch.children.length == 1) {
+                    return null;
+                }
+                if (branch.children.length == 2) {
+                    Node last = branch.children[1 - index];
+                    if (!(last instanceof Branch)) {
+                        return last;
+                    }
+                }
+                return branch.delete(bit);
+            }
+            if (branch.children.length == 1 && !(newChild instanceof Branch)) {
+                return newChild;
+            }
+            return branch.replace(index, newChild);
+        }
+        if (node instanceof Leaf leaf) {
+            return leaf.hash == hash && leaf.key.equals(key) ? null : leaf;
+        }
+        Collision collision = (Collision) node;
+        if (collision.hash != hash) {
+            return collision;
+        }
+        Leaf[] leaves = collision.leaves;
+        for (int i = 0; i < leaves.length; ++i) {
+            if (leaves[i].key.equals(key)) {
+                if (leaves.length == 2) {
+                    return leaves[1 - i];
+                }
+                Leaf[] newLeaves = new Leaf[leaves.length - 1];
+                System.arraycopy(leaves, 0, newLeaves, 0, i);
+                System.arraycopy(leaves, i + 1, newLeaves, i, leaves.length - i - 1);
+                return new Collision(hash, newLeaves);
+            }
+        }
+        return collision;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Node union(Node n1, Node n2, int shift,
+                                  BinaryOperator<V> combine) {
+        if (n1 == n2 || n2 == null) {
+            return n1;
+        }
+        if (n1 == null) {
+            return n2;
+        }
+        BinaryOperator<Object> comb = (BinaryOperator<Object>) combine;
+        if (n1 instanceof Branch b1 && n2 instanceof Branch b2) {
+            int bitmap = b1.bitmap | b2.bitmap;
+            Node[] children = new Node[Integer.bitCount(bitmap)];
+            boolean same1 = bitmap == b1.bitmap, same2 = bitmap == b2.bitmap;
+            for (int bits = bitmap, i = 0; bits != 0; bits &= bits - 1, ++i) {
+                int bit = bits & -bits;
+                Node c1 = (b1.bitmap & bit) != 0 ? b1.children[b1.index(bit)] : null;
+                Node c2 = (b2.bitmap & bit) != 0 ? b2.children[b2.index(bit)] : null;
+                Node c = union(c1, c2, shift + BITS, combine);
+                children[i] = c;
+                same1 &= c == c1;
+                same2 &= c == c2;
+            }
+            return same1 ? b1 : same2 ? b2 : new Branch(bitmap, children);
+        }
+        if (n2 instanceof Leaf leaf) {
+            return put(n1, leaf, shift, comb);
+        }
+        if (n2 instanceof Collision collision) {
+            Node result = n1;
+            for (Leaf leaf : collision.leaves) {
+                result = put(result, leaf, shift, comb);
+            }
+            return result;
+        }
+        // n2 is a branch, and n1 is a leaf or a collision
+        BinaryOperator<Object> flipped = (v2, v1) -> comb.apply(v1, v2);
+        Node result = n2;
+        if (n1 instanceof Leaf leaf) {
+            result = put(result, leaf, shift, flipped);
+        } else {
+            for (Leaf leaf : ((Collision) n1).leaves) {
+                result = put(result, leaf, shift, flipped);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compares the mappings in two tries at the same position.
+     * The two tries must contain the same number of mappings.
+     */
+    private static boolean nodeEquals(Node n1, Node n2, int shift) {
+        if (n1 == n2) {
+            return true;
+        }
+        if (n1 instanceof Branch b1 && n2 instanceof Branch b2) {
+            if (b1.bitmap != b2.bitmap) {
+                return false;
+            }
+            for (int i = 0; i < b1.children.length; ++i) {
+                if (!nodeEquals(b1.children[i], b2.children[i], shift + BITS)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (n1 == null || n2 == null) {
+            return false;
+        }
+        // fall back to look up each mapping of n1 in n2
+        List<Leaf> leaves1 = new ArrayList<>();
+        forEachLeaf(n1, leaves1::add);
+        int[] count2 = new int[1];
+        forEachLeaf(n2, leaf -> ++count2[0]);
+        if (leaves1.size() != count2[0]) {
+            return false;
+        }
+        for (Leaf leaf : leaves1) {
+            Leaf other = find(n2, leaf.hash, leaf.key, shift);
+            if (other == null || !other.value.equals(leaf.value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Leaf find(Node node, int hash, Object key, int shift) {
+        while (node instanceof Branch branch) {
+            int bit = bit(hash, shift);
+            if ((branch.bitmap & bit) == 0) {
+                return null;
+            }
+            node = branch.children[branch.index(bit)];
+            shift += BITS;
+        }
+        if (node instanceof Leaf leaf) {
+            return leaf.hash == hash && leaf.key.equals(key) ? leaf : null;
+        } else if (node instanceof Collision collision) {
+            return collision.find(hash, key);
+        }
+        return null;
+    }
+
+    private static void forEachLeaf(Node node,
+                                    Consumer<Leaf> action) {
+        if (node instanceof Branch branch) {
+            for (Node child : branch.children) {
+                forEachLeaf(child, action);
+            }
+        } else if (node instanceof Leaf leaf) {
+            action.accept(leaf);
+        } else if (node instanceof Collision collision) {
+            for (Leaf leaf : collision.leaves) {
+                action.accept(leaf);
+            }
+        }
+    }
+
+    private static class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+
+        /**
+         * Stack of the nodes to be visited.
+         */
+        private final Deque<Node> stack = new ArrayDeque<>();
+
+        private Leaf[] leaves;
+
+        private int leafIndex;
+
+        private EntryIterator(Node root) {
+            if (root != null) {
+                stack.push(root);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (leaves != null && leafIndex < leaves.length) ||
+                    !stack.isEmpty();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (leaves != null && leafIndex < leaves.length) {
+                return (Map.Entry<K, V>) (Map.Entry<?, ?>) leaves[leafIndex++];
+            }
+            while (!stack.isEmpty()) {
+                Node node = stack.pop();
+                if (node instanceof Branch branch) {
+                    for (int i = branch.children.length - 1; i >= 0; --i) {
+                        stack.push(branch.children[i]);
+                    }
+                } else if (node instanceof Leaf leaf) {
+                    return (Map.Entry<K, V>) (Map.Entry<?, ?>) leaf;
+                } else {
+                    leaves = ((Collision) node).leaves;
+                    leafIndex = 1;
+                    return (Map.Entry<K, V>) (Map.Entry<?, ?>) leaves[0];
+                }
+            }
+            throw new NoSuchElementException();
+        }
+    }
+}
@@ -22,13 +22,52 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import org.junit.Assert;
 import org.junit.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.MethodAnalysisDriver;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 public class DeadCodeTest {
 
+    private static final String DEADCODE_DIR = "src/test/resources/dataflow/deadcode/";
+
+    /**
+     * Main classes of all test programs in {@link #DEADCODE_DIR}.
+     */
+    private static final List<String> PROGRAMS = List.of(
+            "ControlFlowUnreachable", "UnreachableIfBranch",
+            "UnreachableSwitchBranch", "DeadAssignment", "Loops",
+            "UnreachableUse");
+
     void testDCD(String inputClass) {
-        Tests.test(inputClass, "src/test/resources/dataflow/deadcode/",
+        Tests.test(inputClass, DEADCODE_DIR,
                 DeadCodeDetection.ID,
                 "-a", "livevar=strongly:false",
                 "-a", "constprop=edge-refine:false");
@@ -58,4 +97,291 @@ public class DeadCodeTest {
     public void testLoops() {
         testDCD("Loops");
     }
+
+    @Test
+    public void testUnreachableUse() {
+        testDCD("UnreachableUse");
+    }
+
+    @Test
+    public void testLoopsDenseCPFact() {
+        Tests.test("Loops", DEADCODE_DIR,
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:false;dense-fact:true");
+    }
+
+    @Test
+    public void testUnreachableSwitchBranchPersistentFacts() {
+        Tests.test("UnreachableSwitchBranch", DEADCODE_DIR,
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;persistent-fact:true",
+                "-a", "constprop=edge-refine:false;persistent-fact:true");
+    }
+
+    @Test
+    public void testDeadAssignmentBlockSolver() {
+        Tests.test("DeadAssignment", DEADCODE_DIR,
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;solver:block",
+                "-a", "constprop=edge-refine:false;solver:block");
+    }
+
+    @Test
+    public void testUnreachableIfBranchSparseCP() {
+        Tests.test("UnreachableIfBranch", DEADCODE_DIR,
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:false;sparse:true");
+    }
+
+    @Test
+    public void testSparseCPMatchesDense() {
+        ConstantPropagation dense = new ConstantPropagation(
+                new AnalysisConfig(ConstantPropagation.ID, "edge-refine", false));
+        ConstantPropagation sparse = new ConstantPropagation(
+                new AnalysisConfig(ConstantPropagation.ID,
+                        "edge-refine", false, "sparse", true));
+        for (String main : PROGRAMS) {
+            Tests.buildWorld(main, DEADCODE_DIR, CFGBuilder.ID);
+            for (IR ir : getApplicationIRs()) {
+                CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+                DataflowResult<Stmt, CPFact> expected = dense.analyze(ir);
+                DataflowResult<Stmt, CPFact> result = sparse.analyze(ir);
+                for (Stmt stmt : cfg) {
+                    String msg = ir.getMethod() + ": " + stmt;
+                    Assert.assertEquals(msg, expected.getInFact(stmt), result.getInFact(stmt));
+                    Assert.assertEquals(msg, expected.getOutFact(stmt), result.getOutFact(stmt));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUnreachableSwitchBranchFused() {
+        Tests.test("UnreachableSwitchBranch", DEADCODE_DIR,
+                DeadCodeDetection.ID, "fused:true");
+    }
+
+    /**
+     * In fused mode, the variable used only in the unreachable branch
+     * is not live, thus its assignment is also dead.
+     */
+    @Test
+    public void testUnreachableUseFused() {
+        Tests.testVariant("UnreachableUse", DEADCODE_DIR,
+                DeadCodeDetection.ID, "fused", "fused:true;dense-fact:true");
+    }
+
+    @Test
+    public void testParallelDriver() {
+        for (String main : PROGRAMS) {
+            Tests.buildWorld(main, DEADCODE_DIR, CFGBuilder.ID);
+            Map<JMethod, Set<Stmt>> expected = detectDeadCode(1);
+            Assert.assertFalse(expected.isEmpty());
+            for (int i = 0; i < 10; ++i) {
+                Assert.assertEquals(main, expected, detectDeadCode(4));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDriverRejectsUnorderedChain() {
+        new MethodAnalysisDriver(List.of(
+                new DeadCodeDetection(new AnalysisConfig(
+                        DeadCodeDetection.ID, "fused", false)),
+                new ConstantPropagation(new AnalysisConfig(
+                        ConstantPropagation.ID, "edge-refine", false)),
+                new LiveVariableAnalysis(new AnalysisConfig(
+                        LiveVariableAnalysis.ID, "strongly", false))));
+    }
+
+    /**
+     * Runs dead code detection over the application methods
+     * by {@link MethodAnalysisDriver} with given parallelism.
+     *
+     * @return the dead code of each method.
+     */
+    private static Map<JMethod, Set<Stmt>> detectDeadCode(int parallelism) {
+        new MethodAnalysisDriver(List.of(
+                new ConstantPropagation(new AnalysisConfig(
+                        ConstantPropagation.ID, "edge-refine", false)),
+                new LiveVariableAnalysis(new AnalysisConfig(
+                        LiveVariableAnalysis.ID, "strongly", false)),
+                new DeadCodeDetection(new AnalysisConfig(
+                        DeadCodeDetection.ID, "fused", false))),
+                parallelism).run();
+        Map<JMethod, Set<Stmt>> deadCode = new HashMap<>();
+        for (IR ir : getApplicationIRs()) {
+            deadCode.put(ir.getMethod(), ir.getResult(DeadCodeDetection.ID));
+        }
+        return deadCode;
+    }
+
+    /**
+     * @return IRs of the non-abstract, non-native application methods.
+     */
+    private static List<IR> getApplicationIRs() {
+        List<IR> irs = World.get().getClassHierarchy()
+                .applicationClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .map(JMethod::getIR)
+                .toList();
+        Assert.assertFalse(irs.isEmpty());
+        return irs;
+    }
+
+    @Test
+    public void testIncrementalSolver() {
+        Tests.buildWorld("Loops", DEADCODE_DIR, CFGBuilder.ID);
+        ConstantPropagation cp = new ConstantPropagation(
+                new AnalysisConfig(ConstantPropagation.ID, "edge-refine", false));
+        LiveVariableAnalysis livevar = new LiveVariableAnalysis(
+                new AnalysisConfig(LiveVariableAnalysis.ID, "strongly", false));
+        for (IR ir : getApplicationIRs()) {
+            checkIncremental(cp, ir, i -> {
+                CPFact fact = cp.newInitialFact();
+                i.getVars().stream()
+                        .filter(ConstantPropagation::canHoldInt)
+                        .forEach(v -> fact.update(v, Value.getNAC()));
+                return fact;
+            });
+            checkIncremental(livevar, ir, i -> {
+                SetFact<Var> fact = livevar.newInitialFact();
+                i.getVars().forEach(fact::add);
+                return fact;
+            });
+        }
+    }
+
+    /**
+     * Takes each statement of given IR as the changed one, replaces the
+     * facts of all statements affected by the change with stale facts,
+     * and checks that incremental analysis agrees with full analysis.
+     */
+    private static <Fact> void checkIncremental(
+            AbstractDataflowAnalysis<Stmt, Fact> analysis, IR ir,
+            Function<IR, Fact> staleFact) {
+        CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        DataflowResult<Stmt, Fact> expected = analysis.analyze(ir);
+        for (Stmt changed : cfg) {
+            DataflowResult<Stmt, Fact> previous = analysis.analyze(ir);
+            Set<Stmt> affected = new HashSet<>();
+            Deque<Stmt> queue = new ArrayDeque<>(List.of(changed));
+            while (!queue.isEmpty()) {
+                Stmt stmt = queue.poll();
+                if (affected.add(stmt)) {
+                    queue.addAll(analysis.isForward() ?
+                            cfg.getSuccsOf(stmt) : cfg.getPredsOf(stmt));
+                }
+            }
+            for (Stmt stmt : affected) {
+                previous.setInFact(stmt, staleFact.apply(ir));
+                previous.setOutFact(stmt, staleFact.apply(ir));
+            }
+            DataflowResult<Stmt, Fact> result =
+                    analysis.analyze(ir, previous, Set.of(changed));
+            for (Stmt stmt : cfg) {
+                String msg = ir.getMethod() + " changed at " + changed + ": " + stmt;
+                Assert.assertEquals(msg, expected.getInFact(stmt), result.getInFact(stmt));
+                Assert.assertEquals(msg, expected.getOutFact(stmt), result.getOutFact(stmt));
+            }
+        }
+    }
+
+    /**
+     * Inserts {@code x = c + 1} after each {@code x = c} of int variable
+     * {@code x}, which re-indexes the following statements, and checks
+     * that incremental analysis of the edited IR from the result of
+     * the original IR agrees with full analysis.
+     */
+    @Test
+    public void testIncrementalSolverAfterEdit() {
+        ConstantPropagation cp = new ConstantPropagation(
+                new AnalysisConfig(ConstantPropagation.ID, "edge-refine", false));
+        LiveVariableAnalysis livevar = new LiveVariableAnalysis(
+                new AnalysisConfig(LiveVariableAnalysis.ID, "strongly", false));
+        int reusedFacts = 0;
+        for (String program : PROGRAMS) {
+            Tests.buildWorld(program, DEADCODE_DIR, CFGBuilder.ID);
+            for (IR ir : getApplicationIRs()) {
+                List<Stmt> stmts = List.copyOf(ir.getStmts());
+                for (Stmt stmt : stmts) {
+                    if (stmt instanceof AssignLiteral assign &&
+                            ConstantPropagation.canHoldInt(assign.getLValue()) &&
+                            assign.getRValue() instanceof IntLiteral literal) {
+                        AssignLiteral inserted = new AssignLiteral(assign.getLValue(),
+                                IntLiteral.get(literal.getValue() + 1));
+                        inserted.setLineNumber(assign.getLineNumber());
+                        checkIncrementalAfterEdit(cp, ir, stmts, assign, inserted);
+                        reusedFacts += checkIncrementalAfterEdit(
+                                livevar, ir, stmts, assign, inserted);
+                    }
+                }
+            }
+        }
+        // the facts of the statements after the inserted one, which have
+        // been re-indexed, are reused by backward analysis
+        Assert.assertTrue(reusedFacts > 0);
+    }
+
+    /**
+     * Analyzes {@code stmts} of {@code ir} before and after inserting
+     * {@code inserted} after {@code stmt}, and checks that incremental
+     * analysis after the edit agrees with full analysis.
+     *
+     * @return the number of facts reused from the result before the edit
+     * for the statements which have been re-indexed by the edit.
+     */
+    private static <Fact> int checkIncrementalAfterEdit(
+            AbstractDataflowAnalysis<Stmt, Fact> analysis, IR ir,
+            List<Stmt> stmts, Stmt stmt, Stmt inserted) {
+        DataflowResult<Stmt, Fact> previous = analysis.analyze(newIR(ir, stmts));
+        List<Stmt> editedStmts = new ArrayList<>(stmts);
+        int insertIndex = stmt.getIndex() + 1;
+        editedStmts.add(insertIndex, inserted);
+        IR edited = newIR(ir, editedStmts);
+        Stmt next = editedStmts.get(insertIndex + 1);
+        DataflowResult<Stmt, Fact> expected = analysis.analyze(edited);
+        DataflowResult<Stmt, Fact> result = analysis.analyze(
+                edited, previous, Set.of(stmt, inserted, next));
+        int reusedFacts = 0;
+        CFG<Stmt> cfg = edited.getResult(CFGBuilder.ID);
+        for (Stmt node : cfg) {
+            String msg = ir.getMethod() + " inserted " + inserted +
+                    " after " + stmt + ": " + node;
+            Assert.assertEquals(msg, expected.getInFact(node), result.getInFact(node));
+            Assert.assertEquals(msg, expected.getOutFact(node), result.getOutFact(node));
+            if (node.getIndex() > insertIndex && node.getIndex() < editedStmts.size() &&
+                    result.getInFact(node) == previous.getInFact(node)) {
+                ++reusedFacts;
+            }
+        }
+        reindex(stmts); // restores the indexes of the statements of ir
+        return reusedFacts;
+    }
+
+    /**
+     * @return a copy of {@code ir} with given statements, which are
+     * re-indexed by their positions, and its CFG.
+     */
+    private static IR newIR(IR ir, List<Stmt> stmts) {
+        reindex(stmts);
+        IR newIR = new DefaultIR(ir.getMethod(), ir.getThis(), ir.getParams(),
+                new LinkedHashSet<>(ir.getReturnVars()), ir.getVars(),
+                stmts, ir.getExceptionEntries());
+        // the original CFGs also have exceptional edges given by
+        // analysis throw, which is not available for new IRs
+        CFGBuilder cfgBuilder = new CFGBuilder(new AnalysisConfig(
+                CFGBuilder.ID, "exception", "none", "dump", false));
+        newIR.storeResult(CFGBuilder.ID, cfgBuilder.analyze(newIR));
+        return newIR;
+    }
+
+    private static void reindex(List<Stmt> stmts) {
+        for (int i = 0; i < stmts.size(); ++i) {
+            stmts.get(i).setIndex(i);
+        }
+    }
 }
@@ -0,0 +1,204 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Checks {@link PersistentMap} and {@link HamtMap} against {@link HashMap}.
+ */
+public class PersistentMapTest {
+
+    /**
+     * Key with given hash code, used to create hash collisions.
+     */
+    private record Key(int id, int hash) {
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static void assertSameMappings(Map<Key, Integer> expected,
+                                           PersistentMap<Key, Integer> map) {
+        Assert.assertEquals(expected.size(), map.size());
+        Assert.assertEquals(expected.isEmpty(), map.isEmpty());
+        expected.forEach((k, v) -> Assert.assertEquals(v, map.get(k)));
+        Map<Key, Integer> iterated = new HashMap<>();
+        for (Map.Entry<Key, Integer> e : map) {
+            Assert.assertNull(iterated.put(e.getKey(), e.getValue()));
+        }
+        Assert.assertEquals(expected, iterated);
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    /**
+     * @return a map built by inserting the mappings of given map
+     * in shuffled order.
+     */
+    private static PersistentMap<Key, Integer> build(
+            Map<Key, Integer> mappings, Random random) {
+        List<Key> keys = new ArrayList<>(mappings.keySet());
+        Collections.shuffle(keys, random);
+        PersistentMap<Key, Integer> map = PersistentMap.empty();
+        for (Key key : keys) {
+            map = map.put(key, mappings.get(key));
+        }
+        return map;
+    }
+
+    @Test
+    public void testCollision() {
+        Key k1 = new Key(1, 42), k2 = new Key(2, 42), k3 = new Key(3, 42);
+        PersistentMap<Key, Integer> map = PersistentMap.<Key, Integer>empty()
+                .put(k1, 1).put(k2, 2).put(k3, 3);
+        Assert.assertEquals(Map.of(k1, 1, k2, 2, k3, 3), toHashMap(map));
+        Assert.assertNull(map.get(new Key(4, 42)));
+        Assert.assertSame(map, map.put(k2, 2));
+        Assert.assertSame(map, map.remove(new Key(4, 42)));
+        PersistentMap<Key, Integer> updated = map.put(k2, 20);
+        Assert.assertEquals(Integer.valueOf(20), updated.get(k2));
+        Assert.assertEquals(Integer.valueOf(2), map.get(k2));
+        Assert.assertNotEquals(map, updated);
+    }
+
+    @Test
+    public void testRemoveCollapse() {
+        Key k1 = new Key(1, 42), k2 = new Key(2, 42), k3 = new Key(3, 7);
+        PersistentMap<Key, Integer> single = PersistentMap.<Key, Integer>empty()
+                .put(k1, 1).put(k3, 3);
+        // removing from a collision of two keys must leave the same
+        // structure as never having inserted the removed key
+        PersistentMap<Key, Integer> removed = single.put(k2, 2).remove(k2);
+        Assert.assertEquals(single, removed);
+        Assert.assertEquals(single.hashCode(), removed.hashCode());
+        PersistentMap<Key, Integer> map = PersistentMap.empty();
+        for (int i = 0; i < 1000; ++i) {
+            map = map.put(new Key(i, i * 31), i);
+        }
+        for (int i = 0; i < 1000; ++i) {
+            map = map.remove(new Key(i, i * 31));
+        }
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertSame(PersistentMap.empty(), map);
+    }
+
+    @Test
+    public void testUnionOfCollisions() {
+        Key k1 = new Key(1, 42), k2 = new Key(2, 42),
+                k3 = new Key(3, 42), k4 = new Key(4, 42);
+        PersistentMap<Key, Integer> m1 = PersistentMap.<Key, Integer>empty()
+                .put(k1, 1).put(k2, 2).put(k3, 3);
+        PersistentMap<Key, Integer> m2 = PersistentMap.<Key, Integer>empty()
+                .put(k2, 20).put(k4, 4);
+        PersistentMap<Key, Integer> union = m1.union(m2, Math::max);
+        Assert.assertEquals(Map.of(k1, 1, k2, 20, k3, 3, k4, 4), toHashMap(union));
+        // union with a subsumed collision keeps this map
+        Assert.assertSame(union, union.union(m1, Math::max));
+        // union of a collision and a leaf with different hash
+        Key k5 = new Key(5, 43);
+        PersistentMap<Key, Integer> m3 = PersistentMap.<Key, Integer>empty().put(k5, 5);
+        Assert.assertEquals(Map.of(k1, 1, k2, 2, k3, 3, k5, 5),
+                toHashMap(m1.union(m3, Math::max)));
+        Assert.assertEquals(m1.union(m3, Math::max), m3.union(m1, Math::max));
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(5);
+        for (int round = 0; round < 1000; ++round) {
+            int nKeys = random.nextInt(300) + 1;
+            // small hash ranges produce many collisions
+            int hashRange = random.nextBoolean() ? nKeys : random.nextInt(8) + 1;
+            Key[] keys = new Key[nKeys];
+            for (int i = 0; i < nKeys; ++i) {
+                keys[i] = new Key(i, random.nextBoolean() ?
+                        random.nextInt() : random.nextInt(hashRange));
+            }
+            PersistentMap<Key, Integer> m1 = PersistentMap.empty();
+            PersistentMap<Key, Integer> m2 = PersistentMap.empty();
+            Map<Key, Integer> h1 = new HashMap<>(), h2 = new HashMap<>();
+            int nOps = random.nextInt(200);
+            for (int i = 0; i < nOps; ++i) {
+                Key key = keys[random.nextInt(nKeys)];
+                int value = random.nextInt(4);
+                switch (random.nextInt(4)) {
+                    case 0, 1 -> {
+                        m1 = m1.put(key, value);
+                        h1.put(key, value);
+                    }
+                    case 2 -> {
+                        m1 = m1.remove(key);
+                        h1.remove(key);
+                    }
+                    default -> {
+                        m2 = m2.put(key, value);
+                        h2.put(key, value);
+                    }
+                }
+                if (random.nextInt(20) == 0) {
+                    // let the two maps share sub-tries
+                    m2 = m1;
+                    h2 = new HashMap<>(h1);
+                }
+            }
+            assertSameMappings(h1, m1);
+            assertSameMappings(h2, m2);
+            PersistentMap<Key, Integer> union = m1.union(m2, Math::max);
+            Map<Key, Integer> expected = new HashMap<>(h1);
+            h2.forEach((k, v) -> expected.merge(k, v, Math::max));
+            assertSameMappings(expected, union);
+            Assert.assertEquals(expected.equals(h1), union.equals(m1));
+            Assert.assertEquals(union, build(expected, random));
+
+            HamtMap<Key, Integer> hamt1 = new HamtMap<>();
+            hamt1.putAll(h1);
+            HamtMap<Key, Integer> hamt2 = new HamtMap<>();
+            hamt2.putAll(h2);
+            HamtMap<Key, Integer> copy = hamt1.copy();
+            Assert.assertEquals(!expected.equals(h1),
+                    hamt1.union(hamt2, Math::max));
+            Assert.assertEquals(expected, hamt1);
+            Assert.assertEquals(h1, copy);
+            hamt1.entrySet().removeIf(e -> e.getValue() == 0);
+            expected.values().removeIf(v -> v == 0);
+            Assert.assertEquals(expected, hamt1);
+            Assert.assertEquals(expected.hashCode(), hamt1.hashCode());
+        }
+    }
+
+    private static Map<Key, Integer> toHashMap(PersistentMap<Key, Integer> map) {
+        Map<Key, Integer> result = new HashMap<>();
+        map.forEach(result::put);
+        return result;
+    }
+}
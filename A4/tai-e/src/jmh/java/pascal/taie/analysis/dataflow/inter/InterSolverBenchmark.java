@@ -0,0 +1,83 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.bench.BenchmarkWorld;
+import pascal.taie.bench.SyntheticPrograms;
+import pascal.taie.config.AnalysisConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the solver of inter-procedural data-flow analyses
+ * by running inter-procedural constant propagation on the ICFG
+ * built with CHA.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4G")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class InterSolverBenchmark {
+
+    @Param({"Example", "Reference", "Fibonacci", "MultiIntArgs",
+            "synthetic-200", "synthetic-2000"})
+    public String program;
+
+    /**
+     * Value of analysis option "solver", where "default" is
+     * the sequential {@link InterSolver}.
+     */
+    @Param({"default", "parallel"})
+    public String solver;
+
+    private AnalysisConfig config;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkWorld.build("src/test/resources/dataflow/constprop/inter",
+                program, SyntheticPrograms.Kind.DATAFLOW,
+                "cg=algorithm:cha", ICFGBuilder.ID);
+        config = new AnalysisConfig(InterConstantPropagation.ID,
+                "edge-refine", false, "alias-aware", false, "solver", solver);
+    }
+
+    @Benchmark
+    public Object solve() {
+        return new InterConstantPropagation(config).analyze();
+    }
+}
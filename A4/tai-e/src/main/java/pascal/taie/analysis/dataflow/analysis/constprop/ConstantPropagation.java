@@ -37,8 +37,14 @@ public class ConstantPropagation extends
 
     public static final String ID = "constprop";
 
+    /**
+     * Whether to use {@link DenseCPFact} instead of map-based {@link CPFact}.
+     */
+    private final boolean denseFact;
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        denseFact = getOptions().getBooleanOrDefault("dense-fact", false);
     }
 
     @Override
@@ -48,8 +54,7 @@ public class ConstantPropagation extends
 
     @Override
     public CPFact newBoundaryFact(CFG<Stmt> cfg) {
-        // TODO - finish me
-        CPFact cpf = new CPFact();
+        CPFact cpf = newInitialFact();
         for (Var var: cfg.getIR().getParams()) {
             if (canHoldInt(var)) {
                 cpf.update(var, Value.getNAC());
@@ -60,13 +65,16 @@ public class ConstantPropagation extends
 
     @Override
     public CPFact newInitialFact() {
-        // TODO - finish me
-        return new CPFact();
+        return denseFact ? new DenseCPFact() : new CPFact();
     }
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
-        // TODO - finish me
+        if (fact instanceof DenseCPFact dense &&
+                target instanceof DenseCPFact denseTarget) {
+            denseTarget.meet(dense, this::meetValue);
+            return;
+        }
         for(Var var: fact.keySet()) {
             target.update(var, meetValue(fact.get(var),target.get(var)));
         }
@@ -76,7 +84,6 @@ public class ConstantPropagation extends
      * Meets two Values.
      */
     public Value meetValue(Value v1, Value v2) {
-        // TODO - finish me
         if(v1.isNAC()) return Value.getNAC();
         if(v1.isUndef()) return v2;
         if(v2.isNAC()) return Value.getNAC();
@@ -89,23 +96,26 @@ public class ConstantPropagation extends
 
     @Override
     public boolean transferNode(Stmt stmt, CPFact in, CPFact out) {
-        // TODO - finish me
-        CPFact old_out = out.copy();
-        if(!in.equals(out)) {
-            for(Var var: in.keySet()) {
-                out.update(var, in.get(var));
+        Var def = null;
+        Value value = null;
+        if (stmt instanceof DefinitionStmt<?, ?> definition_stmt &&
+                definition_stmt.getLValue() instanceof Var x && canHoldInt(x)) {
+            value = evaluate(definition_stmt.getRValue(), in);
+            if (value != null) {
+                def = x;
             }
         }
-        if(stmt instanceof DefinitionStmt<?, ?> definition_stmt) {
-            if (stmt.getDef().isPresent()) {
-                LValue lValue = definition_stmt.getLValue();
-                if((lValue instanceof Var x) && canHoldInt(x)) {
-                    Value y = (Value)(evaluate(definition_stmt.getRValue(),in));
-                    out.update(x, y);
-                }
-            }
+        if (def == null) {
+            return out.copyFrom(in);
         }
-        return !old_out.equals(out);
+        // sets def to its IN value before copying, so that the change flag
+        // of copyFrom only reflects the other variables; otherwise a def
+        // whose IN and OUT values differ would always be reported as changed
+        Value oldValue = out.get(def);
+        out.update(def, in.get(def));
+        boolean changed = out.copyFrom(in);
+        out.update(def, value);
+        return changed || !value.equals(oldValue);
     }
 
     /**
@@ -134,7 +144,6 @@ public class ConstantPropagation extends
      * @return the resulting {@link Value}
      */
     public static Value evaluate(Exp exp, CPFact in) {
-        // TODO - finish me
         if(exp instanceof Var x) {
             return in.get(x);
         }
@@ -0,0 +1,318 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.analysis.dataflow.fact.VarIndexes;
+import pascal.taie.ir.exp.Var;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+
+/**
+ * {@link CPFact} of the variables of a method, which holds their values
+ * in an array indexed by {@link Var#getIndex()}. As in {@link CPFact},
+ * UNDEF is represented by absence, i.e., null elements in the array.
+ *
+ * @see VarIndexes
+ */
+public class DenseCPFact extends CPFact {
+
+    private final ValueArrayMap values;
+
+    public DenseCPFact() {
+        this(new ValueArrayMap(null, ValueArrayMap.EMPTY, 0));
+    }
+
+    private DenseCPFact(ValueArrayMap values) {
+        super(() -> values);
+        this.values = values;
+    }
+
+    @Override
+    public Value get(Var key) {
+        Value value = values.get(key);
+        return value != null ? value : Value.getUndef();
+    }
+
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        if (fact instanceof DenseCPFact that) {
+            ValueArrayMap other = that.values;
+            values.vars = VarIndexes.merge(values.vars, other.vars);
+            values.ensureCapacity(other.values.length);
+            boolean changed = false;
+            for (int i = 0; i < other.values.length; ++i) {
+                Value value = other.values[i];
+                if (value != null) {
+                    changed |= values.set(i, value);
+                }
+            }
+            return changed;
+        }
+        return super.copyFrom(fact);
+    }
+
+    /**
+     * Meets other fact into this fact element-wise by {@code meet},
+     * which is applied to the variables whose values are not UNDEF
+     * in other fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean meet(DenseCPFact fact, BinaryOperator<Value> meet) {
+        ValueArrayMap other = fact.values;
+        values.vars = VarIndexes.merge(values.vars, other.vars);
+        values.ensureCapacity(other.values.length);
+        boolean changed = false;
+        for (int i = 0; i < other.values.length; ++i) {
+            Value v1 = other.values[i];
+            if (v1 != null) {
+                Value v2 = values.values[i];
+                Value result = meet.apply(v1, v2 != null ? v2 : Value.getUndef());
+                changed |= result.isUndef() ? values.clear(i) : values.set(i, result);
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public DenseCPFact copy() {
+        return new DenseCPFact(new ValueArrayMap(values.vars,
+                values.values.clone(), values.size));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof DenseCPFact that) {
+            return values.valuesEqual(that.values);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    /**
+     * Map from variables to values backed by an array.
+     */
+    private static class ValueArrayMap extends AbstractMap<Var, Value> {
+
+        private static final Value[] EMPTY = new Value[0];
+
+        /**
+         * Variables of the method, or null if no variable has been put.
+         */
+        private List<Var> vars;
+
+        private Value[] values;
+
+        private int size;
+
+        private ValueArrayMap(List<Var> vars, Value[] values, int size) {
+            this.vars = vars;
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        public Value get(Object key) {
+            if (key instanceof Var var && VarIndexes.contains(vars, var)) {
+                int index = var.getIndex();
+                return index < values.length ? values[index] : null;
+            }
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Value put(Var var, Value value) {
+            Objects.requireNonNull(value);
+            vars = VarIndexes.checkVar(vars, var);
+            int index = var.getIndex();
+            ensureCapacity(index + 1);
+            Value old = values[index];
+            values[index] = value;
+            if (old == null) {
+                ++size;
+            }
+            return old;
+        }
+
+        @Override
+        public Value remove(Object key) {
+            if (key instanceof Var var && VarIndexes.contains(vars, var)) {
+                int index = var.getIndex();
+                if (index < values.length) {
+                    Value old = values[index];
+                    clear(index);
+                    return old;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Sets the value at given index.
+         *
+         * @return true if the value changed as a result of the call.
+         */
+        private boolean set(int index, Value value) {
+            Value old = values[index];
+            values[index] = value;
+            if (old == null) {
+                ++size;
+                return true;
+            }
+            return !old.equals(value);
+        }
+
+        /**
+         * Removes the value at given index.
+         *
+         * @return true if the value was removed as a result of the call.
+         */
+        private boolean clear(int index) {
+            if (values[index] != null) {
+                values[index] = null;
+                --size;
+                return true;
+            }
+            return false;
+        }
+
+        private void ensureCapacity(int length) {
+            if (values.length < length) {
+                values = Arrays.copyOf(values,
+                        vars == null ? length : Math.max(length, vars.size()));
+            }
+        }
+
+        private boolean valuesEqual(ValueArrayMap other) {
+            if (size != other.size) {
+                return false;
+            }
+            if (size == 0) {
+                return true;
+            }
+            if (vars != other.vars) {
+                return false;
+            }
+            int length = Math.min(values.length, other.values.length);
+            for (int i = 0; i < length; ++i) {
+                if (!Objects.equals(values[i], other.values[i])) {
+                    return false;
+                }
+            }
+            // as the sizes are equal, the remaining elements are all null
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(values, null);
+            size = 0;
+        }
+
+        @Override
+        public Set<Map.Entry<Var, Value>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<Var, Value>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        private class EntryIterator implements Iterator<Map.Entry<Var, Value>> {
+
+            private int next = nextIndex(0);
+
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return next < values.length;
+            }
+
+            @Override
+            public Map.Entry<Var, Value> next() {
+                if (next >= values.length) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                next = nextIndex(next + 1);
+                return new SimpleImmutableEntry<>(vars.get(last), values[last]);
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                clear(last);
+                last = -1;
+            }
+
+            private int nextIndex(int from) {
+                int i = from;
+                while (i < values.length && values[i] == null) {
+                    ++i;
+                }
+                return i;
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.ir.exp.Var;
+
+import java.util.List;
+
+/**
+ * Static utility methods for the data-flow facts which are indexed by
+ * {@link Var#getIndex()}. Such a fact maps the indexes back to variables
+ * by the variables of the IR, thus it can only hold the variables of
+ * one method, which is decided by the first variable added to it.
+ */
+public final class VarIndexes {
+
+    private VarIndexes() {
+    }
+
+    /**
+     * @return true if {@code vars} is not null and {@code var}
+     * is the variable at its index in {@code vars}.
+     */
+    public static boolean contains(List<Var> vars, Var var) {
+        int index = var.getIndex();
+        return vars != null && index < vars.size() && vars.get(index) == var;
+    }
+
+    /**
+     * @return {@code vars}, or the variables of the method of {@code var}
+     * if {@code vars} is null.
+     * @throws IllegalArgumentException if {@code var} is not one of them.
+     */
+    public static List<Var> checkVar(List<Var> vars, Var var) {
+        if (vars == null) {
+            vars = var.getMethod().getIR().getVars();
+        }
+        if (!contains(vars, var)) {
+            throw new IllegalArgumentException(var + " of " +
+                    var.getMethod() + " is not a variable of the method");
+        }
+        return vars;
+    }
+
+    /**
+     * @return the variables of the method of two facts, given their
+     * variables {@code vars1} and {@code vars2} (null for no variables).
+     * @throws IllegalArgumentException if the facts belong to
+     *                                  different methods.
+     */
+    public static List<Var> merge(List<Var> vars1, List<Var> vars2) {
+        if (vars1 == null) {
+            return vars2;
+        }
+        if (vars2 != null && vars1 != vars2) {
+            throw new IllegalArgumentException(
+                    "Cannot mix variables of different methods");
+        }
+        return vars1;
+    }
+}
@@ -45,6 +45,16 @@ public abstract class AbstractInterDataflowAnalysis<Method, Node, Fact>
         extends ProgramAnalysis
         implements InterDataflowAnalysis<Node, Fact> {
 
+    /**
+     * Value of analysis option "solver" which selects {@link SummarySolver}.
+     */
+    private static final String SUMMARY_SOLVER = "summary";
+
+    /**
+     * Value of analysis option "solver" which selects {@link ParallelInterSolver}.
+     */
+    private static final String PARALLEL_SOLVER = "parallel";
+
     protected ICFG<Method, Node> icfg;
 
     protected InterSolver<Method, Node, Fact> solver;
@@ -121,8 +131,19 @@ public abstract class AbstractInterDataflowAnalysis<Method, Node, Fact>
     public Object analyze() {
         icfg = World.get().getResult(ICFGBuilder.ID);
         initialize();
-        solver = new InterSolver<>(this, icfg);
-        DataflowResult<Node, Fact> result = solver.solve();
+        DataflowResult<Node, Fact> result;
+        String solverOption = getOptions().getString("solver");
+        if (SUMMARY_SOLVER.equals(solverOption)) {
+            result = new SummarySolver<>(this, icfg).solve();
+        } else if (PARALLEL_SOLVER.equals(solverOption)) {
+            int parallelism = getOptions().get("parallelism") != null ?
+                    getOptions().getInt("parallelism") :
+                    Runtime.getRuntime().availableProcessors();
+            result = new ParallelInterSolver<>(this, icfg, parallelism).solve();
+        } else {
+            solver = new InterSolver<>(this, icfg);
+            result = solver.solve();
+        }
         finish();
         return result;
     }
@@ -0,0 +1,115 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.SCC;
+import pascal.taie.util.graph.SimpleGraph;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Condensation of the call graph underlying an {@link ICFG}, i.e.,
+ * the strongly connected components (SCCs) of the methods, where
+ * mutually recursive methods belong to the same SCC.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ */
+class CallGraphSCCs<Method, Node> {
+
+    private final SimpleGraph<Method> callGraph = new SimpleGraph<>();
+
+    private final Map<Method, List<Node>> nodes = new LinkedHashMap<>();
+
+    /**
+     * SCCs in bottom-up order, i.e., callees come before their callers.
+     */
+    private final List<List<Method>> components;
+
+    private final Map<Method, Integer> componentIndexes = Maps.newMap();
+
+    CallGraphSCCs(ICFG<Method, Node> icfg) {
+        for (Node node : icfg) {
+            Method method = icfg.getContainingMethodOf(node);
+            nodes.computeIfAbsent(method, m -> {
+                callGraph.addNode(m);
+                return new ArrayList<>();
+            }).add(node);
+            if (icfg.isCallSite(node)) {
+                for (Method callee : icfg.getCalleesOf(node)) {
+                    callGraph.addNode(callee);
+                    callGraph.addEdge(method, callee);
+                }
+            }
+        }
+        components = new SCC<>(callGraph).getComponents();
+        for (int i = 0; i < components.size(); ++i) {
+            for (Method method : components.get(i)) {
+                componentIndexes.put(method, i);
+            }
+        }
+    }
+
+    /**
+     * @return the SCCs in bottom-up order, i.e., the SCC of a callee
+     * comes before the SCCs of its callers.
+     */
+    List<List<Method>> getComponents() {
+        return components;
+    }
+
+    /**
+     * @return index of the SCC containing given method in
+     * {@link #getComponents()}.
+     */
+    int getComponentIndex(Method method) {
+        return componentIndexes.get(method);
+    }
+
+    /**
+     * @return the ICFG nodes of given method.
+     */
+    List<Node> getNodesOf(Method method) {
+        return nodes.getOrDefault(method, List.of());
+    }
+
+    /**
+     * @return the callees of given method.
+     */
+    Set<Method> getCalleesOf(Method method) {
+        return callGraph.getSuccsOf(method);
+    }
+
+    /**
+     * @return the callers of given method.
+     */
+    Set<Method> getCallersOf(Method method) {
+        return callGraph.getPredsOf(method);
+    }
+}
@@ -0,0 +1,413 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.inter.ifds.EdgeFunction;
+import pascal.taie.analysis.dataflow.inter.ifds.IDEProblem;
+import pascal.taie.analysis.dataflow.inter.ifds.IDESolver;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.Exp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.LValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Constant propagation for int values as an {@link IDEProblem}, which is
+ * selected by analysis option "solver:ide" of {@link InterConstantPropagation}.
+ * <p>
+ * The facts are the int variables (and the zero fact), and the values
+ * are the {@link Value}s of the variables. A definition whose right-hand
+ * side uses one int variable, e.g., {@code x = y + 1}, is an edge
+ * function from the used variable to the defined variable, and
+ * the other definitions are constant functions from the zero fact.
+ * <p>
+ * An expression which uses two different int variables, e.g.,
+ * {@code x = y + z}, is not distributive, thus it is handled outside
+ * the edge functions: its definition is a constant function from the
+ * zero fact, whose value is evaluated from the values of the operands
+ * before the statement, which are computed by the last solving. The
+ * problem is solved repeatedly by {@link #solve()} until the values
+ * of these expressions do not change. Besides, the values are not
+ * merged among call sites which reach a method with different facts.
+ */
+class IDEConstantPropagation implements IDEProblem<Stmt, Var, Value> {
+
+    private static final Var ZERO = new Var(null, "<zero>", null, -1);
+
+    private final ICFG<JMethod, Stmt> icfg;
+
+    private final ConstantPropagation cp;
+
+    private final CPEdgeFunction identity = new CPEdgeFunction(
+            Value.getUndef(), List.of());
+
+    /**
+     * Values of the expressions which use two different int variables,
+     * evaluated from the values of the operands given by the last solving.
+     * The values are UNDEF before the first solving.
+     */
+    private final Map<Stmt, Value> binaryValues = Maps.newMap();
+
+    IDEConstantPropagation(ICFG<JMethod, Stmt> icfg, ConstantPropagation cp) {
+        this.icfg = icfg;
+        this.cp = cp;
+        for (Stmt stmt : icfg) {
+            if (getDef(stmt) != null && getIntVars(
+                    ((DefinitionStmt<?, ?>) stmt).getRValue()).size() > 1) {
+                binaryValues.put(stmt, Value.getUndef());
+            }
+        }
+    }
+
+    /**
+     * Solves this problem until the values of the expressions which use
+     * two different int variables reach fixed point. Each round meets
+     * the values with the ones evaluated from the result of the last
+     * round, thus the values only go down the lattice, and the number
+     * of rounds is bounded by twice the number of such expressions.
+     *
+     * @return the solver of the last round.
+     */
+    IDESolver<JMethod, Stmt, Var, Value> solve() {
+        IDESolver<JMethod, Stmt, Var, Value> solver;
+        boolean changed;
+        do {
+            solver = new IDESolver<>(this, icfg);
+            solver.solve();
+            changed = false;
+            for (Map.Entry<Stmt, Value> entry : binaryValues.entrySet()) {
+                Exp rValue = ((DefinitionStmt<?, ?>) entry.getKey()).getRValue();
+                CPFact operands = getTempConstFact(rValue);
+                for (Var var : getIntVars(rValue)) {
+                    operands.update(var, solver.getValue(entry.getKey(), var));
+                }
+                Value value = cp.meetValue(entry.getValue(),
+                        ConstantPropagation.evaluate(rValue, operands));
+                if (!value.equals(entry.getValue())) {
+                    entry.setValue(value);
+                    changed = true;
+                }
+            }
+        } while (changed);
+        return solver;
+    }
+
+    @Override
+    public Var zeroValue() {
+        return ZERO;
+    }
+
+    @Override
+    public Map<Stmt, Set<Var>> initialSeeds() {
+        Map<Stmt, Set<Var>> seeds = Maps.newMap();
+        icfg.entryMethods().forEach(method -> {
+            Set<Var> params = Sets.newHybridSet();
+            for (Var param : method.getIR().getParams()) {
+                if (ConstantPropagation.canHoldInt(param)) {
+                    params.add(param);
+                }
+            }
+            seeds.put(icfg.getEntryOf(method), params);
+        });
+        return seeds;
+    }
+
+    @Override
+    public Set<Var> getNormalFlow(ICFGEdge<Stmt> edge, Var source) {
+        Stmt stmt = edge.getSource();
+        if (edge instanceof CallToReturnEdge) {
+            // the value of the left-hand side variable flows from the callees
+            return source.equals(getLVar(stmt)) ? Set.of() : Set.of(source);
+        }
+        Var def = getDef(stmt);
+        if (def == null) {
+            return Set.of(source);
+        }
+        Set<Var> targets = Sets.newHybridSet();
+        if (!source.equals(def)) {
+            targets.add(source);
+        }
+        if (source.equals(getSource(stmt))) {
+            targets.add(def);
+        }
+        return targets;
+    }
+
+    @Override
+    public Set<Var> getCallFlow(CallEdge<Stmt> edge, Var source) {
+        if (source == ZERO) {
+            return Set.of(ZERO);
+        }
+        Set<Var> targets = Sets.newHybridSet();
+        InvokeExp invokeExp = ((Invoke) edge.getSource()).getRValue();
+        JMethod callee = edge.getCallee();
+        for (int i = 0; i < invokeExp.getArgCount(); ++i) {
+            if (invokeExp.getArg(i).equals(source)) {
+                targets.add(callee.getIR().getParam(i));
+            }
+        }
+        return targets;
+    }
+
+    @Override
+    public Set<Var> getReturnFlow(ReturnEdge<Stmt> edge, Var source) {
+        if (source == ZERO) {
+            return Set.of(ZERO);
+        }
+        Var lVar = getLVar(edge.getCallSite());
+        return lVar != null && edge.getReturnVars().contains(source) ?
+                Set.of(lVar) : Set.of();
+    }
+
+    @Override
+    public EdgeFunction<Value> getNormalEdgeFunction(
+            ICFGEdge<Stmt> edge, Var source, Var target) {
+        Stmt stmt = edge.getSource();
+        if (edge instanceof CallToReturnEdge || !target.equals(getDef(stmt))) {
+            return identity;
+        }
+        Exp rValue = ((DefinitionStmt<?, ?>) stmt).getRValue();
+        if (source == ZERO) {
+            Value value = getIntVars(rValue).isEmpty() ?
+                    ConstantPropagation.evaluate(rValue, getTempConstFact(rValue)) :
+                    binaryValues.get(stmt);
+            return new CPEdgeFunction(value, null);
+        }
+        return rValue.equals(source) ? identity : new CPEdgeFunction(
+                Value.getUndef(), List.of(new Operation(rValue, source)));
+    }
+
+    @Override
+    public EdgeFunction<Value> getCallEdgeFunction(
+            CallEdge<Stmt> edge, Var source, Var target) {
+        return identity;
+    }
+
+    @Override
+    public EdgeFunction<Value> getReturnEdgeFunction(
+            ReturnEdge<Stmt> edge, Var source, Var target) {
+        return identity;
+    }
+
+    @Override
+    public EdgeFunction<Value> identity() {
+        return identity;
+    }
+
+    @Override
+    public Value topValue() {
+        return Value.getUndef();
+    }
+
+    @Override
+    public Value meet(Value v1, Value v2) {
+        return cp.meetValue(v1, v2);
+    }
+
+    @Override
+    public Value initialValue(Stmt seed, Var fact) {
+        return fact == ZERO ? Value.getUndef() : Value.getNAC();
+    }
+
+    /**
+     * @return the variable defined by given statement if the statement is
+     * not a call and the variable can hold int value, otherwise null.
+     */
+    private @Nullable Var getDef(Stmt stmt) {
+        if (stmt instanceof DefinitionStmt<?, ?> definitionStmt &&
+                !(stmt instanceof Invoke) &&
+                definitionStmt.getLValue() instanceof Var var &&
+                ConstantPropagation.canHoldInt(var)) {
+            return var;
+        }
+        return null;
+    }
+
+    /**
+     * @return the left-hand side variable of given call site, or null
+     * if the result of the call is not assigned to a variable.
+     */
+    private static @Nullable Var getLVar(Stmt callSite) {
+        LValue lValue = callSite.getDef().orElse(null);
+        return lValue instanceof Var var ? var : null;
+    }
+
+    /**
+     * @return the fact whose value flows to the variable defined by
+     * {@code stmt}, i.e., the only int variable (except temporary
+     * constant variables) used by its right-hand side, or zero fact
+     * if the right-hand side uses no or more than one such variables.
+     */
+    private Var getSource(Stmt stmt) {
+        List<Var> vars = getIntVars(((DefinitionStmt<?, ?>) stmt).getRValue());
+        return vars.size() == 1 ? vars.get(0) : ZERO;
+    }
+
+    /**
+     * @return the distinct int variables (except temporary constant
+     * variables) used by given expression.
+     */
+    private static List<Var> getIntVars(Exp exp) {
+        List<Var> vars = new ArrayList<>(2);
+        if (exp instanceof Var var) {
+            addIntVar(var, vars);
+        } else if (exp instanceof BinaryExp binaryExp) {
+            addIntVar(binaryExp.getOperand1(), vars);
+            addIntVar(binaryExp.getOperand2(), vars);
+        }
+        return vars;
+    }
+
+    private static void addIntVar(Var var, List<Var> vars) {
+        if (!var.isTempConst() && ConstantPropagation.canHoldInt(var) &&
+                !vars.contains(var)) {
+            vars.add(var);
+        }
+    }
+
+    /**
+     * @return a fact of the int values of temporary constant variables
+     * used by given expression.
+     */
+    private static CPFact getTempConstFact(Exp exp) {
+        CPFact fact = new CPFact();
+        List<Var> operands = exp instanceof BinaryExp binaryExp ?
+                List.of(binaryExp.getOperand1(), binaryExp.getOperand2()) :
+                exp instanceof Var var ? List.of(var) : List.of();
+        for (Var operand : operands) {
+            if (operand.isTempConst() &&
+                    operand.getTempConstValue() instanceof IntLiteral literal) {
+                fact.update(operand, Value.makeConstant(literal.getValue()));
+            }
+        }
+        return fact;
+    }
+
+    /**
+     * Evaluation of an expression for the value of its only int variable.
+     */
+    private record Operation(Exp exp, Var var) {
+
+        private Value apply(Value value) {
+            CPFact fact = getTempConstFact(exp);
+            fact.update(var, value);
+            return ConstantPropagation.evaluate(exp, fact);
+        }
+    }
+
+    /**
+     * Edge function f(v) = constant ⊓ op_n(...op_1(v)), or f(v) = constant
+     * if {@link #operations} is null.
+     */
+    private class CPEdgeFunction implements EdgeFunction<Value> {
+
+        private final Value constant;
+
+        private final @Nullable List<Operation> operations;
+
+        private CPEdgeFunction(Value constant, @Nullable List<Operation> operations) {
+            this.constant = constant;
+            // NAC ⊓ v is always NAC
+            this.operations = constant.isNAC() ? null : operations;
+        }
+
+        @Override
+        public Value computeTarget(Value source) {
+            if (operations == null) {
+                return constant;
+            }
+            return cp.meetValue(constant, applyOperations(source));
+        }
+
+        private Value applyOperations(Value value) {
+            for (Operation operation : operations) {
+                value = operation.apply(value);
+            }
+            return value;
+        }
+
+        @Override
+        public EdgeFunction<Value> composeWith(EdgeFunction<Value> second) {
+            CPEdgeFunction next = (CPEdgeFunction) second;
+            if (operations == null) {
+                return new CPEdgeFunction(next.computeTarget(constant), null);
+            }
+            if (next.operations == null) {
+                return next;
+            }
+            List<Operation> composed = new ArrayList<>(operations);
+            composed.addAll(next.operations);
+            return new CPEdgeFunction(cp.meetValue(next.constant,
+                    next.applyOperations(constant)), composed);
+        }
+
+        @Override
+        public EdgeFunction<Value> meetWith(EdgeFunction<Value> other) {
+            CPEdgeFunction that = (CPEdgeFunction) other;
+            Value meet = cp.meetValue(constant, that.constant);
+            if (operations == null) {
+                return new CPEdgeFunction(meet, that.operations);
+            } else if (that.operations == null || operations.equals(that.operations)) {
+                return new CPEdgeFunction(meet, operations);
+            } else {
+                // the operations cannot be merged
+                return new CPEdgeFunction(Value.getNAC(), null);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CPEdgeFunction that)) return false;
+            return constant.equals(that.constant) &&
+                    Objects.equals(operations, that.operations);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(constant, operations);
+        }
+    }
+}
@@ -22,13 +22,18 @@
 
 package pascal.taie.analysis.dataflow.inter;
 
+import pascal.taie.World;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
 import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.inter.ifds.IDESolver;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.icfg.CallEdge;
 import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
 import pascal.taie.analysis.graph.icfg.NormalEdge;
 import pascal.taie.analysis.graph.icfg.ReturnEdge;
 import pascal.taie.config.AnalysisConfig;
@@ -48,11 +53,18 @@ public class InterConstantPropagation extends
 
     public static final String ID = "inter-constprop";
 
+    /**
+     * Value of analysis option "solver" which selects {@link IDESolver}
+     * with {@link IDEConstantPropagation}.
+     */
+    private static final String IDE_SOLVER = "ide";
+
     private final ConstantPropagation cp;
 
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
-        cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+        cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID,
+                "dense-fact", getOptions().getBooleanOrDefault("dense-fact", false)));
     }
 
     @Override
@@ -142,4 +154,34 @@ public class InterConstantPropagation extends
         }
         return newCPFact;
     }
+
+    @Override
+    public Object analyze() {
+        if (!IDE_SOLVER.equals(getOptions().getString("solver"))) {
+            return super.analyze();
+        }
+        icfg = World.get().getResult(ICFGBuilder.ID);
+        IDESolver<JMethod, Stmt, Var, Value> ideSolver =
+                new IDEConstantPropagation(icfg, cp).solve();
+        DataflowResult<Stmt, CPFact> result = new DataflowResult<>();
+        for (Stmt stmt : icfg) {
+            CPFact in = newInitialFact();
+            ideSolver.getValues(stmt).forEach(in::update);
+            result.setInFact(stmt, in);
+            // as transferCallNode(), the OUT fact of a call site (and of
+            // an exit) is its IN fact, and the OUT facts of the other
+            // nodes are the values flowing along their out edges, which
+            // are the same for all out edges of a non-call node
+            CPFact out = newInitialFact();
+            ICFGEdge<Stmt> edge = icfg.isCallSite(stmt) ? null :
+                    icfg.getOutEdgesOf(stmt).stream().findFirst().orElse(null);
+            if (edge != null) {
+                ideSolver.getValues(edge).forEach(out::update);
+            } else {
+                out.copyFrom(in);
+            }
+            result.setOutFact(stmt, out);
+        }
+        return result;
+    }
 }
@@ -0,0 +1,239 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SetQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parallel version of {@link InterSolver}, which is selected by analysis
+ * option "solver:parallel" (and "parallelism:N" to set the number of
+ * threads, which defaults to the number of available processors).
+ * <p>
+ * The methods are grouped by the strongly connected components (SCCs)
+ * of the call graph, and each SCC is solved by a work-list over its own
+ * nodes. The SCCs are scheduled in rounds on a {@link ForkJoinPool}
+ * as a DAG from callers to callees: an SCC starts when all SCCs of its
+ * callers have finished in the current round, so the facts flowing over
+ * {@link CallEdge}s are read after their sources stabilized, while the
+ * facts flowing back over {@link ReturnEdge}s are picked up by the callers
+ * in the next round. The SCCs which do not call each other (directly or
+ * transitively) are solved in parallel, and they never access the facts
+ * of each other's nodes. The rounds repeat until no node is pending.
+ * <p>
+ * As the facts only descend during the solving, the result is the same
+ * fixed point that {@link InterSolver} computes. The analysis must allow
+ * its transfer and meet functions to be called concurrently for
+ * different nodes.
+ */
+class ParallelInterSolver<Method, Node, Fact> {
+
+    private final InterDataflowAnalysis<Node, Fact> analysis;
+
+    private final ICFG<Method, Node> icfg;
+
+    private final int parallelism;
+
+    private DataflowResult<Node, Fact> result;
+
+    /**
+     * SCC index of each node.
+     */
+    private final Map<Node, Integer> componentOf = Maps.newMap();
+
+    /**
+     * SCCs of the callers and callees of each SCC, excluding itself.
+     */
+    private int[][] callerComponents, calleeComponents;
+
+    /**
+     * Nodes of each SCC to be processed. The nodes are added by the SCC
+     * itself, by the SCCs of its callers (entries), and by the SCCs
+     * of its callees (return sites).
+     */
+    private List<Queue<Node>> pending;
+
+    ParallelInterSolver(InterDataflowAnalysis<Node, Fact> analysis,
+                        ICFG<Method, Node> icfg, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "Parallelism must be positive, given: " + parallelism);
+        }
+        this.analysis = analysis;
+        this.icfg = icfg;
+        this.parallelism = parallelism;
+    }
+
+    DataflowResult<Node, Fact> solve() {
+        result = new DataflowResult<>();
+        initialize();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (pending.stream().anyMatch(nodes -> !nodes.isEmpty())) {
+                pool.invoke(new Round());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return result;
+    }
+
+    private void initialize() {
+        for (Node node : icfg) {
+            result.setInFact(node, analysis.newInitialFact());
+            result.setOutFact(node, analysis.newInitialFact());
+        }
+        icfg.entryMethods().forEach(method -> {
+            Node entry = icfg.getEntryOf(method);
+            result.setOutFact(entry, analysis.newBoundaryFact(entry));
+            result.setInFact(entry, analysis.newBoundaryFact(entry));
+        });
+        CallGraphSCCs<Method, Node> sccs = new CallGraphSCCs<>(icfg);
+        List<List<Method>> components = sccs.getComponents();
+        int size = components.size();
+        callerComponents = new int[size][];
+        calleeComponents = new int[size][];
+        pending = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            int component = i;
+            Set<Integer> callers = new TreeSet<>();
+            Set<Integer> callees = new TreeSet<>();
+            for (Method method : components.get(i)) {
+                sccs.getCallersOf(method).forEach(m -> callers.add(sccs.getComponentIndex(m)));
+                sccs.getCalleesOf(method).forEach(m -> callees.add(sccs.getComponentIndex(m)));
+                sccs.getNodesOf(method).forEach(node -> componentOf.put(node, component));
+            }
+            callers.remove(i);
+            callees.remove(i);
+            callerComponents[i] = callers.stream().mapToInt(Integer::intValue).toArray();
+            calleeComponents[i] = callees.stream().mapToInt(Integer::intValue).toArray();
+            pending.add(new ConcurrentLinkedQueue<>());
+        }
+        for (Node node : icfg) {
+            pending.get(componentOf.get(node)).add(node);
+        }
+    }
+
+    /**
+     * Processes the pending nodes of given SCC until its facts reach
+     * fixed point with respect to the current facts of other SCCs.
+     */
+    private void process(int component) {
+        Queue<Node> workList = new SetQueue<>();
+        Queue<Node> nodes = pending.get(component);
+        for (Node node; (node = nodes.poll()) != null; ) {
+            workList.add(node);
+        }
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            Fact in = result.getInFact(node);
+            for (ICFGEdge<Node> edge : icfg.getInEdgesOf(node)) {
+                analysis.meetInto(analysis.transferEdge(
+                        edge, result.getOutFact(edge.getSource())), in);
+            }
+            if (analysis.transferNode(node, in, result.getOutFact(node))) {
+                for (Node succ : icfg.getSuccsOf(node)) {
+                    int succComponent = componentOf.get(succ);
+                    if (succComponent == component) {
+                        workList.add(succ);
+                    } else {
+                        pending.get(succComponent).add(succ);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * One round over the DAG of SCCs, which completes when
+     * all SCCs have been processed.
+     */
+    private class Round extends CountedCompleter<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Number of the caller SCCs which have not been processed
+         * in this round, for each SCC.
+         */
+        private final AtomicInteger[] waiting;
+
+        private Round() {
+            waiting = new AtomicInteger[callerComponents.length];
+            for (int i = 0; i < waiting.length; ++i) {
+                waiting[i] = new AtomicInteger(callerComponents[i].length);
+            }
+        }
+
+        @Override
+        public void compute() {
+            for (int i = 0; i < waiting.length; ++i) {
+                if (callerComponents[i].length == 0) {
+                    addToPendingCount(1);
+                    new ComponentTask(this, i).fork();
+                }
+            }
+            tryComplete();
+        }
+
+        private class ComponentTask extends CountedCompleter<Void> {
+
+            private static final long serialVersionUID = 1L;
+
+            private final int component;
+
+            private ComponentTask(CountedCompleter<?> completer, int component) {
+                super(completer);
+                this.component = component;
+            }
+
+            @Override
+            public void compute() {
+                process(component);
+                for (int callee : calleeComponents[component]) {
+                    if (waiting[callee].decrementAndGet() == 0) {
+                        addToPendingCount(1);
+                        new ComponentTask(this, callee).fork();
+                    }
+                }
+                tryComplete();
+            }
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Solver for inter-procedural data-flow analysis, which computes
+ * summaries of methods instead of running one work-list over the whole
+ * ICFG. This solver is selected by analysis option "solver:summary".
+ * <p>
+ * A summary of a method is the result of analyzing the method for
+ * a distinct entry fact (i.e., a context), and its exit fact is applied
+ * at the return sites of the calls which reach the method with the same
+ * entry fact, so each method is analyzed once per distinct entry fact.
+ * The contexts are scheduled by the strongly connected components of
+ * the call graph in bottom-up order, i.e., the summaries of the callees
+ * are computed before the analysis of their callers continues.
+ * The calls which would create more than {@link #MAX_CONTEXTS} contexts
+ * of a method share one merged context of the method, which meets their
+ * entry facts. This keeps the number of contexts finite for recursive
+ * calls, and bounds the number of contexts of the methods called with
+ * many different entry facts.
+ * <p>
+ * The facts of a node are the meet of its facts in all contexts. As
+ * different entry facts of a method are not merged, the result may be
+ * more precise than the result of {@link InterSolver}.
+ */
+class SummarySolver<Method, Node, Fact> {
+
+    /**
+     * Maximum number of contexts of a method (excluding its merged
+     * context), beyond which the calls share the merged context.
+     */
+    private static final int MAX_CONTEXTS = 8;
+
+    private final InterDataflowAnalysis<Node, Fact> analysis;
+
+    private final ICFG<Method, Node> icfg;
+
+    private CallGraphSCCs<Method, Node> sccs;
+
+    /**
+     * Contexts of each method, keyed by their entry facts.
+     */
+    private final Map<Method, Map<Fact, Context>> contexts = Maps.newMap();
+
+    /**
+     * The merged context of each method, for the calls beyond
+     * {@link #MAX_CONTEXTS}.
+     */
+    private final Map<Method, Context> mergedContexts = Maps.newMap();
+
+    /**
+     * Contexts to be processed, where the contexts of callees come first.
+     */
+    private Queue<Context> workList;
+
+    private int contextCounter = 0;
+
+    SummarySolver(InterDataflowAnalysis<Node, Fact> analysis,
+                  ICFG<Method, Node> icfg) {
+        this.analysis = analysis;
+        this.icfg = icfg;
+    }
+
+    DataflowResult<Node, Fact> solve() {
+        sccs = new CallGraphSCCs<>(icfg);
+        workList = new PriorityQueue<>(Comparator
+                .comparingInt((Context c) -> c.componentIndex)
+                .thenComparingInt(c -> c.id));
+        icfg.entryMethods().forEach(method -> getContext(null, method,
+                analysis.newBoundaryFact(icfg.getEntryOf(method))));
+        while (!workList.isEmpty()) {
+            Context context = workList.poll();
+            context.inWorkList = false;
+            process(context);
+        }
+        return collectResult();
+    }
+
+    /**
+     * Analysis context of a method, i.e., the facts of the nodes of
+     * the method for an entry fact.
+     */
+    private class Context {
+
+        private final Method method;
+
+        private final int componentIndex;
+
+        private final int id = contextCounter++;
+
+        private final Map<Node, Fact> inFacts = Maps.newMap();
+
+        private final Map<Node, Fact> outFacts = Maps.newMap();
+
+        /**
+         * Nodes of the method to be processed in this context.
+         */
+        private final Queue<Node> pending = new SetQueue<>();
+
+        /**
+         * The contexts which apply the summary of this context, and the
+         * return sites where the summary is applied.
+         */
+        private final Map<Context, Set<Node>> returnSites = Maps.newMap();
+
+        private boolean inWorkList = false;
+
+        private Context(Method method, Fact entryFact) {
+            this.method = method;
+            this.componentIndex = sccs.getComponentIndex(method);
+            for (Node node : sccs.getNodesOf(method)) {
+                inFacts.put(node, analysis.newInitialFact());
+                outFacts.put(node, analysis.newInitialFact());
+                pending.add(node);
+            }
+            analysis.meetInto(entryFact, inFacts.get(icfg.getEntryOf(method)));
+        }
+    }
+
+    /**
+     * @return the context of {@code callee} for given entry fact.
+     * If the context does not exist, it is created and added to work-list.
+     */
+    private Context getContext(Context caller, Method callee, Fact entryFact) {
+        Map<Fact, Context> calleeContexts = contexts.computeIfAbsent(
+                callee, m -> Maps.newMap());
+        Context context = calleeContexts.get(entryFact);
+        if (context != null) {
+            return context;
+        }
+        if (caller != null && calleeContexts.size() >= MAX_CONTEXTS) {
+            return getMergedContext(callee, entryFact);
+        }
+        context = new Context(callee, entryFact);
+        // the key is a copy, as entryFact may be modified by the caller
+        calleeContexts.put(copyOf(entryFact), context);
+        addToWorkList(context);
+        return context;
+    }
+
+    /**
+     * Meets given entry fact into the merged context of {@code callee}.
+     */
+    private Context getMergedContext(Method callee, Fact entryFact) {
+        Context merged = mergedContexts.get(callee);
+        if (merged == null) {
+            merged = new Context(callee, entryFact);
+            mergedContexts.put(callee, merged);
+            addToWorkList(merged);
+        } else {
+            Node entry = icfg.getEntryOf(callee);
+            Fact in = merged.inFacts.get(entry);
+            Fact oldIn = copyOf(in);
+            analysis.meetInto(entryFact, in);
+            if (!in.equals(oldIn)) {
+                merged.pending.add(entry);
+                addToWorkList(merged);
+            }
+        }
+        return merged;
+    }
+
+    private void addToWorkList(Context context) {
+        if (!context.inWorkList) {
+            context.inWorkList = true;
+            workList.add(context);
+        }
+    }
+
+    /**
+     * Processes the pending nodes of given context until its facts
+     * reach fixed point with respect to the current summaries of callees.
+     */
+    private void process(Context context) {
+        Node exit = icfg.getExitOf(context.method);
+        while (!context.pending.isEmpty()) {
+            Node node = context.pending.poll();
+            Fact in = context.inFacts.get(node);
+            for (ICFGEdge<Node> edge : icfg.getInEdgesOf(node)) {
+                if (edge instanceof CallEdge) {
+                    // the flows from callers are given by entry facts
+                    continue;
+                }
+                Fact out;
+                if (edge instanceof ReturnEdge<Node> returnEdge) {
+                    Context callee = getCalleeContext(context, returnEdge);
+                    callee.returnSites.computeIfAbsent(context,
+                            c -> Sets.newHybridSet()).add(node);
+                    out = callee.outFacts.get(edge.getSource());
+                } else {
+                    out = context.outFacts.get(edge.getSource());
+                }
+                analysis.meetInto(analysis.transferEdge(edge, out), in);
+            }
+            if (analysis.transferNode(node, in, context.outFacts.get(node))) {
+                for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(node)) {
+                    if (!(edge instanceof CallEdge) &&
+                            !(edge instanceof ReturnEdge)) {
+                        context.pending.add(edge.getTarget());
+                    }
+                }
+                if (node.equals(exit)) {
+                    // the summary changes, re-apply it at the return sites
+                    context.returnSites.forEach((caller, returnSites) -> {
+                        caller.pending.addAll(returnSites);
+                        if (caller != context) {
+                            addToWorkList(caller);
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the context of the callee of given return edge, whose
+     * entry fact is the fact flowing from the call site.
+     */
+    private Context getCalleeContext(Context context, ReturnEdge<Node> returnEdge) {
+        Node callSite = returnEdge.getCallSite();
+        Method callee = icfg.getContainingMethodOf(returnEdge.getSource());
+        Node calleeEntry = icfg.getEntryOf(callee);
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(callSite)) {
+            if (edge instanceof CallEdge && edge.getTarget().equals(calleeEntry)) {
+                Fact entryFact = analysis.transferEdge(
+                        edge, context.outFacts.get(callSite));
+                return getContext(context, callee, entryFact);
+            }
+        }
+        throw new IllegalStateException("No call edge from " + callSite +
+                " to " + callee);
+    }
+
+    /**
+     * @return a copy of given fact.
+     */
+    private Fact copyOf(Fact fact) {
+        Fact copy = analysis.newInitialFact();
+        analysis.meetInto(fact, copy);
+        return copy;
+    }
+
+    /**
+     * Meets the facts of the nodes in all contexts.
+     */
+    private DataflowResult<Node, Fact> collectResult() {
+        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        for (Node node : icfg) {
+            result.setInFact(node, analysis.newInitialFact());
+            result.setOutFact(node, analysis.newInitialFact());
+        }
+        contexts.values().forEach(methodContexts ->
+                methodContexts.values().forEach(c -> collectFacts(c, result)));
+        mergedContexts.values().forEach(c -> collectFacts(c, result));
+        return result;
+    }
+
+    private void collectFacts(Context context, DataflowResult<Node, Fact> result) {
+        List<Node> nodes = sccs.getNodesOf(context.method);
+        for (Node node : nodes) {
+            analysis.meetInto(context.inFacts.get(node), result.getInFact(node));
+            analysis.meetInto(context.outFacts.get(node), result.getOutFact(node));
+        }
+    }
+}
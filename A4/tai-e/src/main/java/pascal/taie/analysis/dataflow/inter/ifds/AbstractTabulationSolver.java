@@ -0,0 +1,297 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter.ifds;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Provides the common parts of the tabulation algorithm of
+ * Reps, Horwitz and Sagiv for {@link IFDSSolver} and {@link IDESolver}.
+ * <p>
+ * A path edge (d1, n, d2) means that fact d2 holds before node n if
+ * fact d1 holds at the entry of the method containing n. The solvers
+ * process the path edges in a work-list, and reuse the summary of the
+ * effect of a callee for all call sites which reach the callee with
+ * the same entry fact. Nodes, methods, facts and call edges are
+ * indexed by ints, and the tables of the solvers are indexed by them.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of data-flow facts
+ */
+abstract class AbstractTabulationSolver<Method, Node, D> {
+
+    final IFDSProblem<Node, D> problem;
+
+    final ICFG<Method, Node> icfg;
+
+    final Indexer<Node> nodes = new Indexer<>();
+
+    final Indexer<Method> methods = new Indexer<>();
+
+    final Indexer<D> facts = new Indexer<>();
+
+    /**
+     * Indexes of {@link CallEdge}s and {@link CallToReturnEdge}s.
+     */
+    final Indexer<ICFGEdge<Node>> edges = new Indexer<>();
+
+    /**
+     * Index of the zero fact.
+     */
+    final int zero;
+
+    /**
+     * Index of the method containing each node.
+     */
+    final int[] methodOf;
+
+    /**
+     * Index of the entry node of each method.
+     */
+    final int[] entryOf;
+
+    /**
+     * Index of the exit node of each method.
+     */
+    private final int[] exitOf;
+
+    /**
+     * For each call site, the facts d1 at the entry of the caller
+     * for each fact d2 holding at the call site.
+     */
+    final BitSetTable[] callerFacts;
+
+    /**
+     * For each method, the call edges which reach the method
+     * for each fact at the entry of the method.
+     */
+    private final BitSetTable[] incoming;
+
+    /**
+     * For each call edge, the facts at the call site
+     * for each fact at the entry of the callee.
+     */
+    private final IntTable<BitSetTable> callSources = new IntTable<>();
+
+    /**
+     * Cache of the index of the {@link CallToReturnEdge}
+     * corresponding to each {@link ReturnEdge}.
+     */
+    private final Map<ICFGEdge<Node>, Integer> callToReturnEdges = Maps.newMap();
+
+    final PathEdgeWorkList workList = new PathEdgeWorkList();
+
+    AbstractTabulationSolver(IFDSProblem<Node, D> problem,
+                             ICFG<Method, Node> icfg) {
+        this.problem = problem;
+        this.icfg = icfg;
+        zero = facts.getIndex(problem.zeroValue());
+        List<Integer> methodIndexes = new ArrayList<>();
+        for (Node node : icfg) {
+            nodes.getIndex(node);
+            methodIndexes.add(methods.getIndex(icfg.getContainingMethodOf(node)));
+        }
+        methodOf = methodIndexes.stream().mapToInt(Integer::intValue).toArray();
+        entryOf = new int[methods.size()];
+        exitOf = new int[methods.size()];
+        incoming = new BitSetTable[methods.size()];
+        for (int m = 0; m < methods.size(); ++m) {
+            Method method = methods.getObject(m);
+            entryOf[m] = nodes.indexOf(icfg.getEntryOf(method));
+            exitOf[m] = nodes.indexOf(icfg.getExitOf(method));
+            incoming[m] = new BitSetTable();
+        }
+        callerFacts = new BitSetTable[nodes.size()];
+    }
+
+    public void solve() {
+        problem.initialSeeds().forEach((node, seedFacts) -> {
+            int n = nodes.indexOf(node);
+            if (n < 0) {
+                throw new IllegalArgumentException(node + " is not in the ICFG");
+            }
+            propagateSeed(n, zero);
+            for (D fact : seedFacts) {
+                propagateSeed(n, facts.getIndex(fact));
+            }
+        });
+        int[] pathEdge = new int[3];
+        while (!workList.isEmpty()) {
+            workList.poll(pathEdge);
+            processPathEdge(pathEdge[0], pathEdge[1], pathEdge[2]);
+        }
+    }
+
+    private void processPathEdge(int d1, int n, int d2) {
+        Node node = nodes.getObject(n);
+        boolean isCallSite = icfg.isCallSite(node);
+        if (isCallSite) {
+            if (callerFacts[n] == null) {
+                callerFacts[n] = new BitSetTable();
+            }
+            callerFacts[n].add(d2, d1);
+        }
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(node)) {
+            if (edge instanceof CallEdge<Node> callEdge) {
+                processCall(n, d2, callEdge);
+            } else if (!(edge instanceof ReturnEdge)) {
+                processNormal(d1, n, d2, edge);
+            }
+        }
+        if (isCallSite) {
+            applyExistingSummaries(d1, n, d2);
+        }
+        int m = methodOf[n];
+        if (exitOf[m] == n) {
+            processExit(d1, n, d2, m);
+        }
+    }
+
+    private void processCall(int n, int d2, CallEdge<Node> callEdge) {
+        int e = edges.getIndex(callEdge);
+        int m = methodOf[nodes.indexOf(callEdge.getTarget())];
+        for (D target : problem.getCallFlow(callEdge, facts.getObject(d2))) {
+            int d3 = facts.getIndex(target);
+            incoming[m].add(d3, e);
+            BitSetTable sources = callSources.get(e);
+            if (sources == null) {
+                sources = new BitSetTable();
+                callSources.put(e, sources);
+            }
+            sources.add(d3, d2);
+            processCallFlow(n, d2, callEdge, d3, m);
+        }
+    }
+
+    /**
+     * Calls {@code action} for each call edge which reaches method
+     * {@code m} with fact {@code d3}, the call site of the edge,
+     * and each fact at the call site which flows to {@code d3}.
+     */
+    void forEachCallSource(int m, int d3, CallSourceAction<Node> action) {
+        BitSet callEdges = incoming[m].get(d3);
+        for (int e = callEdges.nextSetBit(0); e >= 0;
+             e = callEdges.nextSetBit(e + 1)) {
+            @SuppressWarnings("unchecked")
+            CallEdge<Node> callEdge = (CallEdge<Node>) edges.getObject(e);
+            int c = nodes.indexOf(callEdge.getSource());
+            BitSet sources = callSources.get(e).get(d3);
+            for (int d2 = sources.nextSetBit(0); d2 >= 0;
+                 d2 = sources.nextSetBit(d2 + 1)) {
+                action.apply(callEdge, c, d2);
+            }
+        }
+    }
+
+    interface CallSourceAction<Node> {
+        void apply(CallEdge<Node> callEdge, int callSite, int d2);
+    }
+
+    /**
+     * @return the return edges from the exit of method {@code m}
+     * to the return sites of {@code callSite}.
+     */
+    List<ReturnEdge<Node>> getReturnEdges(int m, Node callSite) {
+        List<ReturnEdge<Node>> returnEdges = new ArrayList<>();
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(nodes.getObject(exitOf[m]))) {
+            if (edge instanceof ReturnEdge<Node> returnEdge &&
+                    returnEdge.getCallSite().equals(callSite)) {
+                returnEdges.add(returnEdge);
+            }
+        }
+        return returnEdges;
+    }
+
+    /**
+     * @return the index of the {@link CallToReturnEdge} which connects
+     * the call site and the return site of given return edge. The summary
+     * edges of all callees of the call site are stored under this index.
+     */
+    int getSummaryIndex(ReturnEdge<Node> returnEdge) {
+        return callToReturnEdges.computeIfAbsent(returnEdge, e -> {
+            for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(returnEdge.getCallSite())) {
+                if (edge instanceof CallToReturnEdge &&
+                        edge.getTarget().equals(returnEdge.getTarget())) {
+                    return edges.getIndex(edge);
+                }
+            }
+            throw new IllegalStateException("No call-to-return edge for " + e);
+        });
+    }
+
+    /**
+     * Adds the facts of given indexes, except the zero fact, to {@code result}.
+     */
+    void addFacts(BitSet indexes, Set<D> result) {
+        for (int d = indexes.nextSetBit(0); d >= 0; d = indexes.nextSetBit(d + 1)) {
+            if (d != zero) {
+                result.add(facts.getObject(d));
+            }
+        }
+    }
+
+    // ---------- steps of the tabulation algorithm ----------
+
+    /**
+     * Propagates path edge (d, n, d) for seed node {@code n}.
+     */
+    abstract void propagateSeed(int n, int d);
+
+    /**
+     * Processes path edge (d1, n, d2) along a {@link ICFGEdge} which is
+     * neither {@link CallEdge} nor {@link ReturnEdge}.
+     */
+    abstract void processNormal(int d1, int n, int d2, ICFGEdge<Node> edge);
+
+    /**
+     * Processes the flow from fact {@code d2} at call site {@code n}
+     * to fact {@code d3} at the entry of callee {@code m}, and applies
+     * the existing end summaries of {@code m} for {@code d3}.
+     */
+    abstract void processCallFlow(int n, int d2, CallEdge<Node> callEdge,
+                                  int d3, int m);
+
+    /**
+     * Applies the existing summary edges of call site {@code n} from
+     * {@code d2} to path edge (d1, n, d2).
+     */
+    abstract void applyExistingSummaries(int d1, int n, int d2);
+
+    /**
+     * Processes path edge (d1, n, d2) where {@code n} is the exit
+     * of method {@code m}.
+     */
+    abstract void processExit(int d1, int n, int d2, int m);
+}
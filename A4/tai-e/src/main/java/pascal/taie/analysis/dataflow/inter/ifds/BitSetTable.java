@@ -0,0 +1,78 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter.ifds;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Relation between ints, stored as one {@link BitSet} per row.
+ */
+final class BitSetTable {
+
+    private static final BitSet EMPTY = new BitSet();
+
+    private BitSet[] rows = new BitSet[4];
+
+    /**
+     * Adds ({@code row}, {@code column}) to this table.
+     *
+     * @return true if this table changed, otherwise false.
+     */
+    boolean add(int row, int column) {
+        if (row >= rows.length) {
+            rows = Arrays.copyOf(rows, Math.max(row + 1, rows.length * 2));
+        }
+        BitSet columns = rows[row];
+        if (columns == null) {
+            columns = rows[row] = new BitSet();
+        }
+        if (columns.get(column)) {
+            return false;
+        }
+        columns.set(column);
+        return true;
+    }
+
+    /**
+     * @return the columns in given row. The returned set must not
+     * be modified.
+     */
+    BitSet get(int row) {
+        BitSet columns = row < rows.length ? rows[row] : null;
+        return columns != null ? columns : EMPTY;
+    }
+
+    /**
+     * @return the union of the columns in all rows.
+     */
+    BitSet getAllColumns() {
+        BitSet result = new BitSet();
+        for (BitSet columns : rows) {
+            if (columns != null) {
+                result.or(columns);
+            }
+        }
+        return result;
+    }
+}
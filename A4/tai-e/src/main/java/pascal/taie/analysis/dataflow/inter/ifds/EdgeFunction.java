@@ -0,0 +1,53 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter.ifds;
+
+/**
+ * Edge function of IDE, which transforms the value of a fact
+ * at the source of an edge (or a path) to the value at its target.
+ * <p>
+ * The implementations must be immutable and implement {@code equals}
+ * and {@code hashCode}, as {@link IDESolver} decides whether a jump
+ * function changes by comparing the functions.
+ *
+ * @param <V> type of values
+ */
+public interface EdgeFunction<V> {
+
+    /**
+     * @return the value at the target for given value at the source.
+     */
+    V computeTarget(V source);
+
+    /**
+     * @return the function which applies this function and
+     * then {@code second}, i.e., second ∘ this.
+     */
+    EdgeFunction<V> composeWith(EdgeFunction<V> second);
+
+    /**
+     * @return the function which computes the meet of the results
+     * of this function and {@code other}, or a function below it.
+     */
+    EdgeFunction<V> meetWith(EdgeFunction<V> other);
+}
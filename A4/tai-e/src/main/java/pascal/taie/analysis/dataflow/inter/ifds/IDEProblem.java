@@ -0,0 +1,87 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter.ifds;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+
+/**
+ * Template interface for defining an IDE problem, i.e., an
+ * inter-procedural distributive environment problem, which is
+ * solved by {@link IDESolver}.
+ * <p>
+ * An IDE problem extends an {@link IFDSProblem} with values: each fact
+ * holding at a node is mapped to a value in a lattice, and each edge
+ * of the exploded super-graph, i.e., each pair of a source fact and
+ * a target fact given by a flow function, is labeled by an
+ * {@link EdgeFunction} which transforms the values.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of data-flow facts
+ * @param <V>    type of values
+ */
+public interface IDEProblem<Node, D, V> extends IFDSProblem<Node, D> {
+
+    /**
+     * @return the edge function from fact {@code source} to fact
+     * {@code target} along {@code edge}, where {@code target}
+     * is given by {@link #getNormalFlow}.
+     */
+    EdgeFunction<V> getNormalEdgeFunction(ICFGEdge<Node> edge, D source, D target);
+
+    /**
+     * @return the edge function from fact {@code source} to fact
+     * {@code target} along {@code edge}, where {@code target}
+     * is given by {@link #getCallFlow}.
+     */
+    EdgeFunction<V> getCallEdgeFunction(CallEdge<Node> edge, D source, D target);
+
+    /**
+     * @return the edge function from fact {@code source} to fact
+     * {@code target} along {@code edge}, where {@code target}
+     * is given by {@link #getReturnFlow}.
+     */
+    EdgeFunction<V> getReturnEdgeFunction(ReturnEdge<Node> edge, D source, D target);
+
+    /**
+     * @return the identity edge function.
+     */
+    EdgeFunction<V> identity();
+
+    /**
+     * @return the top value of the lattice, i.e., the value of
+     * the facts which do not hold.
+     */
+    V topValue();
+
+    /**
+     * Meets two values.
+     */
+    V meet(V v1, V v2);
+
+    /**
+     * @return the value of given fact at given seed.
+     */
+    V initialValue(Node seed, D fact);
+}
@@ -0,0 +1,418 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter.ifds;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.Supplier;
+
+/**
+ * Solver for {@link IDEProblem}, which extends the tabulation algorithm
+ * of IFDS problems with edge functions, and works in two phases:
+ * <ol>
+ *     <li>Computes jump functions, i.e., the composed edge functions of
+ *     path edges, and summary functions of the callees, by the
+ *     tabulation algorithm. The jump function of a path edge is updated
+ *     by meeting it with the functions of newly found paths.</li>
+ *     <li>Computes values of the facts at the entries of the methods by
+ *     propagating the initial values of the seeds through the call sites,
+ *     and then computes values of the facts at all nodes by applying
+ *     the jump functions to the values at the entries.</li>
+ * </ol>
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of data-flow facts
+ * @param <V>      type of values
+ */
+public class IDESolver<Method, Node, D, V>
+        extends AbstractTabulationSolver<Method, Node, D> {
+
+    private final IDEProblem<Node, D, V> ideProblem;
+
+    /**
+     * Jump functions of the path edges of each node.
+     */
+    private final List<FunctionTable<V>> jumpFunctions;
+
+    /**
+     * For each method, the functions from the facts at its entry
+     * to the facts at its exit.
+     */
+    private final List<FunctionTable<V>> endSummaries;
+
+    /**
+     * For each call-to-return edge, the functions from the facts at the
+     * call site to the facts at the return site, through the callees.
+     */
+    private final IntTable<FunctionTable<V>> summaries = new IntTable<>();
+
+    /**
+     * Seeds as (node, fact) pairs of indexes.
+     */
+    private final List<int[]> seeds = new ArrayList<>();
+
+    /**
+     * Values of the facts at the entry of each method.
+     */
+    private final List<IntTable<V>> entryValues;
+
+    /**
+     * Values of the facts before each node.
+     */
+    private final List<IntTable<V>> values;
+
+    public IDESolver(IDEProblem<Node, D, V> problem, ICFG<Method, Node> icfg) {
+        super(problem, icfg);
+        this.ideProblem = problem;
+        jumpFunctions = newList(nodes.size(), FunctionTable::new);
+        endSummaries = newList(methods.size(), FunctionTable::new);
+        entryValues = newList(methods.size(), IntTable::new);
+        values = newList(nodes.size(), IntTable::new);
+    }
+
+    private static <T> List<T> newList(int size, Supplier<T> supplier) {
+        List<T> list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            list.add(supplier.get());
+        }
+        return list;
+    }
+
+    @Override
+    public void solve() {
+        super.solve();
+        computeEntryValues();
+        computeValues();
+    }
+
+    /**
+     * @return the value of given fact before given node.
+     */
+    public V getValue(Node node, D fact) {
+        int n = nodes.indexOf(node);
+        int d = facts.indexOf(fact);
+        V value = n >= 0 && d >= 0 ? values.get(n).get(d) : null;
+        return value != null ? value : ideProblem.topValue();
+    }
+
+    /**
+     * @return the facts holding before given node and their values,
+     * excluding the zero fact.
+     */
+    public Map<D, V> getValues(Node node) {
+        int n = nodes.indexOf(node);
+        if (n < 0) {
+            return Collections.emptyMap();
+        }
+        Map<D, V> result = Maps.newHybridMap();
+        IntTable<V> nodeValues = values.get(n);
+        BitSet keys = nodeValues.keys();
+        for (int d = keys.nextSetBit(0); d >= 0; d = keys.nextSetBit(d + 1)) {
+            if (d != zero) {
+                result.put(facts.getObject(d), nodeValues.get(d));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the facts flowing along given edge from the facts holding
+     * before its source, and their values, excluding the zero fact.
+     * The edge should not be a call edge or a return edge, and for a
+     * call-to-return edge, the facts flowing through the callees
+     * are not included.
+     */
+    public Map<D, V> getValues(ICFGEdge<Node> edge) {
+        int n = nodes.indexOf(edge.getSource());
+        if (n < 0) {
+            return Collections.emptyMap();
+        }
+        Map<D, V> result = Maps.newHybridMap();
+        IntTable<V> nodeValues = values.get(n);
+        BitSet keys = nodeValues.keys();
+        for (int d = keys.nextSetBit(0); d >= 0; d = keys.nextSetBit(d + 1)) {
+            D source = facts.getObject(d);
+            V value = nodeValues.get(d);
+            for (D fact : problem.getNormalFlow(edge, source)) {
+                if (facts.indexOf(fact) != zero) {
+                    result.merge(fact, ideProblem.getNormalEdgeFunction(
+                            edge, source, fact).computeTarget(value),
+                            ideProblem::meet);
+                }
+            }
+        }
+        return result;
+    }
+
+    // ---------- phase 1: jump functions ----------
+
+    private void propagate(int d1, int n, int d2, EdgeFunction<V> function) {
+        if (jumpFunctions.get(n).meet(d1, d2, function)) {
+            workList.add(d1, n, d2);
+        }
+    }
+
+    @Override
+    void propagateSeed(int n, int d) {
+        seeds.add(new int[]{ n, d });
+        propagate(d, n, d, ideProblem.identity());
+    }
+
+    @Override
+    void processNormal(int d1, int n, int d2, ICFGEdge<Node> edge) {
+        EdgeFunction<V> function = jumpFunctions.get(n).get(d1, d2);
+        int target = nodes.indexOf(edge.getTarget());
+        D source = facts.getObject(d2);
+        for (D fact : problem.getNormalFlow(edge, source)) {
+            propagate(d1, target, facts.getIndex(fact), function.composeWith(
+                    ideProblem.getNormalEdgeFunction(edge, source, fact)));
+        }
+    }
+
+    @Override
+    void processCallFlow(int n, int d2, CallEdge<Node> callEdge, int d3, int m) {
+        propagate(d3, entryOf[m], d3, ideProblem.identity());
+        IntTable<EdgeFunction<V>> exitFunctions = endSummaries.get(m).getRow(d3);
+        if (exitFunctions != null) {
+            BitSet exitFacts = exitFunctions.keys();
+            for (int d4 = exitFacts.nextSetBit(0); d4 >= 0;
+                 d4 = exitFacts.nextSetBit(d4 + 1)) {
+                applySummary(callEdge, n, d2, d3, d4, exitFunctions.get(d4), m);
+            }
+        }
+    }
+
+    @Override
+    void applyExistingSummaries(int d1, int n, int d2) {
+        EdgeFunction<V> function = jumpFunctions.get(n).get(d1, d2);
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(nodes.getObject(n))) {
+            if (edge instanceof CallEdge || edge instanceof ReturnEdge) {
+                continue;
+            }
+            FunctionTable<V> summary = summaries.get(edges.getIndex(edge));
+            IntTable<EdgeFunction<V>> summaryFunctions =
+                    summary != null ? summary.getRow(d2) : null;
+            if (summaryFunctions != null) {
+                int returnSite = nodes.indexOf(edge.getTarget());
+                BitSet returnFacts = summaryFunctions.keys();
+                for (int d5 = returnFacts.nextSetBit(0); d5 >= 0;
+                     d5 = returnFacts.nextSetBit(d5 + 1)) {
+                    propagate(d1, returnSite, d5,
+                            function.composeWith(summaryFunctions.get(d5)));
+                }
+            }
+        }
+    }
+
+    @Override
+    void processExit(int d1, int n, int d2, int m) {
+        FunctionTable<V> endSummary = endSummaries.get(m);
+        if (endSummary.meet(d1, d2, jumpFunctions.get(n).get(d1, d2))) {
+            EdgeFunction<V> exitFunction = endSummary.get(d1, d2);
+            forEachCallSource(m, d1, (callEdge, c, source) -> applySummary(
+                    callEdge, c, source, d1, d2, exitFunction, m));
+        }
+    }
+
+    /**
+     * Applies the function {@code exitFunction} from fact {@code d3} at
+     * the entry of method {@code m} to fact {@code d4} at its exit, to
+     * the return sites of the call site {@code c} of {@code callEdge},
+     * for fact {@code d2} at the call site.
+     */
+    private void applySummary(CallEdge<Node> callEdge, int c, int d2, int d3,
+                              int d4, EdgeFunction<V> exitFunction, int m) {
+        D exitFact = facts.getObject(d4);
+        EdgeFunction<V> throughCallee = ideProblem.getCallEdgeFunction(
+                callEdge, facts.getObject(d2), facts.getObject(d3))
+                .composeWith(exitFunction);
+        FunctionTable<V> callerJumpFunctions = jumpFunctions.get(c);
+        BitSet callerEntryFacts = callerFacts[c].get(d2);
+        for (ReturnEdge<Node> returnEdge : getReturnEdges(m, nodes.getObject(c))) {
+            int s = getSummaryIndex(returnEdge);
+            FunctionTable<V> summary = summaries.get(s);
+            if (summary == null) {
+                summary = new FunctionTable<>();
+                summaries.put(s, summary);
+            }
+            int returnSite = nodes.indexOf(returnEdge.getTarget());
+            for (D fact : problem.getReturnFlow(returnEdge, exitFact)) {
+                int d5 = facts.getIndex(fact);
+                if (summary.meet(d2, d5, throughCallee.composeWith(ideProblem
+                        .getReturnEdgeFunction(returnEdge, exitFact, fact)))) {
+                    EdgeFunction<V> summaryFunction = summary.get(d2, d5);
+                    for (int d1 = callerEntryFacts.nextSetBit(0); d1 >= 0;
+                         d1 = callerEntryFacts.nextSetBit(d1 + 1)) {
+                        propagate(d1, returnSite, d5, callerJumpFunctions
+                                .get(d1, d2).composeWith(summaryFunction));
+                    }
+                }
+            }
+        }
+    }
+
+    // ---------- phase 2: values ----------
+
+    /**
+     * Propagates the initial values of the seeds to the entries of
+     * the methods they reach through call sites.
+     */
+    private void computeEntryValues() {
+        Queue<int[]> entries = new ArrayDeque<>();
+        for (int[] seed : seeds) {
+            int m = methodOf[seed[0]];
+            V value = ideProblem.initialValue(
+                    nodes.getObject(seed[0]), facts.getObject(seed[1]));
+            if (meetValue(entryValues.get(m), seed[1], value)) {
+                entries.add(new int[]{ m, seed[1] });
+            }
+        }
+        List<List<Integer>> callSites = newList(methods.size(), ArrayList::new);
+        for (int n = 0; n < nodes.size(); ++n) {
+            if (icfg.isCallSite(nodes.getObject(n))) {
+                callSites.get(methodOf[n]).add(n);
+            }
+        }
+        while (!entries.isEmpty()) {
+            int[] entry = entries.poll();
+            int m = entry[0], d1 = entry[1];
+            V entryValue = entryValues.get(m).get(d1);
+            for (int c : callSites.get(m)) {
+                IntTable<EdgeFunction<V>> functions = jumpFunctions.get(c).getRow(d1);
+                if (functions == null) {
+                    continue;
+                }
+                BitSet callSiteFacts = functions.keys();
+                for (int d2 = callSiteFacts.nextSetBit(0); d2 >= 0;
+                     d2 = callSiteFacts.nextSetBit(d2 + 1)) {
+                    V value = functions.get(d2).computeTarget(entryValue);
+                    D source = facts.getObject(d2);
+                    for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(nodes.getObject(c))) {
+                        if (edge instanceof CallEdge<Node> callEdge) {
+                            int callee = methodOf[nodes.indexOf(callEdge.getTarget())];
+                            for (D target : problem.getCallFlow(callEdge, source)) {
+                                int d3 = facts.getIndex(target);
+                                V calleeValue = ideProblem.getCallEdgeFunction(
+                                        callEdge, source, target).computeTarget(value);
+                                if (meetValue(entryValues.get(callee), d3, calleeValue)) {
+                                    entries.add(new int[]{ callee, d3 });
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the values at all nodes from the values at the entries.
+     */
+    private void computeValues() {
+        for (int n = 0; n < nodes.size(); ++n) {
+            IntTable<V> methodEntryValues = entryValues.get(methodOf[n]);
+            IntTable<V> nodeValues = values.get(n);
+            IntTable<IntTable<EdgeFunction<V>>> rows = jumpFunctions.get(n).rows;
+            BitSet entryFacts = rows.keys();
+            for (int d1 = entryFacts.nextSetBit(0); d1 >= 0;
+                 d1 = entryFacts.nextSetBit(d1 + 1)) {
+                V entryValue = methodEntryValues.get(d1);
+                if (entryValue == null) {
+                    continue;
+                }
+                IntTable<EdgeFunction<V>> functions = rows.get(d1);
+                BitSet nodeFacts = functions.keys();
+                for (int d2 = nodeFacts.nextSetBit(0); d2 >= 0;
+                     d2 = nodeFacts.nextSetBit(d2 + 1)) {
+                    meetValue(nodeValues, d2,
+                            functions.get(d2).computeTarget(entryValue));
+                }
+            }
+        }
+    }
+
+    /**
+     * Meets {@code value} into the value of fact {@code d} in {@code table}.
+     *
+     * @return true if the value in {@code table} changed, otherwise false.
+     */
+    private boolean meetValue(IntTable<V> table, int d, V value) {
+        V oldValue = table.get(d);
+        V newValue = oldValue == null ? value : ideProblem.meet(oldValue, value);
+        if (newValue.equals(oldValue)) {
+            return false;
+        }
+        table.put(d, newValue);
+        return true;
+    }
+
+    /**
+     * Edge functions indexed by source facts and target facts.
+     */
+    private static class FunctionTable<V> {
+
+        private final IntTable<IntTable<EdgeFunction<V>>> rows = new IntTable<>();
+
+        private EdgeFunction<V> get(int d1, int d2) {
+            IntTable<EdgeFunction<V>> row = rows.get(d1);
+            return row != null ? row.get(d2) : null;
+        }
+
+        private IntTable<EdgeFunction<V>> getRow(int d1) {
+            return rows.get(d1);
+        }
+
+        /**
+         * Meets {@code function} into the function of (d1, d2).
+         *
+         * @return true if the function of (d1, d2) changed, otherwise false.
+         */
+        private boolean meet(int d1, int d2, EdgeFunction<V> function) {
+            IntTable<EdgeFunction<V>> row = rows.get(d1);
+            if (row == null) {
+                row = new IntTable<>();
+                rows.put(d1, row);
+            }
+            EdgeFunction<V> oldFunction = row.get(d2);
+            EdgeFunction<V> newFunction = oldFunction == null ?
+                    function : oldFunction.meetWith(function);
+            if (newFunction.equals(oldFunction)) {
+                return false;
+            }
+            row.put(d2, newFunction);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter.ifds;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Template interface for defining an IFDS problem, i.e., an
+ * inter-procedural, finite, distributive subset problem, which is
+ * solved by {@link IFDSSolver}.
+ * <p>
+ * The data-flow facts of IFDS are the elements of a finite domain D,
+ * and the facts of a node are the facts holding before the node.
+ * The flow functions are given for single facts, which must be
+ * distributive, i.e., the facts flowing from a set of facts are the
+ * union of the facts flowing from each fact in the set.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of data-flow facts
+ */
+public interface IFDSProblem<Node, D> {
+
+    /**
+     * @return the special zero fact (usually denoted by 0 or Λ), which
+     * holds at all reachable nodes. The flow functions should map
+     * the zero fact to itself, and generate new facts from it.
+     */
+    D zeroValue();
+
+    /**
+     * @return the initial seeds, i.e., the nodes where the analysis starts
+     * (usually the entries of the entry methods) and the facts holding
+     * at them. The zero fact needs not be included.
+     */
+    Map<Node, Set<D>> initialSeeds();
+
+    /**
+     * Flow function for {@link NormalEdge} and {@link CallToReturnEdge},
+     * which covers both the source node and the edge.
+     *
+     * @return the facts which hold at the target of {@code edge}
+     * for the fact {@code source} holding at the source of {@code edge}.
+     */
+    Set<D> getNormalFlow(ICFGEdge<Node> edge, D source);
+
+    /**
+     * Flow function for {@link CallEdge}.
+     *
+     * @return the facts which hold at the entry of the callee
+     * for the fact {@code source} holding at the call site.
+     */
+    Set<D> getCallFlow(CallEdge<Node> edge, D source);
+
+    /**
+     * Flow function for {@link ReturnEdge}.
+     *
+     * @return the facts which hold at the return site
+     * for the fact {@code source} holding at the exit of the callee.
+     */
+    Set<D> getReturnFlow(ReturnEdge<Node> edge, D source);
+}
@@ -0,0 +1,176 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter.ifds;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Sets;
+
+import java.util.BitSet;
+import java.util.Set;
+
+/**
+ * Tabulation solver for {@link IFDSProblem}.
+ * <p>
+ * Different from {@link pascal.taie.analysis.dataflow.inter.InterSolver},
+ * which merges the facts from all call sites of a method, this solver
+ * only returns the facts of a callee to the call sites from which they
+ * flow into the callee. The effect of a callee for an entry fact is
+ * computed once, and is reused as summary edges by all call sites that
+ * reach the callee with the fact. The path edges, end summaries and
+ * summary edges are stored in {@link BitSet}s indexed by the facts.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of data-flow facts
+ */
+public class IFDSSolver<Method, Node, D>
+        extends AbstractTabulationSolver<Method, Node, D> {
+
+    /**
+     * For each node, the facts d2 holding at the node
+     * for each fact d1 at the entry of its method.
+     */
+    private final BitSetTable[] pathEdges;
+
+    /**
+     * For each method, the facts holding at its exit
+     * for each fact at its entry.
+     */
+    private final BitSetTable[] endSummaries;
+
+    /**
+     * For each call-to-return edge, the facts holding at the return site
+     * for each fact holding at the call site, after the calls.
+     */
+    private final IntTable<BitSetTable> summaries = new IntTable<>();
+
+    public IFDSSolver(IFDSProblem<Node, D> problem, ICFG<Method, Node> icfg) {
+        super(problem, icfg);
+        pathEdges = new BitSetTable[nodes.size()];
+        for (int n = 0; n < pathEdges.length; ++n) {
+            pathEdges[n] = new BitSetTable();
+        }
+        endSummaries = new BitSetTable[methods.size()];
+        for (int m = 0; m < endSummaries.length; ++m) {
+            endSummaries[m] = new BitSetTable();
+        }
+    }
+
+    /**
+     * @return the facts holding before given node, excluding the zero fact.
+     */
+    public Set<D> getFacts(Node node) {
+        Set<D> result = Sets.newHybridSet();
+        int n = nodes.indexOf(node);
+        if (n >= 0) {
+            addFacts(pathEdges[n].getAllColumns(), result);
+        }
+        return result;
+    }
+
+    private void propagate(int d1, int n, int d2) {
+        if (pathEdges[n].add(d1, d2)) {
+            workList.add(d1, n, d2);
+        }
+    }
+
+    @Override
+    void propagateSeed(int n, int d) {
+        propagate(d, n, d);
+    }
+
+    @Override
+    void processNormal(int d1, int n, int d2, ICFGEdge<Node> edge) {
+        int target = nodes.indexOf(edge.getTarget());
+        for (D fact : problem.getNormalFlow(edge, facts.getObject(d2))) {
+            propagate(d1, target, facts.getIndex(fact));
+        }
+    }
+
+    @Override
+    void processCallFlow(int n, int d2, CallEdge<Node> callEdge, int d3, int m) {
+        propagate(d3, entryOf[m], d3);
+        BitSet exitFacts = endSummaries[m].get(d3);
+        for (int d4 = exitFacts.nextSetBit(0); d4 >= 0;
+             d4 = exitFacts.nextSetBit(d4 + 1)) {
+            applySummary(n, d2, d4, m);
+        }
+    }
+
+    @Override
+    void applyExistingSummaries(int d1, int n, int d2) {
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(nodes.getObject(n))) {
+            if (edge instanceof CallEdge || edge instanceof ReturnEdge) {
+                continue;
+            }
+            BitSetTable summary = summaries.get(edges.getIndex(edge));
+            if (summary != null) {
+                int returnSite = nodes.indexOf(edge.getTarget());
+                BitSet returnFacts = summary.get(d2);
+                for (int d5 = returnFacts.nextSetBit(0); d5 >= 0;
+                     d5 = returnFacts.nextSetBit(d5 + 1)) {
+                    propagate(d1, returnSite, d5);
+                }
+            }
+        }
+    }
+
+    @Override
+    void processExit(int d1, int n, int d2, int m) {
+        if (endSummaries[m].add(d1, d2)) {
+            forEachCallSource(m, d1, (callEdge, c, source) ->
+                    applySummary(c, source, d2, m));
+        }
+    }
+
+    /**
+     * Applies the flow from fact {@code d4} at the exit of method
+     * {@code m} to the return sites of call site {@code c}, for fact
+     * {@code d2} at the call site.
+     */
+    private void applySummary(int c, int d2, int d4, int m) {
+        D exitFact = facts.getObject(d4);
+        BitSet callerEntryFacts = callerFacts[c].get(d2);
+        for (ReturnEdge<Node> returnEdge : getReturnEdges(m, nodes.getObject(c))) {
+            int s = getSummaryIndex(returnEdge);
+            BitSetTable summary = summaries.get(s);
+            if (summary == null) {
+                summary = new BitSetTable();
+                summaries.put(s, summary);
+            }
+            int returnSite = nodes.indexOf(returnEdge.getTarget());
+            for (D fact : problem.getReturnFlow(returnEdge, exitFact)) {
+                int d5 = facts.getIndex(fact);
+                if (summary.add(d2, d5)) {
+                    for (int d1 = callerEntryFacts.nextSetBit(0); d1 >= 0;
+                         d1 = callerEntryFacts.nextSetBit(d1 + 1)) {
+                        propagate(d1, returnSite, d5);
+                    }
+                }
+            }
+        }
+    }
+}
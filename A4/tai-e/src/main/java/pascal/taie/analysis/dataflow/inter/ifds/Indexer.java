@@ -0,0 +1,79 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter.ifds;
+
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns consecutive int indexes to objects, so that the tables of
+ * the solvers can be indexed by ints instead of hashing the objects.
+ *
+ * @param <T> type of indexed objects
+ */
+final class Indexer<T> {
+
+    private final Map<T, Integer> indexes = Maps.newMap();
+
+    private final List<T> objects = new ArrayList<>();
+
+    /**
+     * @return the index of given object. If the object has not been
+     * indexed, it is assigned a new index.
+     */
+    int getIndex(T object) {
+        Integer index = indexes.get(object);
+        if (index == null) {
+            index = objects.size();
+            indexes.put(object, index);
+            objects.add(object);
+        }
+        return index;
+    }
+
+    /**
+     * @return the index of given object, or -1 if the object
+     * has not been indexed.
+     */
+    int indexOf(T object) {
+        Integer index = indexes.get(object);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * @return the object of given index.
+     */
+    T getObject(int index) {
+        return objects.get(index);
+    }
+
+    /**
+     * @return the number of indexed objects.
+     */
+    int size() {
+        return objects.size();
+    }
+}
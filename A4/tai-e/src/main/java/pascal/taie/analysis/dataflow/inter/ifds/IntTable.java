@@ -0,0 +1,61 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter.ifds;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Map from ints to values, stored in an array indexed by the keys.
+ *
+ * @param <V> type of values
+ */
+final class IntTable<V> {
+
+    private Object[] values = new Object[4];
+
+    private final BitSet keys = new BitSet();
+
+    /**
+     * @return the value of given key, or null if the key is absent.
+     */
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        return key < values.length ? (V) values[key] : null;
+    }
+
+    void put(int key, V value) {
+        if (key >= values.length) {
+            values = Arrays.copyOf(values, Math.max(key + 1, values.length * 2));
+        }
+        values[key] = value;
+        keys.set(key);
+    }
+
+    /**
+     * @return the keys of this table. The returned set must not be modified.
+     */
+    BitSet keys() {
+        return keys;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter.ifds;
+
+import java.util.Arrays;
+
+/**
+ * Work-list of path edges, where each path edge (d1, n, d2) is
+ * represented by the indexes of its facts and node.
+ */
+final class PathEdgeWorkList {
+
+    private int[] elements = new int[3 * 64];
+
+    private int size = 0;
+
+    void add(int d1, int node, int d2) {
+        if (size + 3 > elements.length) {
+            elements = Arrays.copyOf(elements, elements.length * 2);
+        }
+        elements[size++] = d1;
+        elements[size++] = node;
+        elements[size++] = d2;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes a path edge from this work-list, and stores
+     * its d1, n and d2 in given array.
+     */
+    void poll(int[] pathEdge) {
+        pathEdge[2] = elements[--size];
+        pathEdge[1] = elements[--size];
+        pathEdge[0] = elements[--size];
+    }
+}
@@ -61,6 +61,25 @@ public final class Tests {
      * @param opts      options for the analysis
      */
     public static void test(String main, String classPath, String id, String... opts) {
+        doTest(main, classPath, id, id, opts);
+    }
+
+    /**
+     * Starts an analysis for a specific test case, and compares the result
+     * with the expected file of given variant, i.e.,
+     * {@code <main>-<id>-<variant>-expected.txt}. This is for the options
+     * which change the result.
+     */
+    public static void testVariant(String main, String classPath, String id,
+                                   String variant, String... opts) {
+        doTest(main, classPath, id, id + "-" + variant, opts);
+    }
+
+    /**
+     * @param expectedId analysis ID used in the name of the expected file
+     */
+    private static void doTest(String main, String classPath, String id,
+                               String expectedId, String... opts) {
         List<String> args = new ArrayList<>();
         args.add("-pp");
         Collections.addAll(args, "-cp", classPath);
@@ -82,7 +101,7 @@ public final class Tests {
         }
         // set up result processor
         String action = GENERATE_EXPECTED_RESULTS ? "dump" : "compare";
-        String file = getExpectedFile(classPath, main, id);
+        String file = getExpectedFile(classPath, main, expectedId);
         String processArg = String.format("%s=analyses:[%s];action:%s;file:%s",
                 ResultProcessor.ID, id, action, file);
         Collections.addAll(args, "-a", processArg);
@@ -95,6 +114,29 @@ public final class Tests {
         }
     }
 
+    /**
+     * Builds the world for a specific test case, and runs given analyses
+     * (e.g., the prerequisites of the analysis to be tested) on it.
+     *
+     * @param main      the main class to be analyzed
+     * @param classPath where the main class is located
+     * @param analyses  the arguments of analyses to be executed
+     */
+    public static void buildWorld(String main, String classPath, String... analyses) {
+        List<String> args = new ArrayList<>();
+        args.add("-pp");
+        Collections.addAll(args, "-cp", classPath);
+        Collections.addAll(args, "-m", main);
+        for (String analysis : analyses) {
+            Collections.addAll(args, "-a", analysis);
+        }
+        if (analyses.length == 0) {
+            Main.buildWorld(args.toArray(new String[0]));
+        } else {
+            Main.main(args.toArray(new String[0]));
+        }
+    }
+
     public static void testPTA(String dir, String main, String... opts) {
         doTestPTA("pta", dir, main, opts);
     }
@@ -26,6 +26,8 @@ import org.junit.Test;
 import pascal.taie.analysis.Tests;
 import pascal.taie.analysis.dataflow.inter.InterConstantPropagation;
 
+import java.util.List;
+
 public class InterCPTest {
 
     private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
@@ -57,4 +59,46 @@ public class InterCPTest {
     public void testMultiIntArgs() {
         test("MultiIntArgs");
     }
+
+    @Test
+    public void testFibonacciDenseCPFact() {
+        Tests.test("Fibonacci", CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;dense-fact:true",
+                "-a", "cg=algorithm:cha");
+    }
+
+    void testSolver(String inputClass, String solver) {
+        Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;solver:" + solver,
+                "-a", "cg=algorithm:cha");
+    }
+
+    @Test
+    public void testSummarySolver() {
+        testSolver("Example", "summary");
+        testSolver("Reference", "summary");
+        testSolver("Fibonacci", "summary");
+        // the two calls of foo() have different constant arguments, which
+        // are analyzed in different contexts, thus their results are
+        // constants instead of NAC
+        Tests.testVariant("MultiIntArgs", CLASS_PATH, InterConstantPropagation.ID,
+                "summary", "edge-refine:false;alias-aware:false;solver:summary",
+                "-a", "cg=algorithm:cha");
+    }
+
+    @Test
+    public void testIDESolver() {
+        testSolver("Example", "ide");
+        testSolver("Reference", "ide");
+        testSolver("Fibonacci", "ide");
+        testSolver("MultiIntArgs", "ide");
+    }
+
+    @Test
+    public void testParallelSolver() {
+        for (String inputClass : List.of(
+                "Example", "Reference", "Fibonacci", "MultiIntArgs")) {
+            testSolver(inputClass, "parallel;parallelism:4");
+        }
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.inter.ifds.IDESolver;
+import pascal.taie.analysis.dataflow.inter.ifds.IFDSSolver;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.List;
+
+public class IFDSSolverTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
+
+    /**
+     * Solves the facts of {@link IDEConstantPropagation} by
+     * {@link IFDSSolver}, and compares them with the facts
+     * which have values given by {@link IDESolver}.
+     */
+    @Test
+    public void testFactsOfIDEProblem() {
+        for (String main : List.of("Example", "Reference", "Fibonacci", "MultiIntArgs")) {
+            Tests.buildWorld(main, CLASS_PATH, "cg=algorithm:cha", ICFGBuilder.ID);
+            ICFG<JMethod, Stmt> icfg = World.get().getResult(ICFGBuilder.ID);
+            IDEConstantPropagation problem = new IDEConstantPropagation(icfg,
+                    new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID)));
+            IFDSSolver<JMethod, Stmt, Var> ifdsSolver = new IFDSSolver<>(problem, icfg);
+            ifdsSolver.solve();
+            IDESolver<JMethod, Stmt, Var, Value> ideSolver = problem.solve();
+            for (Stmt stmt : icfg) {
+                Assert.assertEquals(main + ": " + stmt,
+                        ideSolver.getValues(stmt).keySet(),
+                        ifdsSolver.getFacts(stmt));
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.cs;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
+import pascal.taie.bench.BenchmarkWorld;
+import pascal.taie.bench.SyntheticPrograms;
+import pascal.taie.config.AnalysisOptions;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the solver of context-sensitive pointer analysis.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4G")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CSSolverBenchmark {
+
+    @Param({"TwoObject", "Array", "InstanceField", "synthetic-200", "synthetic-2000"})
+    public String program;
+
+    @Param({"ci", "2-obj", "2-call"})
+    public String cs;
+
+    @Param({"hybrid", "bit"})
+    public String pts;
+
+    private AnalysisOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkWorld.build("src/test/resources/pta/cspta", program,
+                SyntheticPrograms.Kind.POINTER);
+        Map<String, Object> opts = new HashMap<>();
+        opts.put("cs", cs);
+        opts.put("pts", pts);
+        opts.put("merge-string-constants", false);
+        opts.put("merge-string-objects", false);
+        opts.put("merge-string-builders", false);
+        opts.put("merge-exception-objects", true);
+        options = new AnalysisOptions(opts);
+    }
+
+    @Benchmark
+    public PointerAnalysisResult solve() {
+        Solver solver = new Solver(options,
+                new AllocationSiteBasedModel(options),
+                CSPTA.getContextSelector(cs));
+        solver.solve();
+        return solver.getResult();
+    }
+}
@@ -49,11 +49,25 @@ public final class Tests {
     private static final boolean DUMP_IR = true;
 
     public static void testCSPTA(String dir, String main, String... opts) {
-        doTestPTA("cspta", dir, main, opts);
+        doTestPTA("cspta", "cspta", dir, main, opts);
     }
 
-    private static void doTestPTA(
-            String id, String dir, String main, String... opts) {
+    /**
+     * Like {@link #testCSPTA(String, String, String...)}, but compares
+     * the result with the expected file of given variant, i.e.,
+     * {@code <main>-cspta-<variant>-expected.txt}. This is for the
+     * options which change the result.
+     */
+    public static void testCSPTAVariant(
+            String dir, String main, String variant, String... opts) {
+        doTestPTA("cspta", "cspta-" + variant, dir, main, opts);
+    }
+
+    /**
+     * @param expectedId analysis ID used in the name of the expected file
+     */
+    private static void doTestPTA(String id, String expectedId,
+                                  String dir, String main, String... opts) {
         List<String> args = new ArrayList<>();
         args.add("-pp");
         String classPath = "src/test/resources/pta/" + dir;
@@ -67,7 +81,7 @@ public final class Tests {
         ptaArgs.add("implicit-entries:false");
         String action = GENERATE_EXPECTED_RESULTS ? "dump" : "compare";
         ptaArgs.add("action:" + action);
-        String file = getExpectedFile(classPath, main, id);
+        String file = getExpectedFile(classPath, main, expectedId);
         ptaArgs.add("file:" + file);
         boolean specifyOnlyApp = false;
         for (String opt : opts) {
@@ -0,0 +1,227 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.context;
+
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hash-consed contexts. The contexts are nodes of a trie, where the
+ * parent of a context is the context without its last element.
+ * Each distinct context is created only once by its {@link Factory},
+ * so that contexts can be compared by identity, and their hash codes
+ * are computed only once at creation. Each context also carries a
+ * unique id, by which context-sensitive elements can be looked up
+ * without hashing the context.
+ *
+ * @param <T> type of context elements
+ */
+public class TrieContext<T> implements Context {
+
+    /**
+     * Parent of this context, null if this context is empty.
+     */
+    private final TrieContext<T> parent;
+
+    /**
+     * The last element of this context.
+     */
+    private final T elem;
+
+    private final int length;
+
+    private final int hashCode;
+
+    /**
+     * Counter for assigning {@link #id}.
+     */
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    private final int id = counter.getAndIncrement();
+
+    /**
+     * Map from context elements to the children of this context.
+     * Created lazily, as contexts of maximum length have no children.
+     */
+    private volatile ConcurrentMap<T, TrieContext<T>> children;
+
+    private TrieContext(TrieContext<T> parent, T elem) {
+        this.parent = parent;
+        this.elem = elem;
+        if (parent == null) {
+            length = 0;
+            hashCode = 1;
+        } else {
+            length = parent.length + 1;
+            // consistent with hash code of List
+            hashCode = 31 * parent.hashCode + elem.hashCode();
+        }
+    }
+
+    /**
+     * @return the context which appends elem to this context.
+     */
+    private TrieContext<T> getChild(T elem) {
+        ConcurrentMap<T, TrieContext<T>> map = children;
+        if (map == null) {
+            synchronized (this) {
+                map = children;
+                if (map == null) {
+                    children = map = Maps.newConcurrentMap();
+                }
+            }
+        }
+        return map.computeIfAbsent(elem, e -> new TrieContext<>(this, e));
+    }
+
+    /**
+     * @return the id of this context, which is unique among all
+     * trie contexts.
+     */
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public Object getElementAt(int i) {
+        if (i < 0 || i >= length) {
+            throw new AnalysisException(
+                    "Context " + this + " doesn't have " + i + "-th element");
+        }
+        TrieContext<T> c = this;
+        for (int j = length - 1; j > i; --j) {
+            c = c.parent;
+        }
+        return c.elem;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    // equals() is inherited from Object, i.e., identity comparison,
+    // as each distinct context is unique
+
+    @Override
+    public String toString() {
+        // consistent with toString() of List
+        StringBuilder sb = new StringBuilder("]");
+        for (TrieContext<T> c = this; c.parent != null; c = c.parent) {
+            sb.insert(0, c.elem);
+            if (c.parent.parent != null) {
+                sb.insert(0, ", ");
+            }
+        }
+        return sb.insert(0, '[').toString();
+    }
+
+    /**
+     * Creates and interns the contexts. Contexts created by the same
+     * factory are equal if and only if they are identical.
+     * This class is thread-safe.
+     *
+     * @param <T> type of context elements
+     */
+    public static class Factory<T> {
+
+        private final TrieContext<T> emptyContext = new TrieContext<>(null, null);
+
+        /**
+         * @return the empty context.
+         */
+        public Context getEmptyContext() {
+            return emptyContext;
+        }
+
+        /**
+         * @return the context that consists of given context elements.
+         */
+        @SafeVarargs
+        public final Context make(T... elements) {
+            TrieContext<T> context = emptyContext;
+            for (T e : elements) {
+                context = context.getChild(e);
+            }
+            return context;
+        }
+
+        /**
+         * @return the context which appends elem to parent, and
+         * keeps at most the last limit elements.
+         */
+        public Context append(Context parent, T elem, int limit) {
+            TrieContext<T> p = cast(parent);
+            if (p.length < limit) {
+                return p.getChild(elem);
+            }
+            // drop the first elements of parent
+            return makeLastK(p, limit - 1).getChild(elem);
+        }
+
+        /**
+         * @return the context which consists of the last k elements
+         * of given context.
+         */
+        public Context makeLastK(Context context, int k) {
+            return makeLastK(cast(context), k);
+        }
+
+        /**
+         * Converts a context given to this factory back to a trie node.
+         */
+        // the selectors only pass contexts created by the same factory,
+        // whose elements are of type T
+        @SuppressWarnings("unchecked")
+        private TrieContext<T> cast(Context context) {
+            return (TrieContext<T>) context;
+        }
+
+        private TrieContext<T> makeLastK(TrieContext<T> context, int k) {
+            if (context.length <= k) {
+                return context;
+            }
+            Object[] elems = new Object[k];
+            TrieContext<T> c = context;
+            for (int i = k - 1; i >= 0; --i) {
+                elems[i] = c.elem;
+                c = c.parent;
+            }
+            TrieContext<T> result = emptyContext;
+            for (Object e : elems) {
+                @SuppressWarnings("unchecked")
+                T elem = (T) e;
+                result = result.getChild(elem);
+            }
+            return result;
+        }
+    }
+}
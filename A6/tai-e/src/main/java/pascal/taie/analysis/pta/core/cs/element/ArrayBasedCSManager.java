@@ -0,0 +1,392 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.TrieContext;
+import pascal.taie.analysis.pta.core.heap.NewObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.LongKeyMap;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import static pascal.taie.util.collection.LongKeyMap.key;
+
+/**
+ * Manages context-sensitive elements and pointers by arrays.
+ * <p>
+ * The elements are looked up by their dense numbers, i.e.,
+ * {@link TrieContext#getId()}, {@link JMethod#getIndex()},
+ * {@link JField#getIndex()} and {@link CSObj#getIndex()}, and the indexes
+ * of variables and statements in their containing methods, so that
+ * a lookup hashes no objects. A context-sensitive element is found in
+ * a table with primitive keys combined from the numbers of its context
+ * and its element. Variables, call sites and allocated objects are found
+ * by the numbers of their contexts and containing methods, and then by
+ * their indexes in an array.
+ * <p>
+ * Contexts other than {@link TrieContext}s and objects not allocated by
+ * {@link New} statements are rare, and they are numbered by hashing.
+ */
+public class ArrayBasedCSManager implements CSManager {
+
+    /**
+     * Numbers of contexts other than {@link TrieContext}s.
+     */
+    private final Numberer<Context> otherContexts = new Numberer<>();
+
+    /**
+     * Numbers of objects which are not allocated by {@link New} statements.
+     */
+    private final Numberer<Obj> otherObjs = new Numberer<>();
+
+    /**
+     * Map from (context, method) to the context-sensitive variables
+     * of the method under the context, indexed by {@link Var#getIndex()}.
+     */
+    private final LongKeyMap<CSVar[]> vars = new LongKeyMap<>();
+
+    private final MultiMap<Var, CSVar> csVarsOf = Maps.newMultiMap();
+
+    private final ObjManager objManager = new ObjManager();
+
+    /**
+     * Map from (context, method) to the context-sensitive call sites
+     * in the method under the context, indexed by {@link Invoke#getIndex()}.
+     */
+    private final LongKeyMap<CSCallSite[]> callSites = new LongKeyMap<>();
+
+    private final LongKeyMap<CSMethod> methods = new LongKeyMap<>();
+
+    private final LongKeyMap<StaticField> staticFields = new LongKeyMap<>();
+
+    private final List<StaticField> staticFieldList = new ArrayList<>();
+
+    private final LongKeyMap<InstanceField> instanceFields = new LongKeyMap<>();
+
+    /**
+     * arrayIndexes[i] is the array index pointer of the i-th object.
+     */
+    private ArrayIndex[] arrayIndexes = new ArrayIndex[1024];
+
+    private final List<ArrayIndex> arrayIndexList = new ArrayList<>();
+
+    private final PointsToSetFactory ptsFactory;
+
+    /**
+     * Maps each variable to the representative of its pointer-equivalence
+     * class. Equivalent variables share the same points-to set.
+     */
+    private final Function<Var, Var> varReps;
+
+    public ArrayBasedCSManager() {
+        this(null);
+    }
+
+    /**
+     * @param ptsKind kind of points-to sets associated with the pointers,
+     *                see {@link PointsToSetFactory}.
+     */
+    public ArrayBasedCSManager(String ptsKind) {
+        this(ptsKind, Function.identity());
+    }
+
+    /**
+     * @param ptsKind kind of points-to sets associated with the pointers,
+     *                see {@link PointsToSetFactory}.
+     * @param varReps maps each variable to the representative of its
+     *                pointer-equivalence class.
+     */
+    public ArrayBasedCSManager(String ptsKind, Function<Var, Var> varReps) {
+        this.ptsFactory = new PointsToSetFactory(ptsKind, objManager);
+        this.varReps = varReps;
+    }
+
+    @Override
+    public CSVar getCSVar(Context context, Var var) {
+        long key = key(getId(context), var.getMethod().getIndex());
+        int index = var.getIndex();
+        CSVar[] csVars = getArray(vars, key, index, CSVar[]::new);
+        CSVar csVar = csVars[index];
+        if (csVar == null) {
+            csVar = new CSVar(var, context);
+            Var rep = varReps.apply(var);
+            if (rep != var) {
+                // rep is in the same method, thus it is stored in csVars
+                // unless the array is grown by the recursive call
+                csVar.setPointsToSet(getCSVar(context, rep).getPointsToSet());
+                csVars = vars.get(key);
+            } else {
+                initializePointsToSet(csVar);
+            }
+            csVars[index] = csVar;
+            csVarsOf.put(var, csVar);
+        }
+        return csVar;
+    }
+
+    @Override
+    public CSObj getCSObj(Context heapContext, Obj obj) {
+        return objManager.getCSObj(heapContext, obj);
+    }
+
+    @Override
+    public CSCallSite getCSCallSite(Context context, Invoke callSite) {
+        long key = key(getId(context), callSite.getContainer().getIndex());
+        int index = callSite.getIndex();
+        CSCallSite[] csCallSites = getArray(callSites, key, index, CSCallSite[]::new);
+        CSCallSite csCallSite = csCallSites[index];
+        if (csCallSite == null) {
+            csCallSite = new CSCallSite(callSite, context);
+            csCallSites[index] = csCallSite;
+        }
+        return csCallSite;
+    }
+
+    @Override
+    public CSMethod getCSMethod(Context context, JMethod method) {
+        long key = key(getId(context), method.getIndex());
+        return methods.computeIfAbsent(key, k -> new CSMethod(method, context));
+    }
+
+    @Override
+    public StaticField getStaticField(JField field) {
+        StaticField staticField = staticFields.get(field.getIndex());
+        if (staticField == null) {
+            staticField = initializePointsToSet(new StaticField(field));
+            staticFields.put(field.getIndex(), staticField);
+            staticFieldList.add(staticField);
+        }
+        return staticField;
+    }
+
+    @Override
+    public InstanceField getInstanceField(CSObj base, JField field) {
+        long key = key(base.getIndex(), field.getIndex());
+        return instanceFields.computeIfAbsent(key,
+                k -> initializePointsToSet(new InstanceField(base, field)));
+    }
+
+    @Override
+    public ArrayIndex getArrayIndex(CSObj array) {
+        int index = array.getIndex();
+        if (index >= arrayIndexes.length) {
+            arrayIndexes = Arrays.copyOf(arrayIndexes,
+                    Math.max(index + 1, arrayIndexes.length * 2));
+        }
+        ArrayIndex arrayIndex = arrayIndexes[index];
+        if (arrayIndex == null) {
+            arrayIndex = initializePointsToSet(new ArrayIndex(array));
+            arrayIndexes[index] = arrayIndex;
+            arrayIndexList.add(arrayIndex);
+        }
+        return arrayIndex;
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return csVarsOf.keySet();
+    }
+
+    @Override
+    public Collection<CSVar> getCSVarsOf(Var var) {
+        return csVarsOf.get(var);
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        return csVarsOf.values();
+    }
+
+    @Override
+    public Collection<CSObj> getObjects() {
+        return objManager.getObjects();
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        return Collections.unmodifiableList(staticFieldList);
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        return instanceFields.values();
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        return Collections.unmodifiableList(arrayIndexList);
+    }
+
+    @Override
+    public Indexer<CSObj> getObjectIndexer() {
+        return objManager;
+    }
+
+    @Override
+    public PointsToSetFactory getPointsToSetFactory() {
+        return ptsFactory;
+    }
+
+    /**
+     * @return the number of given context.
+     */
+    private int getId(Context context) {
+        if (context instanceof TrieContext<?> trieContext) {
+            return trieContext.getId();
+        }
+        // negative numbers never collide with ids of TrieContexts
+        return -1 - otherContexts.getId(context);
+    }
+
+    /**
+     * @return the array associated with key in given map, which is
+     * created or grown to hold the element at index.
+     */
+    private static <T> T[] getArray(LongKeyMap<T[]> map, long key, int index,
+                                    IntFunction<T[]> arrayFactory) {
+        T[] array = map.get(key);
+        if (array == null || index >= array.length) {
+            T[] newArray = arrayFactory.apply(
+                    Math.max(index + 1, array == null ? 8 : array.length * 2));
+            if (array != null) {
+                System.arraycopy(array, 0, newArray, 0, array.length);
+            }
+            array = newArray;
+            map.put(key, array);
+        }
+        return array;
+    }
+
+    private <P extends Pointer> P initializePointsToSet(P pointer) {
+        pointer.setPointsToSet(ptsFactory.make());
+        return pointer;
+    }
+
+    /**
+     * Numbers objects densely in the order of their first queries.
+     */
+    private static class Numberer<T> {
+
+        private final Map<T, Integer> ids = Maps.newMap();
+
+        private int getId(T o) {
+            Integer id = ids.get(o);
+            if (id == null) {
+                id = ids.size();
+                ids.put(o, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Creates context-sensitive objects and numbers them densely
+     * in the order of creation.
+     */
+    private class ObjManager implements Indexer<CSObj> {
+
+        /**
+         * Map from (context, method) to the context-sensitive objects
+         * allocated in the method, indexed by {@link New#getIndex()}.
+         */
+        private final LongKeyMap<CSObj[]> newObjs = new LongKeyMap<>();
+
+        private final LongKeyMap<CSObj> otherObjMap = new LongKeyMap<>();
+
+        /**
+         * Array of all created objects, the i-th object has index i.
+         * See the same field of {@link MapBasedCSManager} for
+         * the reason why it is volatile.
+         */
+        private volatile CSObj[] objArray = new CSObj[1024];
+
+        private int size = 0;
+
+        private CSObj getCSObj(Context heapContext, Obj obj) {
+            int contextId = getId(heapContext);
+            if (obj instanceof NewObj newObj) {
+                New alloc = newObj.getAllocation();
+                long key = key(contextId, alloc.getContainer().getIndex());
+                int index = alloc.getIndex();
+                CSObj[] csObjs = getArray(newObjs, key, index, CSObj[]::new);
+                CSObj csObj = csObjs[index];
+                if (csObj == null) {
+                    csObj = newCSObj(heapContext, obj);
+                    csObjs[index] = csObj;
+                }
+                return csObj;
+            }
+            long key = key(contextId, otherObjs.getId(obj));
+            CSObj csObj = otherObjMap.get(key);
+            if (csObj == null) {
+                csObj = newCSObj(heapContext, obj);
+                otherObjMap.put(key, csObj);
+            }
+            return csObj;
+        }
+
+        private CSObj newCSObj(Context heapContext, Obj obj) {
+            CSObj csObj = new CSObj(obj, heapContext, size);
+            CSObj[] array = objArray;
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2);
+            }
+            array[size++] = csObj;
+            objArray = array;
+            return csObj;
+        }
+
+        private Collection<CSObj> getObjects() {
+            return Collections.unmodifiableList(
+                    Arrays.asList(objArray).subList(0, size));
+        }
+
+        @Override
+        public int getIndex(CSObj o) {
+            return o.getIndex();
+        }
+
+        @Override
+        public CSObj getObject(int index) {
+            return objArray[index];
+        }
+    }
+}
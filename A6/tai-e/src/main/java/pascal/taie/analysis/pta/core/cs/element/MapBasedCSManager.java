@@ -0,0 +1,241 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.TwoKeyMap;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Manages context-sensitive elements and pointers by maps.
+ */
+public class MapBasedCSManager implements CSManager {
+
+    private final TwoKeyMap<Var, Context, CSVar> vars = Maps.newTwoKeyMap();
+
+    private final ObjManager objManager = new ObjManager();
+
+    private final TwoKeyMap<Invoke, Context, CSCallSite> callSites = Maps.newTwoKeyMap();
+
+    private final TwoKeyMap<JMethod, Context, CSMethod> methods = Maps.newTwoKeyMap();
+
+    private final Map<JField, StaticField> staticFields = Maps.newMap();
+
+    private final TwoKeyMap<CSObj, JField, InstanceField> instanceFields = Maps.newTwoKeyMap();
+
+    private final Map<CSObj, ArrayIndex> arrayIndexes = Maps.newMap();
+
+    private final PointsToSetFactory ptsFactory;
+
+    /**
+     * Maps each variable to the representative of its pointer-equivalence
+     * class. Equivalent variables share the same points-to set.
+     */
+    private final Function<Var, Var> varReps;
+
+    public MapBasedCSManager() {
+        this(null);
+    }
+
+    /**
+     * @param ptsKind kind of points-to sets associated with the pointers,
+     *                see {@link PointsToSetFactory}.
+     */
+    public MapBasedCSManager(String ptsKind) {
+        this(ptsKind, Function.identity());
+    }
+
+    /**
+     * @param ptsKind kind of points-to sets associated with the pointers,
+     *                see {@link PointsToSetFactory}.
+     * @param varReps maps each variable to the representative of its
+     *                pointer-equivalence class.
+     */
+    public MapBasedCSManager(String ptsKind, Function<Var, Var> varReps) {
+        this.ptsFactory = new PointsToSetFactory(ptsKind, objManager);
+        this.varReps = varReps;
+    }
+
+    @Override
+    public CSVar getCSVar(Context context, Var var) {
+        Var rep = varReps.apply(var);
+        if (rep != var) {
+            PointsToSet repPts = getCSVar(context, rep).getPointsToSet();
+            return vars.computeIfAbsent(var, context, (v, c) -> {
+                CSVar csVar = new CSVar(v, c);
+                csVar.setPointsToSet(repPts);
+                return csVar;
+            });
+        }
+        return vars.computeIfAbsent(var, context,
+                (v, c) -> initializePointsToSet(new CSVar(v, c)));
+    }
+
+    @Override
+    public CSObj getCSObj(Context heapContext, Obj obj) {
+        return objManager.getCSObj(heapContext, obj);
+    }
+
+    @Override
+    public CSCallSite getCSCallSite(Context context, Invoke callSite) {
+        return callSites.computeIfAbsent(callSite, context, CSCallSite::new);
+    }
+
+    @Override
+    public CSMethod getCSMethod(Context context, JMethod method) {
+        return methods.computeIfAbsent(method, context, CSMethod::new);
+    }
+
+    @Override
+    public StaticField getStaticField(JField field) {
+        return staticFields.computeIfAbsent(field,
+                f -> initializePointsToSet(new StaticField(f)));
+    }
+
+    @Override
+    public InstanceField getInstanceField(CSObj base, JField field) {
+        return instanceFields.computeIfAbsent(base, field,
+                (b, f) -> initializePointsToSet(new InstanceField(b, f)));
+    }
+
+    @Override
+    public ArrayIndex getArrayIndex(CSObj array) {
+        return arrayIndexes.computeIfAbsent(array,
+                a -> initializePointsToSet(new ArrayIndex(a)));
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return vars.keySet();
+    }
+
+    @Override
+    public Collection<CSVar> getCSVarsOf(Var var) {
+        Map<Context, CSVar> csVars = vars.get(var);
+        return csVars != null ? csVars.values() : Set.of();
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        return vars.values();
+    }
+
+    @Override
+    public Collection<CSObj> getObjects() {
+        return objManager.getObjects();
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        return Collections.unmodifiableCollection(staticFields.values());
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        return instanceFields.values();
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        return Collections.unmodifiableCollection(arrayIndexes.values());
+    }
+
+    @Override
+    public Indexer<CSObj> getObjectIndexer() {
+        return objManager;
+    }
+
+    @Override
+    public PointsToSetFactory getPointsToSetFactory() {
+        return ptsFactory;
+    }
+
+    private <P extends Pointer> P initializePointsToSet(P pointer) {
+        pointer.setPointsToSet(ptsFactory.make());
+        return pointer;
+    }
+
+    /**
+     * Creates context-sensitive objects and numbers them densely
+     * in the order of creation.
+     */
+    private static class ObjManager implements Indexer<CSObj> {
+
+        private final TwoKeyMap<Obj, Context, CSObj> objMap = Maps.newTwoKeyMap();
+
+        /**
+         * Array of all created objects, the i-th object has index i.
+         * The array is re-published via this volatile field after each
+         * creation, so that {@link #getObject(int)} can be called
+         * without locking when objects are created by multiple threads
+         * (under external synchronization).
+         */
+        private volatile CSObj[] objs = new CSObj[1024];
+
+        private int size = 0;
+
+        private CSObj getCSObj(Context heapContext, Obj obj) {
+            return objMap.computeIfAbsent(obj, heapContext, (o, c) -> {
+                CSObj csObj = new CSObj(o, c, size);
+                CSObj[] array = objs;
+                if (size == array.length) {
+                    array = Arrays.copyOf(array, size * 2);
+                }
+                array[size++] = csObj;
+                objs = array;
+                return csObj;
+            });
+        }
+
+        private Collection<CSObj> getObjects() {
+            return Collections.unmodifiableList(
+                    Arrays.asList(objs).subList(0, size));
+        }
+
+        @Override
+        public int getIndex(CSObj o) {
+            return o.getIndex();
+        }
+
+        @Override
+        public CSObj getObject(int index) {
+            return objs[index];
+        }
+    }
+}
@@ -56,10 +56,14 @@ public class CSPTA extends ProgramAnalysis {
         solver.solve();
         PointerAnalysisResult result = solver.getResult();
         ResultProcessor.process(options, result);
+        // metrics are dumped next to the points-to set dump (if any)
+        String ptsFile = "dump".equals(options.getString("action"))
+                ? options.getString("file") : null;
+        solver.getMetrics().dump(ptsFile);
         return result;
     }
 
-    private static ContextSelector getContextSelector(String cs) {
+    static ContextSelector getContextSelector(String cs) {
         if (cs.equals("ci")) {
             return new CISelector();
         } else {
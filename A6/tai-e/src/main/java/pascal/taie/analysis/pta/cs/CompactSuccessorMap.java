@@ -0,0 +1,377 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.cs;
+
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.util.collection.AbstractMultiMap;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact storage of PFG edges.
+ * <p>
+ * Each pointer is numbered when it first appears in an edge, and the
+ * successors of a pointer are stored as a growable int array of their
+ * numbers. For the pointers whose out-degree exceeds
+ * {@link #HASH_THRESHOLD}, an open-addressing hash table of the
+ * successor numbers is kept for checking duplicate edges; for the rest,
+ * the array is scanned directly. This costs about 4 bytes per edge
+ * (plus up to 8 bytes for high-degree pointers), instead of an entry
+ * object per edge in hash-based multimaps.
+ * <p>
+ * This class is not thread-safe.
+ */
+class CompactSuccessorMap extends AbstractMultiMap<Pointer, Pointer> {
+
+    /**
+     * Out-degree above which a hash table is used for deduplication.
+     */
+    private static final int HASH_THRESHOLD = 16;
+
+    private static final int[] EMPTY = {};
+
+    /**
+     * Map from pointers to their numbers.
+     */
+    private final Map<Pointer, Integer> ids = Maps.newMap();
+
+    /**
+     * pointers[i] is the pointer whose number is i.
+     */
+    private final List<Pointer> pointers = new ArrayList<>();
+
+    /**
+     * succs[i][0..degrees[i]) are the successors of the i-th pointer.
+     */
+    private int[][] succs = new int[1024][];
+
+    private int[] degrees = new int[1024];
+
+    /**
+     * tables[i] is the hash table of the successors of the i-th pointer,
+     * or null if its out-degree does not exceed HASH_THRESHOLD.
+     * The table stores number + 1, and 0 represents a free slot.
+     */
+    private int[][] tables = new int[1024][];
+
+    /**
+     * Number of edges.
+     */
+    private int size = 0;
+
+    @Override
+    public boolean contains(Pointer source, Pointer target) {
+        Integer s = ids.get(source);
+        Integer t = ids.get(target);
+        return s != null && t != null && containsId(s, t);
+    }
+
+    @Override
+    public boolean containsKey(Pointer pointer) {
+        Integer id = ids.get(pointer);
+        return id != null && degrees[id] > 0;
+    }
+
+    @Override
+    public Set<Pointer> get(Pointer pointer) {
+        Integer id = ids.get(pointer);
+        return id == null ? Set.of() : new SuccessorSet(id);
+    }
+
+    @Override
+    public boolean put(Pointer source, Pointer target) {
+        int s = getId(source);
+        int t = getId(target);
+        if (containsId(s, t)) {
+            return false;
+        }
+        int degree = degrees[s];
+        int[] array = succs[s];
+        if (degree == array.length) {
+            array = Arrays.copyOf(array, Math.max(4, degree + (degree >> 1)));
+            succs[s] = array;
+        }
+        array[degree] = t;
+        degrees[s] = ++degree;
+        if (tables[s] != null) {
+            insert(s, t);
+        } else if (degree > HASH_THRESHOLD) {
+            rehash(s);
+        }
+        ++size;
+        return true;
+    }
+
+    @Override
+    public boolean putAll(Pointer source, Collection<? extends Pointer> targets) {
+        boolean changed = false;
+        for (Pointer target : targets) {
+            changed |= put(source, target);
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean putAll(MultiMap<Pointer, Pointer> multiMap) {
+        boolean[] changed = {false};
+        multiMap.forEach((s, t) -> changed[0] |= put(s, t));
+        return changed[0];
+    }
+
+    @Override
+    public boolean remove(Pointer source, Pointer target) {
+        return removeAll(source, Set.of(target));
+    }
+
+    @Override
+    public boolean removeAll(Pointer pointer) {
+        Integer id = ids.get(pointer);
+        if (id == null || degrees[id] == 0) {
+            return false;
+        }
+        size -= degrees[id];
+        succs[id] = EMPTY;
+        degrees[id] = 0;
+        tables[id] = null;
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Pointer source, Collection<? extends Pointer> targets) {
+        Integer id = ids.get(source);
+        if (id == null || degrees[id] == 0) {
+            return false;
+        }
+        int[] array = succs[id];
+        int degree = degrees[id];
+        int newDegree = 0;
+        for (int i = 0; i < degree; ++i) {
+            if (!targets.contains(pointers.get(array[i]))) {
+                array[newDegree++] = array[i];
+            }
+        }
+        if (newDegree == degree) {
+            return false;
+        }
+        size -= degree - newDegree;
+        degrees[id] = newDegree;
+        tables[id] = null;
+        if (newDegree > HASH_THRESHOLD) {
+            rehash(id);
+        }
+        return true;
+    }
+
+    @Override
+    public Set<Pointer> keySet() {
+        Set<Pointer> keys = Sets.newHybridSet();
+        for (int i = 0; i < pointers.size(); ++i) {
+            if (degrees[i] > 0) {
+                keys.add(pointers.get(i));
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    protected Iterator<Map.Entry<Pointer, Pointer>> entryIterator() {
+        List<Map.Entry<Pointer, Pointer>> entries = new ArrayList<>(size);
+        forEach((s, t) -> entries.add(Map.entry(s, t)));
+        return entries.iterator();
+    }
+
+    @Override
+    public void forEach(BiConsumer<Pointer, Pointer> action) {
+        for (int i = 0; i < pointers.size(); ++i) {
+            Pointer source = pointers.get(i);
+            int[] array = succs[i];
+            for (int j = 0; j < degrees[i]; ++j) {
+                action.accept(source, pointers.get(array[j]));
+            }
+        }
+    }
+
+    @Override
+    public void forEachSet(BiConsumer<Pointer, Set<Pointer>> action) {
+        for (int i = 0; i < pointers.size(); ++i) {
+            if (degrees[i] > 0) {
+                action.accept(pointers.get(i), new SuccessorSet(i));
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        ids.clear();
+        pointers.clear();
+        Arrays.fill(succs, null);
+        Arrays.fill(degrees, 0);
+        Arrays.fill(tables, null);
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int getId(Pointer pointer) {
+        Integer id = ids.get(pointer);
+        if (id == null) {
+            id = pointers.size();
+            ids.put(pointer, id);
+            pointers.add(pointer);
+            if (id == succs.length) {
+                int length = id * 2;
+                succs = Arrays.copyOf(succs, length);
+                degrees = Arrays.copyOf(degrees, length);
+                tables = Arrays.copyOf(tables, length);
+            }
+            succs[id] = EMPTY;
+        }
+        return id;
+    }
+
+    private boolean containsId(int source, int target) {
+        int[] table = tables[source];
+        if (table != null) {
+            int mask = table.length - 1;
+            for (int i = hash(target) & mask; table[i] != 0; i = (i + 1) & mask) {
+                if (table[i] == target + 1) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        int[] array = succs[source];
+        for (int i = 0; i < degrees[source]; ++i) {
+            if (array[i] == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inserts target into the hash table of source,
+     * grows the table when it is half full.
+     */
+    private void insert(int source, int target) {
+        int[] table = tables[source];
+        if (degrees[source] * 2 > table.length) {
+            rehash(source);
+            return;
+        }
+        int mask = table.length - 1;
+        int i = hash(target) & mask;
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = target + 1;
+    }
+
+    /**
+     * Rebuilds the hash table of source from its successor array.
+     */
+    private void rehash(int source) {
+        int degree = degrees[source];
+        int[] table = new int[Integer.highestOneBit(degree) << 2];
+        int mask = table.length - 1;
+        int[] array = succs[source];
+        for (int j = 0; j < degree; ++j) {
+            int i = hash(array[j]) & mask;
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = array[j] + 1;
+        }
+        tables[source] = table;
+    }
+
+    private static int hash(int id) {
+        return id * 0x9E3779B9;
+    }
+
+    /**
+     * Live view of the successors of a pointer.
+     */
+    private class SuccessorSet extends AbstractSet<Pointer> {
+
+        private final int id;
+
+        private SuccessorSet(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            Integer target = o instanceof Pointer p ? ids.get(p) : null;
+            return target != null && containsId(id, target);
+        }
+
+        @Override
+        public Iterator<Pointer> iterator() {
+            // successors added during the iteration are also visited,
+            // as they are appended to the array
+            return new Iterator<>() {
+
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < degrees[id];
+                }
+
+                @Override
+                public Pointer next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return pointers.get(succs[id][next++]);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return degrees[id];
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return degrees[id] == 0;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.cs;
+
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Work list which can be accessed by multiple threads.
+ * <p>
+ * Like {@link WorkList}, each pointer has at most one pending entry,
+ * and the objects arriving later are merged into it. In addition,
+ * this work list counts the entries which are pending or being processed,
+ * so that the workers know when the analysis reaches the fixed point:
+ * a worker calls {@link #finish()} after processing each polled entry,
+ * and the analysis finishes when {@link #isFinished()} returns true.
+ * Workers which find no pending entry wait in {@link #awaitEntry()}
+ * until another worker adds an entry or the analysis finishes.
+ */
+class ConcurrentWorkList extends WorkList {
+
+    private final ConcurrentMap<Pointer, Delta> entries = Maps.newConcurrentMap();
+
+    /**
+     * Pointers which have pending entries, in insertion order.
+     */
+    private final Queue<Pointer> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of entries which are pending or being processed.
+     */
+    private final AtomicInteger unfinished = new AtomicInteger();
+
+    /**
+     * Number of pending entries.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Number of workers waiting in {@link #awaitEntry()}.
+     */
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Lock lock = new ReentrantLock();
+
+    /**
+     * Signaled when an entry is added, or when the analysis finishes
+     * or is aborted.
+     */
+    private final Condition changed = lock.newCondition();
+
+    private volatile boolean aborted = false;
+
+    ConcurrentWorkList(PointsToSetFactory ptsFactory) {
+        super(ptsFactory);
+    }
+
+    @Override
+    void addEntry(Pointer pointer, PointsToSet pointsToSet) {
+        Delta newDelta = new Delta(pointsToSet);
+        Delta delta = entries.compute(pointer, (p, d) -> {
+            if (d == null) {
+                return newDelta;
+            }
+            d.merge(pointsToSet);
+            return d;
+        });
+        if (delta == newDelta) {
+            // the caller is either the initializing thread or a worker
+            // which has not finished its entry, so the counter cannot
+            // drop to zero before this increment
+            unfinished.incrementAndGet();
+            size.incrementAndGet();
+            queue.add(pointer);
+            if (waiting.get() > 0) {
+                signal(false);
+            }
+        }
+    }
+
+    @Override
+    Entry pollEntry() {
+        Pointer pointer = queue.poll();
+        if (pointer == null) {
+            return null;
+        }
+        // each pointer in the queue has exactly one pending entry
+        Delta delta = entries.remove(pointer);
+        size.decrementAndGet();
+        return new Entry(pointer, delta.pts);
+    }
+
+    /**
+     * Polls a pending entry. If there is none but some entries are still
+     * being processed, waits until they add new entries or finish.
+     *
+     * @return the polled entry, or null if all entries have been
+     * processed or the analysis has been aborted.
+     */
+    Entry awaitEntry() {
+        while (true) {
+            Entry entry = pollEntry();
+            if (entry != null || isFinished() || aborted) {
+                return entry;
+            }
+            lock.lock();
+            waiting.incrementAndGet();
+            try {
+                // re-check after announcing the wait, so that
+                // an entry added meanwhile is not missed
+                while (queue.isEmpty() && !isFinished() && !aborted) {
+                    changed.awaitUninterruptibly();
+                }
+            } finally {
+                waiting.decrementAndGet();
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Wakes up all waiting workers and makes {@link #awaitEntry()}
+     * return null, e.g., when a worker has failed.
+     */
+    void abort() {
+        aborted = true;
+        signal(true);
+    }
+
+    private void signal(boolean all) {
+        lock.lock();
+        try {
+            if (all) {
+                changed.signalAll();
+            } else {
+                changed.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * Marks an entry polled from this work list as processed.
+     */
+    void finish() {
+        if (unfinished.decrementAndGet() == 0 && waiting.get() > 0) {
+            signal(true);
+        }
+    }
+
+    /**
+     * @return true if all entries added to this work list have
+     * been processed, otherwise false.
+     */
+    boolean isFinished() {
+        return unfinished.get() == 0;
+    }
+}
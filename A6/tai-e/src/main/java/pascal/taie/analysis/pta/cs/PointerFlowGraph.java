@@ -20,23 +20,63 @@
  * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
  */
 
+
 package pascal.taie.analysis.pta.cs;
 
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Represents pointer flow graph in context-sensitive pointer analysis.
+ * <p>
+ * Pointers in a cycle of the graph always have the same points-to set,
+ * so the graph supports collapsing such pointers into one representative
+ * pointer (see {@link #collapse(Set)}). All methods of this class accept
+ * both representatives and merged pointers, and the graph is always
+ * viewed in terms of the representatives.
  */
 class PointerFlowGraph {
 
     /**
      * Map from a pointer (node) to its successors in PFG.
      */
-    private final MultiMap<Pointer, Pointer> successors = Maps.newMultiMap();
+    private final MultiMap<Pointer, Pointer> successors;
+
+    /**
+     * Map from a merged pointer to the pointer which it is merged into.
+     * This map is empty unless some cycles have been collapsed.
+     */
+    private final Map<Pointer, Pointer> parents = Maps.newMap();
+
+    /**
+     * Map from a representative to all pointers merged into it
+     * (including itself).
+     */
+    private final MultiMap<Pointer, Pointer> members = Maps.newMultiMap();
+
+    PointerFlowGraph() {
+        this(Maps.newMultiMap());
+    }
+
+    /**
+     * @param successors the (empty) multimap which stores the edges of
+     *                   this PFG, e.g., a concurrent multimap for the PFG
+     *                   shared by multiple threads, or a
+     *                   {@link CompactSuccessorMap} for large PFGs.
+     */
+    PointerFlowGraph(MultiMap<Pointer, Pointer> successors) {
+        this.successors = successors;
+    }
 
     /**
      * Adds an edge (source -> target) to this PFG.
@@ -45,13 +85,162 @@ class PointerFlowGraph {
      * otherwise false.
      */
     boolean addEdge(Pointer source, Pointer target) {
-        return successors.put(source, target);
+        Pointer sourceRep = getRep(source);
+        Pointer targetRep = getRep(target);
+        return sourceRep != targetRep && successors.put(sourceRep, targetRep);
     }
 
     /**
      * @return successors of given pointer in the PFG.
      */
     Set<Pointer> getSuccsOf(Pointer pointer) {
-        return successors.get(pointer);
+        if (parents.isEmpty()) {
+            return successors.get(pointer);
+        }
+        Pointer rep = getRep(pointer);
+        Set<Pointer> succs = successors.get(rep);
+        for (Pointer succ : succs) {
+            if (parents.containsKey(succ)) {
+                // some successors have been merged, replace them by
+                // their representatives
+                Set<Pointer> newSuccs = Sets.newHybridSet();
+                for (Pointer s : succs) {
+                    Pointer r = getRep(s);
+                    if (r != rep) {
+                        newSuccs.add(r);
+                    }
+                }
+                successors.removeAll(rep);
+                successors.putAll(rep, newSuccs);
+                return successors.get(rep);
+            }
+        }
+        return succs;
+    }
+
+    /**
+     * @return the representative of given pointer. If the pointer
+     * has not been merged, then returns itself.
+     */
+    Pointer getRep(Pointer pointer) {
+        Pointer rep = pointer;
+        Pointer parent;
+        while ((parent = parents.get(rep)) != null) {
+            rep = parent;
+        }
+        // path compression
+        while (pointer != rep) {
+            Pointer next = parents.put(pointer, rep);
+            pointer = next;
+        }
+        return rep;
+    }
+
+    /**
+     * @return all pointers which are merged with given pointer
+     * (including itself).
+     */
+    Set<Pointer> getMembersOf(Pointer pointer) {
+        if (parents.isEmpty()) {
+            return Collections.singleton(pointer);
+        }
+        Pointer rep = getRep(pointer);
+        Set<Pointer> ms = members.get(rep);
+        return ms.isEmpty() ? Collections.singleton(rep) : ms;
+    }
+
+    /**
+     * Searches a cycle which goes through edge (source -> target).
+     *
+     * @return the strongly connected component that contains
+     * both source and target, or an empty set if there is no such cycle.
+     */
+    Set<Pointer> findCycle(Pointer source, Pointer target) {
+        Pointer sourceRep = getRep(source);
+        Pointer start = getRep(target);
+        if (sourceRep == start) {
+            return Set.of();
+        }
+        // iterative Tarjan's algorithm, which only needs to find
+        // the SCC of the start node
+        Map<Pointer, Integer> dfn = Maps.newMap();
+        Map<Pointer, Integer> low = Maps.newMap();
+        Deque<Pointer> stack = new ArrayDeque<>();
+        Set<Pointer> onStack = Sets.newSet();
+        Deque<Frame> frames = new ArrayDeque<>();
+        int counter = 0;
+        dfn.put(start, counter);
+        low.put(start, counter++);
+        stack.push(start);
+        onStack.add(start);
+        frames.push(new Frame(start, getSuccsOf(start).iterator()));
+        while (!frames.isEmpty()) {
+            Frame frame = frames.peek();
+            Pointer node = frame.node();
+            if (frame.succs().hasNext()) {
+                Pointer succ = frame.succs().next();
+                if (!dfn.containsKey(succ)) {
+                    dfn.put(succ, counter);
+                    low.put(succ, counter++);
+                    stack.push(succ);
+                    onStack.add(succ);
+                    frames.push(new Frame(succ, getSuccsOf(succ).iterator()));
+                } else if (onStack.contains(succ)) {
+                    low.put(node, Math.min(low.get(node), dfn.get(succ)));
+                }
+            } else {
+                frames.pop();
+                if (!frames.isEmpty()) {
+                    Pointer parent = frames.peek().node();
+                    low.put(parent, Math.min(low.get(parent), low.get(node)));
+                }
+                if (low.get(node).equals(dfn.get(node))) {
+                    Set<Pointer> scc = Sets.newHybridSet();
+                    Pointer p;
+                    do {
+                        p = stack.pop();
+                        onStack.remove(p);
+                        scc.add(p);
+                    } while (p != node);
+                    if (node == start) {
+                        return scc.contains(sourceRep) ? scc : Set.of();
+                    }
+                }
+            }
+        }
+        return Set.of();
+    }
+
+    /**
+     * Collapses given strongly connected component into
+     * one representative pointer.
+     *
+     * @param scc representatives of the pointers to be merged.
+     * @return the representative of the merged pointers.
+     */
+    Pointer collapse(Set<Pointer> scc) {
+        Iterator<Pointer> it = scc.iterator();
+        Pointer rep = it.next();
+        members.put(rep, rep);
+        while (it.hasNext()) {
+            Pointer pointer = it.next();
+            parents.put(pointer, rep);
+            Set<Pointer> ms = members.get(pointer);
+            if (ms.isEmpty()) {
+                members.put(rep, pointer);
+            } else {
+                members.putAll(rep, List.copyOf(ms));
+                members.removeAll(pointer);
+            }
+            successors.putAll(rep, List.copyOf(successors.get(pointer)));
+            successors.removeAll(pointer);
+        }
+        // replaces merged successors and removes self-loops
+        successors.removeAll(rep, scc);
+        getSuccsOf(rep);
+        return rep;
+    }
+
+    private record Frame(Pointer node, Iterator<Pointer> succs) {
     }
 }
@@ -32,6 +32,7 @@ import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.PointerAnalysisResultImpl;
 import pascal.taie.analysis.pta.core.cs.CSCallGraph;
 import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.ArrayBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSManager;
@@ -48,8 +49,11 @@ import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.analysis.pta.pts.PointsToSetFactory;
 import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.proginfo.FieldRef;
 import pascal.taie.ir.stmt.Copy;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.LoadArray;
@@ -61,11 +65,35 @@ import pascal.taie.ir.stmt.StoreField;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.MapSetMultiMap;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Pair;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
 class Solver {
 
     private static final Logger logger = LogManager.getLogger(Solver.class);
 
+    /**
+     * Number of pointer locks in parallel solving, must be a power of 2.
+     */
+    private static final int POINTER_LOCKS = 1 << 12;
+
     private final AnalysisOptions options;
 
     private final HeapModel heapModel;
@@ -80,6 +108,49 @@ class Solver {
 
     private WorkList workList;
 
+    private PointsToSetFactory ptsFactory;
+
+    /**
+     * Whether collapse cycles in PFG during propagation.
+     */
+    private boolean cycleElimination;
+
+    /**
+     * PFG edges which have been checked by cycle detection.
+     */
+    private Set<Pair<Pointer, Pointer>> checkedEdges;
+
+    /**
+     * Pointer-equivalent variables found by offline pre-analysis,
+     * null if the pre-analysis is disabled.
+     */
+    private VarEquivalence varEquivalence;
+
+    /**
+     * Filters objects by the types of PFG edge targets,
+     * null if type filtering is disabled.
+     */
+    private TypeFilter typeFilter;
+
+    private SolverMetrics metrics;
+
+    /**
+     * Number of threads for solving, 1 means solving sequentially.
+     */
+    private int threads;
+
+    /**
+     * Lock striping for the pointers. The lock of a pointer serializes
+     * the updates to its points-to set and its out edges in PFG.
+     */
+    private Lock[] pointerLocks;
+
+    /**
+     * Lock for the call graph, heap model, IRs and the class hierarchy
+     * (used by resolution), which are not thread-safe.
+     */
+    private Lock structureLock;
+
     private PointerAnalysisResult result;
 
     Solver(AnalysisOptions options, HeapModel heapModel,
@@ -90,15 +161,75 @@ class Solver {
     }
 
     void solve() {
+        long start = System.nanoTime();
         initialize();
         analyze();
+        if (metrics.isEnabled()) {
+            List<Pointer> pointers = new ArrayList<>(csManager.getCSVars());
+            pointers.addAll(csManager.getStaticFields());
+            pointers.addAll(csManager.getInstanceFields());
+            pointers.addAll(csManager.getArrayIndexes());
+            metrics.recordResult(System.nanoTime() - start, pointers);
+        }
+    }
+
+    SolverMetrics getMetrics() {
+        return metrics;
     }
 
     private void initialize() {
-        csManager = new MapBasedCSManager();
+        metrics = new SolverMetrics(options.getBooleanOrDefault("metrics", false));
+        cycleElimination = options.getBooleanOrDefault("cycle-elimination", false);
+        boolean pointerEquivalence = options.getBooleanOrDefault(
+                "pointer-equivalence", false);
+        Object threadsOption = options.get("threads");
+        threads = threadsOption != null ? (Integer) threadsOption : 1;
+        if (threads > 1) {
+            if (cycleElimination || pointerEquivalence
+                    || options.getBooleanOrDefault("compact-pfg", false)) {
+                throw new ConfigException("Cycle elimination, pointer " +
+                        "equivalence and compact PFG are not supported " +
+                        "by parallel solving");
+            }
+            csManager = new SynchronizedCSManager(
+                    newCSManager(Function.identity()));
+            ptsFactory = csManager.getPointsToSetFactory();
+            // a concurrent PFG does not support collapsing cycles,
+            // which is rejected above
+            pointerFlowGraph = new PointerFlowGraph(new MapSetMultiMap<>(
+                    Maps.newConcurrentMap(), Sets::newConcurrentSet));
+            workList = new ConcurrentWorkList(ptsFactory);
+            pointerLocks = new Lock[POINTER_LOCKS];
+            Arrays.setAll(pointerLocks, i -> new ReentrantLock());
+            structureLock = new ReentrantLock();
+        } else {
+            if (pointerEquivalence) {
+                varEquivalence = new VarEquivalence();
+                csManager = newCSManager(varEquivalence::getRep);
+            } else {
+                csManager = newCSManager(Function.identity());
+            }
+            ptsFactory = csManager.getPointsToSetFactory();
+            pointerFlowGraph = options.getBooleanOrDefault("compact-pfg", false)
+                    ? new PointerFlowGraph(new CompactSuccessorMap())
+                    : new PointerFlowGraph();
+            workList = new WorkList(ptsFactory);
+            // locking is unnecessary for sequential solving
+            pointerLocks = new Lock[]{NoLock.INSTANCE};
+            structureLock = NoLock.INSTANCE;
+        }
+        if (options.getBooleanOrDefault("type-filter", false)) {
+            // merged pointers share one points-to set, which cannot
+            // be filtered by the different types of the pointers
+            if (cycleElimination || pointerEquivalence) {
+                throw new ConfigException("Type filter is not supported " +
+                        "with cycle elimination or pointer equivalence");
+            }
+            typeFilter = new TypeFilter(World.get().getTypeSystem(),
+                    ptsFactory, structureLock);
+        }
         callGraph = new CSCallGraph(csManager);
-        pointerFlowGraph = new PointerFlowGraph();
-        workList = new WorkList();
+        checkedEdges = Sets.newSet();
         // process program entry, i.e., main method
         Context defContext = contextSelector.getEmptyContext();
         JMethod main = World.get().getMainMethod();
@@ -107,11 +238,41 @@ class Solver {
         addReachable(csMethod);
     }
 
+    /**
+     * Creates the CS manager specified by option "cs-manager",
+     * which is either "map" (default) or "array".
+     */
+    private CSManager newCSManager(Function<Var, Var> varReps) {
+        String ptsKind = options.getString("pts");
+        String kind = options.getString("cs-manager");
+        if (kind == null || kind.equals("map")) {
+            return new MapBasedCSManager(ptsKind, varReps);
+        } else if (kind.equals("array")) {
+            return new ArrayBasedCSManager(ptsKind, varReps);
+        } else {
+            throw new ConfigException("Unexpected kind of CS manager: " + kind);
+        }
+    }
+
     /**
      * Processes new reachable context-sensitive method.
      */
     private void addReachable(CSMethod csMethod) {
-        // TODO - finish me
+        IR ir;
+        structureLock.lock();
+        try {
+            if (!callGraph.addReachableMethod(csMethod)) {
+                return;
+            }
+            ir = csMethod.getMethod().getIR();
+        } finally {
+            structureLock.unlock();
+        }
+        metrics.recordReachableMethod();
+        SolverMetrics.Phase previous = metrics.enter(SolverMetrics.Phase.STMT_PROCESSING);
+        StmtProcessor stmtProcessor = new StmtProcessor(csMethod);
+        ir.forEach(stmt -> stmt.accept(stmtProcessor));
+        metrics.exit(previous);
     }
 
     /**
@@ -128,31 +289,333 @@ class Solver {
             this.context = csMethod.getContext();
         }
 
-        // TODO - if you choose to implement addReachable()
-        //  via visitor pattern, then finish me
+        @Override
+        public Void visit(New stmt) {
+            Obj obj;
+            structureLock.lock();
+            try {
+                obj = heapModel.getObj(stmt);
+            } finally {
+                structureLock.unlock();
+            }
+            Context heapContext = selectHeapContext(csMethod, obj);
+            CSObj csObj = csManager.getCSObj(heapContext, obj);
+            workList.addEntry(getCSVar(context, stmt.getLValue()),
+                    ptsFactory.make(csObj));
+            return null;
+        }
+
+        @Override
+        public Void visit(Copy stmt) {
+            addPFGEdge(getCSVar(context, stmt.getRValue()),
+                    getCSVar(context, stmt.getLValue()));
+            return null;
+        }
+
+        @Override
+        public Void visit(LoadField stmt) {
+            if (stmt.isStatic()) {
+                JField field = resolveField(stmt.getFieldRef());
+                addPFGEdge(csManager.getStaticField(field),
+                        getCSVar(context, stmt.getLValue()));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(StoreField stmt) {
+            if (stmt.isStatic()) {
+                JField field = resolveField(stmt.getFieldRef());
+                addPFGEdge(getCSVar(context, stmt.getRValue()),
+                        csManager.getStaticField(field));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(Invoke stmt) {
+            if (stmt.isStatic()) {
+                JMethod callee = resolveCallee(null, stmt);
+                CSCallSite csCallSite = csManager.getCSCallSite(context, stmt);
+                Context calleeContext = selectContext(csCallSite, null, callee);
+                processCallEdge(csCallSite,
+                        csManager.getCSMethod(calleeContext, callee));
+            }
+            return null;
+        }
     }
 
     /**
      * Adds an edge "source -> target" to the PFG.
      */
     private void addPFGEdge(Pointer source, Pointer target) {
-        // TODO - finish me
+        Lock lock = getLock(source);
+        lock.lock();
+        try {
+            if (pointerFlowGraph.addEdge(source, target)) {
+                metrics.recordPFGEdge();
+                PointsToSet sourcePts = source.getPointsToSet();
+                if (!sourcePts.isEmpty()) {
+                    // pt(source) may still grow, thus we enqueue its copy
+                    PointsToSet pts = ptsFactory.make();
+                    pts.addAll(sourcePts);
+                    addFilteredEntry(target, pts);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Processes work-list entries until the work-list is empty.
      */
     private void analyze() {
-        // TODO - finish me
+        if (threads > 1) {
+            analyzeInParallel();
+        } else {
+            while (!workList.isEmpty()) {
+                metrics.recordPoll(workList.size());
+                processEntry(workList.pollEntry());
+            }
+        }
+    }
+
+    /**
+     * Processes work-list entries by multiple worker threads until
+     * all entries have been processed. As the analysis is monotone,
+     * it reaches the same fixed point as sequential solving regardless
+     * of the order in which the workers process the entries.
+     */
+    private void analyzeInParallel() {
+        ConcurrentWorkList concurrentWorkList = (ConcurrentWorkList) workList;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; ++i) {
+                workers.add(executor.submit(() -> {
+                    try {
+                        while (true) {
+                            int size = concurrentWorkList.size();
+                            // idle workers wait here until other workers
+                            // produce new entries or the analysis finishes
+                            WorkList.Entry entry = concurrentWorkList.awaitEntry();
+                            if (entry == null) {
+                                break;
+                            }
+                            metrics.recordPoll(size);
+                            try {
+                                processEntry(entry);
+                            } finally {
+                                concurrentWorkList.finish();
+                            }
+                        }
+                    } catch (RuntimeException | Error e) {
+                        concurrentWorkList.abort();
+                        throw e;
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            } else if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new AnalysisException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisException("Parallel solving is interrupted", e);
+        } finally {
+            // releases the waiting workers if the solving is interrupted
+            concurrentWorkList.abort();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Propagates the objects of given work-list entry, and processes
+     * the statements relevant to the new discovered objects.
+     */
+    private void processEntry(WorkList.Entry entry) {
+        Pointer pointer = entry.pointer();
+        PointsToSet delta = propagate(pointer, entry.pointsToSet());
+        if (delta.isEmpty()) {
+            return;
+        }
+        // pointers merged by cycle elimination share the same
+        // points-to set, thus the new objects arrive at all of them
+        for (Pointer member : pointerFlowGraph.getMembersOf(pointer)) {
+            if (member instanceof CSVar csVar) {
+                processNewObjects(csVar, delta);
+                if (varEquivalence != null) {
+                    Context context = csVar.getContext();
+                    for (Var var : varEquivalence.getEquivalentsOf(csVar.getVar())) {
+                        processNewObjects(csManager.getCSVar(context, var), delta);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes field accesses, array accesses and instance calls
+     * on the variable for its new discovered objects.
+     */
+    private void processNewObjects(CSVar csVar, PointsToSet delta) {
+        Var var = csVar.getVar();
+        Context context = csVar.getContext();
+        for (CSObj obj : delta) {
+            for (StoreField storeField : var.getStoreFields()) {
+                JField field = resolveField(storeField.getFieldRef());
+                addPFGEdge(getCSVar(context, storeField.getRValue()),
+                        csManager.getInstanceField(obj, field));
+            }
+            for (LoadField loadField : var.getLoadFields()) {
+                JField field = resolveField(loadField.getFieldRef());
+                addPFGEdge(csManager.getInstanceField(obj, field),
+                        getCSVar(context, loadField.getLValue()));
+            }
+            for (StoreArray storeArray : var.getStoreArrays()) {
+                addPFGEdge(getCSVar(context, storeArray.getRValue()),
+                        csManager.getArrayIndex(obj));
+            }
+            for (LoadArray loadArray : var.getLoadArrays()) {
+                addPFGEdge(csManager.getArrayIndex(obj),
+                        getCSVar(context, loadArray.getLValue()));
+            }
+            processCall(csVar, obj);
+        }
+    }
+
+    /**
+     * @return the context-sensitive variable which represents given
+     * variable in PFG. If pointer-equivalence pre-analysis is enabled,
+     * this is the variable of the representative of var; otherwise,
+     * this is the variable of var itself.
+     */
+    private CSVar getCSVar(Context context, Var var) {
+        // the variable is always created, so that it shares
+        // the points-to set of its representative
+        CSVar csVar = csManager.getCSVar(context, var);
+        if (varEquivalence != null) {
+            Var rep = varEquivalence.getRep(var);
+            if (rep != var) {
+                return csManager.getCSVar(context, rep);
+            }
+        }
+        return csVar;
+    }
+
+    /**
+     * Sets points-to set of given pointer, as well as the variables
+     * sharing points-to set with it.
+     */
+    private void setPointsToSet(Pointer pointer, PointsToSet pts) {
+        pointer.setPointsToSet(pts);
+        if (varEquivalence != null && pointer instanceof CSVar csVar) {
+            Context context = csVar.getContext();
+            for (Var var : varEquivalence.getEquivalentsOf(csVar.getVar())) {
+                csManager.getCSVar(context, var).setPointsToSet(pts);
+            }
+        }
     }
 
     /**
      * Propagates pointsToSet to pt(pointer) and its PFG successors,
      * returns the difference set of pointsToSet and pt(pointer).
+     * Only the difference set is pushed to the successors, as the rest
+     * of pointsToSet has already been propagated to them.
      */
     private PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet) {
-        // TODO - finish me
-        return null;
+        PointsToSet diff;
+        SolverMetrics.Phase previous = metrics.enter(SolverMetrics.Phase.PROPAGATION);
+        Lock lock = getLock(pointer);
+        lock.lock();
+        try {
+            diff = pointer.getPointsToSet()
+                    .addAllDiff(pointsToSet, ptsFactory.make());
+            if (!diff.isEmpty()) {
+                pointerFlowGraph.getSuccsOf(pointer)
+                        .forEach(succ -> addFilteredEntry(succ, diff));
+            }
+        } finally {
+            lock.unlock();
+            metrics.exit(previous);
+        }
+        if (!diff.isEmpty() && cycleElimination) {
+            eliminateCycles(pointer);
+        }
+        return diff;
+    }
+
+    /**
+     * Adds an entry for the objects flowing along a PFG edge to target.
+     * If type filtering is enabled, the objects which are incompatible
+     * with the type of target are dropped.
+     */
+    private void addFilteredEntry(Pointer target, PointsToSet pts) {
+        if (typeFilter != null) {
+            pts = typeFilter.filter(pts, target.getType());
+            if (pts.isEmpty()) {
+                return;
+            }
+        }
+        workList.addEntry(target, pts);
+    }
+
+    /**
+     * @return the lock which guards points-to set and PFG out edges
+     * of given pointer.
+     */
+    private Lock getLock(Pointer pointer) {
+        return pointerLocks[pointer.hashCode() & (pointerLocks.length - 1)];
+    }
+
+    /**
+     * Lazy cycle detection: if a PFG edge (pointer -> succ) connects two
+     * pointers which have the same points-to set, then the edge is likely
+     * in a cycle. Searches such cycles and collapses them.
+     * Each edge is checked at most once.
+     */
+    private void eliminateCycles(Pointer pointer) {
+        Pointer rep = pointerFlowGraph.getRep(pointer);
+        PointsToSet pts = rep.getPointsToSet();
+        List<Pointer> targets = new ArrayList<>();
+        for (Pointer succ : pointerFlowGraph.getSuccsOf(rep)) {
+            PointsToSet succPts = succ.getPointsToSet();
+            if (succPts.size() == pts.size() && succPts.containsAll(pts)
+                    && checkedEdges.add(new Pair<>(rep, succ))) {
+                targets.add(succ);
+            }
+        }
+        for (Pointer target : targets) {
+            Set<Pointer> scc = pointerFlowGraph.findCycle(rep, target);
+            if (!scc.isEmpty()) {
+                collapseCycle(scc);
+            }
+        }
+    }
+
+    /**
+     * Merges the pointers in given PFG cycle into one representative
+     * pointer, and lets them share one points-to set.
+     */
+    private void collapseCycle(Set<Pointer> scc) {
+        PointsToSet union = ptsFactory.make();
+        scc.forEach(p -> union.addAll(p.getPointsToSet()));
+        Pointer rep = pointerFlowGraph.collapse(scc);
+        PointsToSet shared = ptsFactory.make();
+        pointerFlowGraph.getMembersOf(rep)
+                .forEach(p -> setPointsToSet(p, shared));
+        // the members may have seen different objects before merging,
+        // so we propagate all objects again from the representative,
+        // which lets every member process all objects in the shared set
+        workList.addEntry(rep, union);
     }
 
     /**
@@ -162,7 +625,54 @@ class Solver {
      * @param recvObj set of new discovered objects pointed by the variable.
      */
     private void processCall(CSVar recv, CSObj recvObj) {
-        // TODO - finish me
+        Context context = recv.getContext();
+        for (Invoke callSite : recv.getVar().getInvokes()) {
+            JMethod callee = resolveCallee(recvObj, callSite);
+            CSCallSite csCallSite = csManager.getCSCallSite(context, callSite);
+            Context calleeContext = selectContext(csCallSite, recvObj, callee);
+            CSMethod csCallee = csManager.getCSMethod(calleeContext, callee);
+            workList.addEntry(
+                    getCSVar(calleeContext, getIR(callee).getThis()),
+                    ptsFactory.make(recvObj));
+            processCallEdge(csCallSite, csCallee);
+        }
+    }
+
+    /**
+     * Adds a call edge from csCallSite to csCallee to the call graph, and
+     * if the edge is new, connects arguments/return values of the call
+     * with parameters/return variables of the callee.
+     */
+    private void processCallEdge(CSCallSite csCallSite, CSMethod csCallee) {
+        Invoke callSite = csCallSite.getCallSite();
+        Edge<CSCallSite, CSMethod> edge = new Edge<>(
+                CallGraphs.getCallKind(callSite), csCallSite, csCallee);
+        boolean added;
+        structureLock.lock();
+        try {
+            added = callGraph.addEdge(edge);
+        } finally {
+            structureLock.unlock();
+        }
+        if (added) {
+            metrics.recordCallEdge();
+            addReachable(csCallee);
+            Context callerContext = csCallSite.getContext();
+            Context calleeContext = csCallee.getContext();
+            IR calleeIR = getIR(csCallee.getMethod());
+            InvokeExp invokeExp = callSite.getInvokeExp();
+            for (int i = 0; i < invokeExp.getArgCount(); ++i) {
+                addPFGEdge(getCSVar(callerContext, invokeExp.getArg(i)),
+                        getCSVar(calleeContext, calleeIR.getParam(i)));
+            }
+            Var result = callSite.getResult();
+            if (result != null) {
+                CSVar csResult = getCSVar(callerContext, result);
+                for (Var ret : calleeIR.getReturnVars()) {
+                    addPFGEdge(getCSVar(calleeContext, ret), csResult);
+                }
+            }
+        }
     }
 
     /**
@@ -175,7 +685,104 @@ class Solver {
      */
     private JMethod resolveCallee(CSObj recv, Invoke callSite) {
         Type type = recv != null ? recv.getObject().getType() : null;
-        return CallGraphs.resolveCallee(type, callSite);
+        SolverMetrics.Phase previous = metrics.enter(SolverMetrics.Phase.CALL_RESOLUTION);
+        structureLock.lock();
+        try {
+            return CallGraphs.resolveCallee(type, callSite);
+        } finally {
+            structureLock.unlock();
+            metrics.exit(previous);
+        }
+    }
+
+    /**
+     * Selects context for the callee of a call site.
+     *
+     * @param recv the receiver object of the method call. If the callSite
+     *             is static, this parameter is ignored (i.e., can be null).
+     */
+    private Context selectContext(CSCallSite csCallSite, CSObj recv,
+                                  JMethod callee) {
+        SolverMetrics.Phase previous = metrics.enter(SolverMetrics.Phase.CONTEXT_SELECTION);
+        try {
+            return recv != null
+                    ? contextSelector.selectContext(csCallSite, recv, callee)
+                    : contextSelector.selectContext(csCallSite, callee);
+        } finally {
+            metrics.exit(previous);
+        }
+    }
+
+    /**
+     * Selects heap context for a new-created object in given method.
+     */
+    private Context selectHeapContext(CSMethod csMethod, Obj obj) {
+        SolverMetrics.Phase previous = metrics.enter(SolverMetrics.Phase.CONTEXT_SELECTION);
+        try {
+            return contextSelector.selectHeapContext(csMethod, obj);
+        } finally {
+            metrics.exit(previous);
+        }
+    }
+
+    /**
+     * Resolves the field referenced by given field reference.
+     */
+    private JField resolveField(FieldRef fieldRef) {
+        structureLock.lock();
+        try {
+            return fieldRef.resolve();
+        } finally {
+            structureLock.unlock();
+        }
+    }
+
+    /**
+     * @return the IR of given method. The IR is built lazily,
+     * thus building it is guarded by the structure lock.
+     */
+    private IR getIR(JMethod method) {
+        structureLock.lock();
+        try {
+            return method.getIR();
+        } finally {
+            structureLock.unlock();
+        }
+    }
+
+    /**
+     * Lock which does nothing, used in sequential solving.
+     */
+    private enum NoLock implements Lock {
+
+        INSTANCE;
+
+        @Override
+        public void lock() {
+        }
+
+        @Override
+        public void lockInterruptibly() {
+        }
+
+        @Override
+        public boolean tryLock() {
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) {
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
     }
 
     PointerAnalysisResult getResult() {
@@ -0,0 +1,272 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.cs;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.util.AnalysisException;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the solver of context-sensitive pointer analysis, including
+ * the time spent in each phase, counters of the main operations,
+ * peak size of the work list and the distribution of points-to set sizes.
+ * <p>
+ * The time of the phases is exclusive, i.e., when a phase is entered
+ * inside another phase (e.g., context selection during statement
+ * processing), the time is only counted for the inner phase, so that
+ * the time of all phases adds up to the solving time (of all threads).
+ * <p>
+ * When the metrics are disabled, all methods of this class do nothing.
+ * This class is thread-safe.
+ */
+class SolverMetrics {
+
+    private static final Logger logger = LogManager.getLogger(SolverMetrics.class);
+
+    enum Phase {
+        /**
+         * Time which is not spent in any other phase.
+         */
+        OTHER("other"),
+        /**
+         * Propagating points-to sets along PFG edges.
+         */
+        PROPAGATION("propagation"),
+        /**
+         * Resolving callees of call sites.
+         */
+        CALL_RESOLUTION("call-resolution"),
+        /**
+         * Processing statements of new reachable methods.
+         */
+        STMT_PROCESSING("stmt-processing"),
+        /**
+         * Selecting contexts for callees and objects.
+         */
+        CONTEXT_SELECTION("context-selection");
+
+        private final String name;
+
+        Phase(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Number of buckets in the histogram of points-to set sizes.
+     * The i-th bucket (i > 0) counts the sizes in [2^(i-1), 2^i),
+     * and bucket 0 counts empty sets.
+     */
+    private static final int BUCKETS = 32;
+
+    private final boolean enabled;
+
+    private final LongAdder[] phaseTimes = new LongAdder[Phase.values().length];
+
+    /**
+     * Phase clock of each thread.
+     */
+    private final ThreadLocal<Clock> clocks = ThreadLocal.withInitial(Clock::new);
+
+    private final LongAdder workListPops = new LongAdder();
+
+    private final LongAdder pfgEdges = new LongAdder();
+
+    private final LongAdder callEdges = new LongAdder();
+
+    private final LongAdder reachableMethods = new LongAdder();
+
+    private final AtomicLong peakWorkListSize = new AtomicLong();
+
+    private final long[] ptsSizes = new long[BUCKETS];
+
+    private long solvingTime;
+
+    SolverMetrics(boolean enabled) {
+        this.enabled = enabled;
+        for (int i = 0; i < phaseTimes.length; ++i) {
+            phaseTimes[i] = new LongAdder();
+        }
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enters given phase in current thread.
+     *
+     * @return the phase of current thread before entering,
+     * which should be passed to {@link #exit(Phase)}.
+     */
+    Phase enter(Phase phase) {
+        return enabled ? clocks.get().switchTo(phase) : null;
+    }
+
+    /**
+     * Exits current phase and returns to given previous phase.
+     */
+    void exit(Phase previous) {
+        if (enabled) {
+            clocks.get().switchTo(previous);
+        }
+    }
+
+    /**
+     * Records the polling of a work-list entry, given the size
+     * of the work list before polling. As the work list only grows
+     * between two polls, the peak size is always seen here.
+     */
+    void recordPoll(int workListSize) {
+        if (enabled) {
+            workListPops.increment();
+            peakWorkListSize.accumulateAndGet(workListSize, Math::max);
+        }
+    }
+
+    void recordPFGEdge() {
+        if (enabled) {
+            pfgEdges.increment();
+        }
+    }
+
+    void recordCallEdge() {
+        if (enabled) {
+            callEdges.increment();
+        }
+    }
+
+    void recordReachableMethod() {
+        if (enabled) {
+            reachableMethods.increment();
+        }
+    }
+
+    /**
+     * Records the solving time and the points-to set sizes
+     * of given pointers after the solving finishes.
+     */
+    void recordResult(long solvingTime, Collection<? extends Pointer> pointers) {
+        if (enabled) {
+            this.solvingTime = solvingTime;
+            for (Pointer pointer : pointers) {
+                int size = pointer.getPointsToSet().size();
+                ++ptsSizes[32 - Integer.numberOfLeadingZeros(size)];
+            }
+        }
+    }
+
+    /**
+     * Dumps the metrics in JSON. If ptsFile (the file of points-to set
+     * dump) is given, then dumps to the file next to it whose name
+     * ends with "-metrics.json"; otherwise, logs it at info level.
+     */
+    void dump(String ptsFile) {
+        if (!enabled) {
+            return;
+        }
+        logger.info("Solver metrics: {} ns in total, {} work-list pops, " +
+                        "{} PFG edges, peak work-list size {}",
+                solvingTime, workListPops.sum(), pfgEdges.sum(),
+                peakWorkListSize.get());
+        String json = toJson();
+        if (ptsFile == null) {
+            logger.info("Solver metrics:\n{}", json);
+            return;
+        }
+        Path ptsPath = Path.of(ptsFile);
+        String name = ptsPath.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot > 0) {
+            name = name.substring(0, dot);
+        }
+        Path output = ptsPath.resolveSibling(name + "-metrics.json");
+        logger.info("Dumping solver metrics to {} ...", output);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(output))) {
+            out.println(json);
+        } catch (IOException e) {
+            throw new AnalysisException("Failed to dump solver metrics", e);
+        }
+    }
+
+    private String toJson() {
+        StringBuilder sb = new StringBuilder("{\n");
+        sb.append("  \"solvingTimeNanos\": ").append(solvingTime).append(",\n");
+        sb.append("  \"phaseTimeNanos\": {");
+        for (Phase phase : Phase.values()) {
+            sb.append(phase.ordinal() == 0 ? "\n" : ",\n")
+                    .append("    \"").append(phase.name).append("\": ")
+                    .append(phaseTimes[phase.ordinal()].sum());
+        }
+        sb.append("\n  },\n");
+        sb.append("  \"workListPops\": ").append(workListPops.sum()).append(",\n");
+        sb.append("  \"peakWorkListSize\": ").append(peakWorkListSize.get()).append(",\n");
+        sb.append("  \"pfgEdges\": ").append(pfgEdges.sum()).append(",\n");
+        sb.append("  \"callEdges\": ").append(callEdges.sum()).append(",\n");
+        sb.append("  \"reachableMethods\": ").append(reachableMethods.sum()).append(",\n");
+        // keys are the lower bounds of the buckets
+        sb.append("  \"pointsToSetSizes\": {");
+        int last = BUCKETS - 1;
+        while (last > 0 && ptsSizes[last] == 0) {
+            --last;
+        }
+        for (int i = 0; i <= last; ++i) {
+            long lowerBound = i == 0 ? 0 : 1L << (i - 1);
+            sb.append(i == 0 ? "\n" : ",\n")
+                    .append("    \"").append(lowerBound).append("\": ")
+                    .append(ptsSizes[i]);
+        }
+        sb.append("\n  }\n}");
+        return sb.toString();
+    }
+
+    /**
+     * Measures the time of the phases in a thread.
+     */
+    private class Clock {
+
+        private Phase current = Phase.OTHER;
+
+        private long start = System.nanoTime();
+
+        private Phase switchTo(Phase phase) {
+            Phase previous = current;
+            if (phase != previous) {
+                long now = System.nanoTime();
+                phaseTimes[previous.ordinal()].add(now - start);
+                start = now;
+                current = phase;
+            }
+            return previous;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.cs;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.InstanceField;
+import pascal.taie.analysis.pta.core.cs.element.StaticField;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
+
+import java.util.Collection;
+
+/**
+ * Thread-safe view of a {@link CSManager}, used by the parallel solver.
+ * <p>
+ * The element creating methods are serialized by the lock of this object.
+ * The collection methods are not synchronized, as they are only called
+ * after the analysis finishes.
+ */
+class SynchronizedCSManager implements CSManager {
+
+    private final CSManager csManager;
+
+    SynchronizedCSManager(CSManager csManager) {
+        this.csManager = csManager;
+    }
+
+    @Override
+    public synchronized CSVar getCSVar(Context context, Var var) {
+        return csManager.getCSVar(context, var);
+    }
+
+    @Override
+    public synchronized CSObj getCSObj(Context heapContext, Obj obj) {
+        return csManager.getCSObj(heapContext, obj);
+    }
+
+    @Override
+    public synchronized CSCallSite getCSCallSite(Context context, Invoke callSite) {
+        return csManager.getCSCallSite(context, callSite);
+    }
+
+    @Override
+    public synchronized CSMethod getCSMethod(Context context, JMethod method) {
+        return csManager.getCSMethod(context, method);
+    }
+
+    @Override
+    public synchronized StaticField getStaticField(JField field) {
+        return csManager.getStaticField(field);
+    }
+
+    @Override
+    public synchronized InstanceField getInstanceField(CSObj base, JField field) {
+        return csManager.getInstanceField(base, field);
+    }
+
+    @Override
+    public synchronized ArrayIndex getArrayIndex(CSObj array) {
+        return csManager.getArrayIndex(array);
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return csManager.getVars();
+    }
+
+    @Override
+    public Collection<CSVar> getCSVarsOf(Var var) {
+        return csManager.getCSVarsOf(var);
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        return csManager.getCSVars();
+    }
+
+    @Override
+    public Collection<CSObj> getObjects() {
+        return csManager.getObjects();
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        return csManager.getStaticFields();
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        return csManager.getInstanceFields();
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        return csManager.getArrayIndexes();
+    }
+
+    @Override
+    public Indexer<CSObj> getObjectIndexer() {
+        // the indexer is safe to be read concurrently
+        return csManager.getObjectIndexer();
+    }
+
+    @Override
+    public PointsToSetFactory getPointsToSetFactory() {
+        return csManager.getPointsToSetFactory();
+    }
+}
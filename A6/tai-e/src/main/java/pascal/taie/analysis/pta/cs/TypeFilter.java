@@ -0,0 +1,105 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.cs;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Filters the objects propagated along PFG edges by the type of
+ * the target pointers, i.e., only the objects whose types are subtypes
+ * of the type of target pointer can flow to it.
+ * <p>
+ * The results of subtype checks are cached, and this class is thread-safe.
+ */
+class TypeFilter {
+
+    private final TypeSystem typeSystem;
+
+    private final PointsToSetFactory ptsFactory;
+
+    /**
+     * Lock which guards the class hierarchy used by subtype checks.
+     */
+    private final Lock hierarchyLock;
+
+    /**
+     * Map from pointer type t1 and object type t2 to
+     * whether t2 is a subtype of t1.
+     */
+    private final ConcurrentMap<Type, ConcurrentMap<Type, Boolean>> subtypes
+            = Maps.newConcurrentMap();
+
+    TypeFilter(TypeSystem typeSystem, PointsToSetFactory ptsFactory,
+               Lock hierarchyLock) {
+        this.typeSystem = typeSystem;
+        this.ptsFactory = ptsFactory;
+        this.hierarchyLock = hierarchyLock;
+    }
+
+    /**
+     * @return the objects in pts which can be pointed to by pointers
+     * of given type. If all objects can, then returns pts itself.
+     */
+    PointsToSet filter(PointsToSet pts, Type type) {
+        Map<Type, Boolean> isSubtype = subtypes.computeIfAbsent(
+                type, t -> Maps.newConcurrentMap());
+        boolean allCompatible = true;
+        for (CSObj obj : pts) {
+            if (!isCompatible(isSubtype, type, obj)) {
+                allCompatible = false;
+                break;
+            }
+        }
+        if (allCompatible) {
+            return pts;
+        }
+        PointsToSet result = ptsFactory.make();
+        for (CSObj obj : pts) {
+            if (isCompatible(isSubtype, type, obj)) {
+                result.addObject(obj);
+            }
+        }
+        return result;
+    }
+
+    private boolean isCompatible(Map<Type, Boolean> isSubtype,
+                                 Type type, CSObj obj) {
+        return isSubtype.computeIfAbsent(obj.getObject().getType(), t -> {
+            hierarchyLock.lock();
+            try {
+                return typeSystem.isSubtype(type, t);
+            } finally {
+                hierarchyLock.unlock();
+            }
+        });
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.cs;
+
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.SimpleGraph;
+import pascal.taie.util.graph.TopoSorter;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Offline pre-analysis which finds pointer-equivalent variables,
+ * i.e., variables that always have the same points-to set under
+ * the same context.
+ * <p>
+ * The equivalence is computed for each method by hash-based value
+ * numbering (HVN) over the Copy statements of the method: each variable
+ * defined by other statements (or passed from callers) gets a fresh label,
+ * and each strongly connected component of the copy graph gets the label
+ * of its only input, or a label for the set of labels of its inputs.
+ * Variables with the same label are equivalent.
+ * <p>
+ * The results of a method are computed on demand, i.e., before
+ * any pointer of the method is created.
+ */
+class VarEquivalence {
+
+    /**
+     * Map from each method to the representatives of its merged variables.
+     * Variables which are not merged are absent in the map.
+     */
+    private final Map<JMethod, Map<Var, Var>> reps = Maps.newMap();
+
+    /**
+     * Map from a representative to the variables merged into it.
+     */
+    private final MultiMap<Var, Var> equivalents = Maps.newMultiMap();
+
+    /**
+     * @return the representative variable of the equivalence class
+     * of given variable.
+     */
+    Var getRep(Var var) {
+        return reps.computeIfAbsent(var.getMethod(), this::compute)
+                .getOrDefault(var, var);
+    }
+
+    /**
+     * @return the variables (excluding the representative) which are
+     * equivalent to given representative variable.
+     */
+    Set<Var> getEquivalentsOf(Var rep) {
+        reps.computeIfAbsent(rep.getMethod(), this::compute);
+        return equivalents.get(rep);
+    }
+
+    private Map<Var, Var> compute(JMethod method) {
+        IR ir = method.getIR();
+        // builds copy graph and collects the variables whose values
+        // come from somewhere other than Copy statements
+        SimpleGraph<Var> copyGraph = new SimpleGraph<>();
+        Set<Var> externals = Sets.newSet();
+        ir.getVars().forEach(copyGraph::addNode);
+        if (ir.getThis() != null) {
+            externals.add(ir.getThis());
+        }
+        externals.addAll(ir.getParams());
+        for (Stmt stmt : ir) {
+            if (stmt instanceof Copy copy) {
+                copyGraph.addEdge(copy.getRValue(), copy.getLValue());
+            } else {
+                stmt.getDef().ifPresent(def -> {
+                    if (def instanceof Var var) {
+                        externals.add(var);
+                    }
+                });
+            }
+        }
+        // labels the SCCs of copy graph in topological order
+        MergedSCCGraph<Var> sccGraph = new MergedSCCGraph<>(copyGraph);
+        Map<Var, Integer> labels = Maps.newMap();
+        Map<Set<Integer>, Integer> inputLabels = Maps.newMap();
+        int counter = 0;
+        for (MergedNode<Var> node : new TopoSorter<>(sccGraph).get()) {
+            Set<Integer> inputs = Sets.newHybridSet();
+            sccGraph.getPredsOf(node).forEach(pred ->
+                    inputs.add(labels.get(pred.getNodes().get(0))));
+            int label;
+            if (inputs.isEmpty() ||
+                    node.getNodes().stream().anyMatch(externals::contains)) {
+                label = counter++;
+            } else if (inputs.size() == 1) {
+                label = inputs.iterator().next();
+            } else {
+                Integer l = inputLabels.get(inputs);
+                if (l == null) {
+                    l = counter++;
+                    inputLabels.put(inputs, l);
+                }
+                label = l;
+            }
+            node.getNodes().forEach(var -> labels.put(var, label));
+        }
+        // picks the first variable of each label as the representative
+        Map<Integer, Var> labelReps = Maps.newMap();
+        Map<Var, Var> result = Maps.newMap();
+        for (Var var : ir.getVars()) {
+            Var rep = labelReps.putIfAbsent(labels.get(var), var);
+            if (rep != null) {
+                result.put(var, rep);
+                equivalents.put(rep, var);
+            }
+        }
+        return result;
+    }
+}
@@ -20,26 +20,52 @@
  * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
  */
 
+
 package pascal.taie.analysis.pta.cs;
 
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
 
-import java.util.ArrayDeque;
-import java.util.Queue;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Represents work list in pointer analysis.
+ * <p>
+ * Each pointer has at most one pending entry in the work list.
+ * When new objects arrive for a pointer which is already in the list,
+ * they are merged into the points-to set of the pending entry,
+ * so that the pointer is processed only once for all of them.
  */
 class WorkList {
 
-    private final Queue<Entry> entries = new ArrayDeque<>();
+    private final PointsToSetFactory ptsFactory;
 
     /**
-     * Adds an entry to the work list.
+     * Map from pointers to their pending objects, in insertion order.
+     */
+    private final Map<Pointer, Delta> entries = new LinkedHashMap<>();
+
+    WorkList(PointsToSetFactory ptsFactory) {
+        this.ptsFactory = ptsFactory;
+    }
+
+    /**
+     * Adds an entry to the work list. If the pointer is already
+     * in the work list, then merges pointsToSet into its pending set.
+     * <p>
+     * The work list may keep pointsToSet itself (without copying),
+     * thus the caller should not modify it after this call.
      */
     void addEntry(Pointer pointer, PointsToSet pointsToSet) {
-        entries.add(new Entry(pointer, pointsToSet));
+        Delta delta = entries.get(pointer);
+        if (delta == null) {
+            entries.put(pointer, new Delta(pointsToSet));
+        } else {
+            delta.merge(pointsToSet);
+        }
     }
 
     /**
@@ -47,7 +73,13 @@ class WorkList {
      * if this work list is empty.
      */
     Entry pollEntry() {
-        return entries.poll();
+        Iterator<Map.Entry<Pointer, Delta>> it = entries.entrySet().iterator();
+        if (!it.hasNext()) {
+            return null;
+        }
+        Map.Entry<Pointer, Delta> e = it.next();
+        it.remove();
+        return new Entry(e.getKey(), e.getValue().pts);
     }
 
     /**
@@ -57,10 +89,43 @@ class WorkList {
         return entries.isEmpty();
     }
 
+    /**
+     * @return the number of entries in the work list.
+     */
+    int size() {
+        return entries.size();
+    }
+
     /**
      * Represents entries in the work list.
      * Each entry consists of a pointer and a points-to set.
      */
     record Entry(Pointer pointer, PointsToSet pointsToSet) {
     }
+
+    /**
+     * Pending objects of a pointer. The points-to set given by
+     * the first {@link #addEntry} is shared, and it is copied
+     * on the first merge.
+     */
+    class Delta {
+
+        PointsToSet pts;
+
+        private boolean owned = false;
+
+        Delta(PointsToSet pts) {
+            this.pts = pts;
+        }
+
+        void merge(PointsToSet other) {
+            if (!owned) {
+                PointsToSet copy = ptsFactory.make();
+                copy.addAll(pts);
+                pts = copy;
+                owned = true;
+            }
+            pts.addAll(other);
+        }
+    }
 }
@@ -0,0 +1,155 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.SparseBitSet;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Points-to set backed by a {@link SparseBitSet}, where each object
+ * is represented by its index given by an {@link Indexer}.
+ * Union of two such sets works on whole words instead of
+ * hashing the objects one by one.
+ */
+class BitVectorPointsToSet implements PointsToSet {
+
+    private final Indexer<CSObj> indexer;
+
+    private final SparseBitSet bits;
+
+    BitVectorPointsToSet(Indexer<CSObj> indexer) {
+        this(indexer, new SparseBitSet());
+    }
+
+    private BitVectorPointsToSet(Indexer<CSObj> indexer, SparseBitSet bits) {
+        this.indexer = indexer;
+        this.bits = bits;
+    }
+
+    @Override
+    public boolean addObject(CSObj obj) {
+        return bits.set(indexer.getIndex(obj));
+    }
+
+    @Override
+    public boolean addAll(PointsToSet pts) {
+        if (pts instanceof BitVectorPointsToSet other) {
+            return bits.setAll(other.bits);
+        }
+        boolean changed = false;
+        for (CSObj obj : pts) {
+            changed |= addObject(obj);
+        }
+        return changed;
+    }
+
+    @Override
+    public PointsToSet addAllDiff(PointsToSet pts, PointsToSet diff) {
+        if (pts instanceof BitVectorPointsToSet other
+                && diff instanceof BitVectorPointsToSet diffSet) {
+            diffSet.bits.setAll(bits.setAllDiff(other.bits));
+            return diff;
+        }
+        return PointsToSet.super.addAllDiff(pts, diff);
+    }
+
+    @Override
+    public boolean contains(CSObj obj) {
+        return bits.get(indexer.getIndex(obj));
+    }
+
+    @Override
+    public boolean containsAll(PointsToSet pts) {
+        if (pts instanceof BitVectorPointsToSet other) {
+            return bits.containsAll(other.bits);
+        }
+        return PointsToSet.super.containsAll(pts);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bits.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return bits.cardinality();
+    }
+
+    @Override
+    public Set<CSObj> getObjects() {
+        return new AbstractSet<>() {
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof CSObj obj
+                        && BitVectorPointsToSet.this.contains(obj);
+            }
+
+            @Override
+            public Iterator<CSObj> iterator() {
+                return BitVectorPointsToSet.this.iterator();
+            }
+
+            @Override
+            public int size() {
+                return bits.cardinality();
+            }
+        };
+    }
+
+    @Override
+    public Stream<CSObj> objects() {
+        return getObjects().stream();
+    }
+
+    @Override
+    public Iterator<CSObj> iterator() {
+        PrimitiveIterator.OfInt iter = bits.iterator();
+        return new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return iter.hasNext();
+            }
+
+            @Override
+            public CSObj next() {
+                return indexer.getObject(iter.nextInt());
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return getObjects().toString();
+    }
+}
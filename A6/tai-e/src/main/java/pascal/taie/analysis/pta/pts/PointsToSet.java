@@ -49,11 +49,34 @@ public interface PointsToSet extends Iterable<CSObj> {
      */
     boolean addAll(PointsToSet pts);
 
+    /**
+     * Adds all objects in given pts to this set, and adds the objects
+     * which were not in this set before the call to diff.
+     *
+     * @return the given diff set.
+     */
+    default PointsToSet addAllDiff(PointsToSet pts, PointsToSet diff) {
+        for (CSObj obj : pts) {
+            if (addObject(obj)) {
+                diff.addObject(obj);
+            }
+        }
+        return diff;
+    }
+
     /**
      * @return true if this set contains given object, otherwise false.
      */
     boolean contains(CSObj obj);
 
+    /**
+     * @return true if this set contains all objects in given pts,
+     * otherwise false.
+     */
+    default boolean containsAll(PointsToSet pts) {
+        return pts.objects().allMatch(this::contains);
+    }
+
     /**
      * @return whether this set if empty.
      */
@@ -20,29 +20,58 @@
  * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
  */
 
+
 package pascal.taie.analysis.pta.pts;
 
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.config.ConfigException;
+import pascal.taie.util.Indexer;
 import pascal.taie.util.collection.Sets;
 
-import java.util.Set;
 import java.util.function.Supplier;
 
 /**
- * Provides static factory methods for {@link PointsToSet}.
+ * Provides factory methods for {@link PointsToSet}.
+ * <p>
+ * The kind of created points-to sets can be selected by option "pts"
+ * of pointer analysis, which supports following values:
+ * <ul>
+ *     <li>{@link #HYBRID} (default): points-to sets backed by hybrid sets</li>
+ *     <li>{@link #BIT}: points-to sets backed by sparse bit sets over
+ *     the indexes of {@link CSObj}</li>
+ * </ul>
  */
 public class PointsToSetFactory {
 
-    private static final Supplier<Set<CSObj>> setFactory = Sets::newHybridSet;
+    public static final String HYBRID = "hybrid";
+
+    public static final String BIT = "bit";
+
+    private final Supplier<PointsToSet> setFactory;
+
+    /**
+     * @param kind       kind of created points-to sets, null for default kind.
+     * @param objIndexer indexer of context-sensitive objects, which is used
+     *                   by bit-set-based points-to sets.
+     */
+    public PointsToSetFactory(String kind, Indexer<CSObj> objIndexer) {
+        if (kind == null || kind.equals(HYBRID)) {
+            setFactory = () -> new DelegatePointsToSet(Sets.newHybridSet());
+        } else if (kind.equals(BIT)) {
+            setFactory = () -> new BitVectorPointsToSet(objIndexer);
+        } else {
+            throw new ConfigException("Unexpected kind of points-to set: " + kind);
+        }
+    }
 
-    public static PointsToSet make() {
-        return new DelegatePointsToSet(setFactory.get());
+    public PointsToSet make() {
+        return setFactory.get();
     }
 
     /**
      * Convenient method for making one-element points-to set.
      */
-    public static PointsToSet make(CSObj obj) {
+    public PointsToSet make(CSObj obj) {
         PointsToSet set = make();
         set.addObject(obj);
         return set;
@@ -27,6 +27,7 @@ import pascal.taie.language.annotation.AnnotationHolder;
 import pascal.taie.language.type.Type;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents fields in the program. Each instance contains various
@@ -36,6 +37,10 @@ public class JField extends ClassMember {
 
     private final Type type;
 
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    private final int index = counter.getAndIncrement();
+
     public JField(JClass declaringClass, String name, Set<Modifier> modifiers,
                   Type type, AnnotationHolder annotationHolder) {
         super(declaringClass, name, modifiers, annotationHolder);
@@ -43,6 +48,14 @@ public class JField extends ClassMember {
         this.signature = StringReps.getSignatureOf(this);
     }
 
+    /**
+     * @return the index of this field, which is unique among all fields.
+     * @see JMethod#getIndex()
+     */
+    public int getIndex() {
+        return index;
+    }
+
     public Type getType() {
         return type;
     }
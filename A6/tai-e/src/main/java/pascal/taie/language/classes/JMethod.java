@@ -35,6 +35,7 @@ import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents methods in the program. Each instance contains various
@@ -62,6 +63,13 @@ public class JMethod extends ClassMember {
 
     private IR ir;
 
+    /**
+     * Counter for assigning {@link #index}.
+     */
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    private final int index = counter.getAndIncrement();
+
     public JMethod(JClass declaringClass, String name, Set<Modifier> modifiers,
                    List<Type> paramTypes, Type returnType, List<ClassType> exceptions,
                    AnnotationHolder annotationHolder,
@@ -77,6 +85,15 @@ public class JMethod extends ClassMember {
         this.methodSource = methodSource;
     }
 
+    /**
+     * @return the index of this method. The methods are numbered densely
+     * in the order of their creation, so that analyses can look up
+     * data of methods by index instead of hashing.
+     */
+    public int getIndex() {
+        return index;
+    }
+
     public boolean isAbstract() {
         return Modifier.hasAbstract(modifiers);
     }
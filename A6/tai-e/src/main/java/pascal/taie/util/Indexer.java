@@ -0,0 +1,44 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.util;
+
+/**
+ * Maps objects to dense non-negative integers and vice versa.
+ * Indexers are used by data structures (e.g., bit sets) that need
+ * to represent objects by integers.
+ *
+ * @param <O> type of indexed objects
+ */
+public interface Indexer<O> {
+
+    /**
+     * @return the index of given object.
+     */
+    int getIndex(O o);
+
+    /**
+     * @return the object whose index is given index.
+     */
+    O getObject(int index);
+}
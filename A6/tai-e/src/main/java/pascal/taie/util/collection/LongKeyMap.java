@@ -0,0 +1,211 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.LongFunction;
+
+/**
+ * Hash map from primitive long keys to non-null values, implemented by
+ * open addressing with linear probing. Compared with a map keyed by
+ * boxed objects, lookups in this map neither allocate objects nor call
+ * hashCode()/equals() on the keys.
+ * <p>
+ * This map does not support removal.
+ *
+ * @param <V> type of values
+ */
+public class LongKeyMap<V> {
+
+    private static final int DEFAULT_CAPACITY_BITS = 4;
+
+    private long[] keys;
+
+    /**
+     * values[i] is the value of keys[i], null if slot i is free.
+     */
+    private Object[] values;
+
+    /**
+     * log2 of the capacity of the tables.
+     */
+    private int bits;
+
+    private int size;
+
+    public LongKeyMap() {
+        bits = DEFAULT_CAPACITY_BITS;
+        keys = new long[1 << bits];
+        values = new Object[1 << bits];
+    }
+
+    /**
+     * @return a long key which combines two int keys.
+     */
+    public static long key(int high, int low) {
+        return ((long) high << 32) | (low & 0xffffffffL);
+    }
+
+    /**
+     * @return the value of given key, or null if the key is absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            Object value = values[i];
+            if (value == null) {
+                return null;
+            }
+            if (keys[i] == key) {
+                return (V) value;
+            }
+        }
+    }
+
+    /**
+     * Associates given value with given key.
+     *
+     * @return the previous value of the key, or null if it was absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("LongKeyMap does not accept null values");
+        }
+        int mask = keys.length - 1;
+        int i = slot(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V oldValue = (V) values[i];
+                values[i] = value;
+                return oldValue;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > (keys.length >> 1) + (keys.length >> 2)) {
+            // keep load factor below 0.75
+            resize();
+        }
+        return null;
+    }
+
+    /**
+     * If given key is absent, computes its value by mappingFunction
+     * and puts it to this map. The function may modify this map.
+     *
+     * @return the current value of given key.
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        V value = get(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return an unmodifiable view of the values in this map.
+     */
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+
+            @Override
+            public Iterator<V> iterator() {
+                return new ValueIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Fibonacci hashing, which spreads consecutive keys well.
+     */
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - bits));
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        ++bits;
+        keys = new long[1 << bits];
+        values = new Object[1 << bits];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; ++j) {
+            if (oldValues[j] != null) {
+                int i = slot(oldKeys[j]);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private class ValueIterator implements Iterator<V> {
+
+        private int next = advance(0);
+
+        private int advance(int i) {
+            while (i < values.length && values[i] == null) {
+                ++i;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < values.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            V value = (V) values[next];
+            next = advance(next + 1);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.util.collection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Sparse bit set of non-negative integers.
+ * <p>
+ * The set only stores the non-zero 64-bit words, together with
+ * their word indexes, in two parallel arrays sorted by word index.
+ * Hence, the memory used by the set is proportional to the number of
+ * non-zero words rather than the largest element, and set operations
+ * such as union and difference work on a whole word at a time.
+ */
+public class SparseBitSet {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    private static final int BIT_INDEX_MASK = (1 << ADDRESS_BITS_PER_WORD) - 1;
+
+    private static final int DEFAULT_CAPACITY = 2;
+
+    private static final int[] EMPTY_KEYS = {};
+
+    private static final long[] EMPTY_WORDS = {};
+
+    /**
+     * Word indexes of the non-zero words, in ascending order.
+     */
+    private int[] keys;
+
+    /**
+     * Non-zero words, words[i] is the word at index keys[i].
+     */
+    private long[] words;
+
+    /**
+     * Number of words in use.
+     */
+    private int wordsInUse;
+
+    /**
+     * Number of bits set to true.
+     */
+    private int cardinality;
+
+    public SparseBitSet() {
+        keys = EMPTY_KEYS;
+        words = EMPTY_WORDS;
+    }
+
+    private SparseBitSet(int[] keys, long[] words,
+                         int wordsInUse, int cardinality) {
+        this.keys = keys;
+        this.words = words;
+        this.wordsInUse = wordsInUse;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Sets the given bit to true.
+     *
+     * @return true if this set changed as a result of the call,
+     * otherwise false.
+     */
+    public boolean set(int bitIndex) {
+        checkIndex(bitIndex);
+        int key = bitIndex >>> ADDRESS_BITS_PER_WORD;
+        long mask = 1L << (bitIndex & BIT_INDEX_MASK);
+        int i = Arrays.binarySearch(keys, 0, wordsInUse, key);
+        if (i >= 0) {
+            if ((words[i] & mask) != 0) {
+                return false;
+            }
+            words[i] |= mask;
+        } else {
+            insertWord(-(i + 1), key, mask);
+        }
+        ++cardinality;
+        return true;
+    }
+
+    /**
+     * @return the value of the given bit.
+     */
+    public boolean get(int bitIndex) {
+        checkIndex(bitIndex);
+        int i = Arrays.binarySearch(keys, 0, wordsInUse,
+                bitIndex >>> ADDRESS_BITS_PER_WORD);
+        return i >= 0 && (words[i] & (1L << (bitIndex & BIT_INDEX_MASK))) != 0;
+    }
+
+    /**
+     * Sets all bits that are set in given bit set, i.e.,
+     * this = this | other.
+     *
+     * @return true if this set changed as a result of the call,
+     * otherwise false.
+     */
+    public boolean setAll(SparseBitSet other) {
+        if (other == this || other.wordsInUse == 0) {
+            return false;
+        }
+        // count the words of other which are absent in this set,
+        // and check whether other contains any new bits
+        int newWords = 0;
+        boolean changed = false;
+        for (int i = 0, j = 0; j < other.wordsInUse; ) {
+            if (i == wordsInUse || keys[i] > other.keys[j]) {
+                ++newWords;
+                ++j;
+            } else if (keys[i] < other.keys[j]) {
+                ++i;
+            } else {
+                changed |= (other.words[j] & ~words[i]) != 0;
+                ++i;
+                ++j;
+            }
+        }
+        if (newWords == 0) {
+            if (!changed) {
+                return false;
+            }
+            for (int i = 0, j = 0; j < other.wordsInUse; ++i) {
+                if (keys[i] == other.keys[j]) {
+                    long oldWord = words[i];
+                    words[i] = oldWord | other.words[j];
+                    cardinality += Long.bitCount(words[i]) - Long.bitCount(oldWord);
+                    ++j;
+                }
+            }
+            return true;
+        }
+        // merge from the end, so that no temporary arrays are needed
+        ensureCapacity(wordsInUse + newWords);
+        int i = wordsInUse - 1, j = other.wordsInUse - 1;
+        int k = wordsInUse + newWords - 1;
+        while (j >= 0) {
+            if (i >= 0 && keys[i] > other.keys[j]) {
+                keys[k] = keys[i];
+                words[k--] = words[i--];
+            } else if (i >= 0 && keys[i] == other.keys[j]) {
+                long oldWord = words[i];
+                keys[k] = keys[i];
+                words[k] = oldWord | other.words[j--];
+                cardinality += Long.bitCount(words[k--]) - Long.bitCount(oldWord);
+                --i;
+            } else {
+                keys[k] = other.keys[j];
+                words[k] = other.words[j--];
+                cardinality += Long.bitCount(words[k--]);
+            }
+        }
+        wordsInUse += newWords;
+        return true;
+    }
+
+    /**
+     * Sets all bits that are set in given bit set, and returns
+     * the bits that were not set in this set before the call,
+     * i.e., diff = other - this; this = this | other.
+     *
+     * @return a new bit set containing the newly set bits.
+     */
+    public SparseBitSet setAllDiff(SparseBitSet other) {
+        int[] diffKeys = new int[other.wordsInUse];
+        long[] diffWords = new long[other.wordsInUse];
+        int diffWordsInUse = 0, diffCardinality = 0;
+        for (int i = 0, j = 0; j < other.wordsInUse; ++j) {
+            while (i < wordsInUse && keys[i] < other.keys[j]) {
+                ++i;
+            }
+            long word = other.words[j];
+            if (i < wordsInUse && keys[i] == other.keys[j]) {
+                word &= ~words[i];
+            }
+            if (word != 0) {
+                diffKeys[diffWordsInUse] = other.keys[j];
+                diffWords[diffWordsInUse++] = word;
+                diffCardinality += Long.bitCount(word);
+            }
+        }
+        SparseBitSet diff = new SparseBitSet(diffKeys, diffWords,
+                diffWordsInUse, diffCardinality);
+        setAll(diff);
+        return diff;
+    }
+
+    /**
+     * @return true if this set contains all bits in given set.
+     */
+    public boolean containsAll(SparseBitSet other) {
+        if (other.cardinality > cardinality) {
+            return false;
+        }
+        for (int i = 0, j = 0; j < other.wordsInUse; ) {
+            if (i == wordsInUse || keys[i] > other.keys[j]) {
+                return false;
+            } else if (keys[i] < other.keys[j]) {
+                ++i;
+            } else {
+                if ((other.words[j] & ~words[i]) != 0) {
+                    return false;
+                }
+                ++i;
+                ++j;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of bits set to true in this set.
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @return true if no bit is set in this set.
+     */
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Performs the given action for each bit set in this set,
+     * in ascending order.
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < wordsInUse; ++i) {
+            int base = keys[i] << ADDRESS_BITS_PER_WORD;
+            long word = words[i];
+            while (word != 0) {
+                action.accept(base + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * @return an iterator over the bits set in this set, in ascending order.
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+
+            private int wordIndex = 0;
+
+            private long word = wordsInUse > 0 ? words[0] : 0;
+
+            @Override
+            public boolean hasNext() {
+                while (word == 0) {
+                    if (++wordIndex >= wordsInUse) {
+                        return false;
+                    }
+                    word = words[wordIndex];
+                }
+                return true;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int bit = (keys[wordIndex] << ADDRESS_BITS_PER_WORD)
+                        + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                return bit;
+            }
+        };
+    }
+
+    /**
+     * @return a copy of this set.
+     */
+    public SparseBitSet copy() {
+        return new SparseBitSet(
+                Arrays.copyOf(keys, wordsInUse),
+                Arrays.copyOf(words, wordsInUse),
+                wordsInUse, cardinality);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SparseBitSet other)) {
+            return false;
+        }
+        return cardinality == other.cardinality
+                && wordsInUse == other.wordsInUse
+                && Arrays.equals(keys, 0, wordsInUse, other.keys, 0, wordsInUse)
+                && Arrays.equals(words, 0, wordsInUse, other.words, 0, wordsInUse);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int i = 0; i < wordsInUse; ++i) {
+            h = 31 * h + keys[i];
+            h = 31 * h + Long.hashCode(words[i]);
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach(bit -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(bit);
+        });
+        return sb.append('}').toString();
+    }
+
+    private static void checkIndex(int bitIndex) {
+        if (bitIndex < 0) {
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        }
+    }
+
+    /**
+     * Inserts a new word at given position of the arrays.
+     */
+    private void insertWord(int pos, int key, long word) {
+        ensureCapacity(wordsInUse + 1);
+        System.arraycopy(keys, pos, keys, pos + 1, wordsInUse - pos);
+        System.arraycopy(words, pos, words, pos + 1, wordsInUse - pos);
+        keys[pos] = key;
+        words[pos] = word;
+        ++wordsInUse;
+    }
+
+    private void ensureCapacity(int required) {
+        if (keys.length < required) {
+            int newCapacity = Math.max(required,
+                    Math.max(DEFAULT_CAPACITY, keys.length + (keys.length >> 1)));
+            keys = Arrays.copyOf(keys, newCapacity);
+            words = Arrays.copyOf(words, newCapacity);
+        }
+    }
+}
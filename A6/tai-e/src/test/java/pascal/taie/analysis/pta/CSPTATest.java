@@ -22,8 +22,15 @@
 
 package pascal.taie.analysis.pta;
 
+import org.junit.Assert;
 import org.junit.Test;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.cs.CSPTA;
+import pascal.taie.config.ConfigException;
+
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class CSPTATest {
 
@@ -93,4 +100,114 @@ public class CSPTATest {
     public void testArray() {
         Tests.testCSPTA(DIR, "Array");
     }
+
+    @Test
+    public void testTwoObjectCycleElimination() {
+        Tests.testCSPTA(DIR, "TwoObject", "cs:2-obj", "cycle-elimination:true");
+    }
+
+    @Test
+    public void testAssignPointerEquivalence() {
+        Tests.testCSPTA(DIR, "Assign", "pointer-equivalence:true");
+    }
+
+    @Test
+    public void testTwoObjectParallel() {
+        Tests.testCSPTA(DIR, "TwoObject", "cs:2-obj", "threads:4");
+    }
+
+    @Test
+    public void testArrayParallel() {
+        Tests.testCSPTA(DIR, "Array", "threads:4");
+    }
+
+    @Test
+    public void testParallelDeterminism() {
+        checkParallelDeterminism("TwoObject", "cs:2-obj");
+        checkParallelDeterminism("TwoCall", "cs:2-call");
+        checkParallelDeterminism("InstanceField");
+        checkParallelDeterminism("Array");
+    }
+
+    /**
+     * Solves given program in parallel repeatedly, and checks that
+     * every run gives the same result as sequential solving.
+     */
+    private static void checkParallelDeterminism(String main, String... opts) {
+        Tests.testCSPTA(DIR, main, opts);
+        String expected = dumpResult();
+        String[] parallelOpts = Stream.concat(Stream.of(opts), Stream.of("threads:4"))
+                .toArray(String[]::new);
+        for (int i = 0; i < 10; ++i) {
+            Tests.testCSPTA(DIR, main, parallelOpts);
+            Assert.assertEquals(main + " run " + i, expected, dumpResult());
+        }
+    }
+
+    /**
+     * @return textual form of the points-to sets of all context-sensitive
+     * variables and the context-sensitive call graph, in sorted order.
+     */
+    private static String dumpResult() {
+        PointerAnalysisResult result = World.get().getResult(CSPTA.ID);
+        Stream<String> pts = result.getCSVars().stream()
+                .map(v -> v + " -> " + result.getPointsToSet(v).stream()
+                        .map(Object::toString)
+                        .sorted()
+                        .toList());
+        Stream<String> edges = result.getCSCallGraph().edges()
+                .map(e -> e.getCallSite() + " -> " + e.getCallee());
+        return Stream.concat(pts, edges)
+                .sorted()
+                .collect(Collectors.joining("\n"));
+    }
+
+    @Test
+    public void testTwoCallArrayBasedCSManager() {
+        Tests.testCSPTA(DIR, "TwoCall", "cs:2-call", "cs-manager:array");
+    }
+
+    @Test
+    public void testInstanceFieldArrayBasedCSManager() {
+        Tests.testCSPTA(DIR, "InstanceField", "cs-manager:array");
+    }
+
+    @Test
+    public void testTwoObjectCompactPFG() {
+        Tests.testCSPTA(DIR, "TwoObject", "cs:2-obj", "compact-pfg:true",
+                "cycle-elimination:true");
+    }
+
+    @Test
+    public void testTwoTypeTypeFilter() {
+        Tests.testCSPTA(DIR, "TwoType", "cs:2-type", "type-filter:true");
+    }
+
+    /**
+     * The A object stored into the B[] array via Object[] is filtered out.
+     */
+    @Test
+    public void testArrayTypeFilter() {
+        Tests.testCSPTAVariant(DIR, "Array", "type-filter", "type-filter:true");
+    }
+
+    @Test
+    public void testTypeFilterWithCycleElimination() {
+        try {
+            Tests.testCSPTA(DIR, "TwoObject", "cs:2-obj", "type-filter:true",
+                    "cycle-elimination:true");
+            Assert.fail("Type filter with cycle elimination is not rejected");
+        } catch (RuntimeException e) {
+            Throwable cause = e;
+            while (!(cause instanceof ConfigException) && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            Assert.assertTrue(e.toString(), cause instanceof ConfigException);
+        }
+    }
+
+    @Test
+    public void testOneCallMetrics() {
+        Tests.testCSPTA(DIR, "OneCall", "cs:1-call", "metrics:true");
+    }
 }
@@ -56,33 +56,52 @@ public class ConstantPropagation extends
 
     @Override
     public CPFact newBoundaryFact(CFG<Stmt> cfg) {
-        // TODO - finish me
-        return null;
+        CPFact fact = new CPFact();
+        IR ir = cfg.getIR();
+        for (Var param : ir.getParams()) {
+            if (canHoldInt(param)) {
+                fact.update(param, Value.getNAC());
+            }
+        }
+        return fact;
     }
 
     @Override
     public CPFact newInitialFact() {
-        // TODO - finish me
-        return null;
+        return new CPFact();
     }
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
-        // TODO - finish me
+        fact.forEach((var, value) ->
+                target.update(var, meetValue(value, target.get(var))));
     }
 
     /**
      * Meets two Values.
      */
     public Value meetValue(Value v1, Value v2) {
-        // TODO - finish me
-        return null;
+        if (v1.isNAC() || v2.isNAC()) {
+            return Value.getNAC();
+        }
+        if (v1.isUndef()) {
+            return v2;
+        }
+        if (v2.isUndef()) {
+            return v1;
+        }
+        return v1.equals(v2) ? v1 : Value.getNAC();
     }
 
     @Override
     public boolean transferNode(Stmt stmt, CPFact in, CPFact out) {
-        // TODO - finish me
-        return false;
+        if (stmt instanceof DefinitionStmt<?, ?> def &&
+                def.getLValue() instanceof Var lhs && canHoldInt(lhs)) {
+            CPFact newOut = in.copy();
+            newOut.update(lhs, evaluate(def.getRValue(), in));
+            return out.copyFrom(newOut);
+        }
+        return out.copyFrom(in);
     }
 
     /**
@@ -111,7 +130,71 @@ public class ConstantPropagation extends
      * @return the resulting {@link Value}
      */
     public static Value evaluate(Exp exp, CPFact in) {
-        // TODO - finish me
-        return null;
+        if (exp instanceof IntLiteral literal) {
+            return Value.makeConstant(literal.getValue());
+        }
+        if (exp instanceof Var var) {
+            return canHoldInt(var) ? in.get(var) : Value.getNAC();
+        }
+        if (exp instanceof BinaryExp binary) {
+            Value v1 = in.get(binary.getOperand1());
+            Value v2 = in.get(binary.getOperand2());
+            // x / 0 and x % 0 are UNDEF, even if x is NAC
+            if (binary instanceof ArithmeticExp arithmetic &&
+                    (arithmetic.getOperator() == ArithmeticExp.Op.DIV ||
+                            arithmetic.getOperator() == ArithmeticExp.Op.REM) &&
+                    v2.isConstant() && v2.getConstant() == 0) {
+                return Value.getUndef();
+            }
+            if (v1.isConstant() && v2.isConstant()) {
+                return Value.makeConstant(evaluate(binary,
+                        v1.getConstant(), v2.getConstant()));
+            }
+            if (v1.isNAC() || v2.isNAC()) {
+                return Value.getNAC();
+            }
+            return Value.getUndef();
+        }
+        // other expressions, e.g., field loads and invocations,
+        // are conservatively treated as NAC
+        return Value.getNAC();
+    }
+
+    /**
+     * Evaluates given binary expression on two int constants.
+     */
+    private static int evaluate(BinaryExp exp, int i1, int i2) {
+        if (exp instanceof ArithmeticExp arithmetic) {
+            return switch (arithmetic.getOperator()) {
+                case ADD -> i1 + i2;
+                case SUB -> i1 - i2;
+                case MUL -> i1 * i2;
+                case DIV -> i1 / i2;
+                case REM -> i1 % i2;
+            };
+        } else if (exp instanceof BitwiseExp bitwise) {
+            return switch (bitwise.getOperator()) {
+                case OR -> i1 | i2;
+                case AND -> i1 & i2;
+                case XOR -> i1 ^ i2;
+            };
+        } else if (exp instanceof ConditionExp condition) {
+            boolean result = switch (condition.getOperator()) {
+                case EQ -> i1 == i2;
+                case NE -> i1 != i2;
+                case LT -> i1 < i2;
+                case GT -> i1 > i2;
+                case LE -> i1 <= i2;
+                case GE -> i1 >= i2;
+            };
+            return result ? 1 : 0;
+        } else if (exp instanceof ShiftExp shift) {
+            return switch (shift.getOperator()) {
+                case SHL -> i1 << i2;
+                case SHR -> i1 >> i2;
+                case USHR -> i1 >>> i2;
+            };
+        }
+        throw new AnalysisException("Unexpected binary expression: " + exp);
     }
 }
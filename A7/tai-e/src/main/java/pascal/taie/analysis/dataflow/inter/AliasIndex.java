@@ -0,0 +1,184 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.stmt.FieldStmt;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Pair;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Set;
+
+/**
+ * Index of the field and array accesses which may access the same heap
+ * locations, built once from the result of pointer analysis.
+ * <p>
+ * A heap location is an instance field of an abstract object (indexed by
+ * the pair of the object and the field), a static field, or the elements
+ * of an abstract array object. The index maps each location to the stores
+ * and loads that may access it. It also gives, for each load, the stores
+ * whose bases may alias its base. The reverse index gives, for each store,
+ * the loads that depend on it, which must be processed again when the
+ * fact of the store changes. With the index, the alias-aware transfer
+ * functions need not scan the field and array accesses of all variables.
+ * For arrays, the index only considers the bases, and whether the indexes
+ * of the accesses may be equal is left to the transfer functions.
+ */
+class AliasIndex {
+
+    /**
+     * Stores and loads of each field location, i.e., {@link Pair} of
+     * {@link Obj} and {@link JField} for instance fields, and
+     * {@link JField} for static fields.
+     */
+    private final MultiMap<Object, StoreField> fieldStores = Maps.newMultiMap();
+
+    private final MultiMap<Object, LoadField> fieldLoads = Maps.newMultiMap();
+
+    /**
+     * Stores and loads of the elements of each array object.
+     */
+    private final MultiMap<Obj, StoreArray> arrayStores = Maps.newMultiMap();
+
+    private final MultiMap<Obj, LoadArray> arrayLoads = Maps.newMultiMap();
+
+    /**
+     * Stores which may be read by each load.
+     */
+    private final MultiMap<Stmt, Stmt> storesOfLoad = Maps.newMultiMap();
+
+    /**
+     * Loads which may read the value of each store.
+     */
+    private final MultiMap<Stmt, Stmt> loadsOfStore = Maps.newMultiMap();
+
+    AliasIndex(ICFG<JMethod, Stmt> icfg, PointerAnalysisResult pta) {
+        for (Stmt stmt : icfg) {
+            if (stmt instanceof StoreField store) {
+                getLocations(store, pta).forEach(loc -> fieldStores.put(loc, store));
+            } else if (stmt instanceof LoadField load) {
+                getLocations(load, pta).forEach(loc -> fieldLoads.put(loc, load));
+            } else if (stmt instanceof StoreArray store) {
+                pta.getPointsToSet(store.getArrayAccess().getBase())
+                        .forEach(obj -> arrayStores.put(obj, store));
+            } else if (stmt instanceof LoadArray load) {
+                pta.getPointsToSet(load.getArrayAccess().getBase())
+                        .forEach(obj -> arrayLoads.put(obj, load));
+            }
+        }
+        fieldLoads.forEachSet((loc, loads) -> link(loads, fieldStores.get(loc)));
+        arrayLoads.forEachSet((obj, loads) -> link(loads, arrayStores.get(obj)));
+    }
+
+    /**
+     * @return the heap locations which may be accessed by given field statement.
+     */
+    private static Set<Object> getLocations(FieldStmt<?, ?> stmt,
+                                            PointerAnalysisResult pta) {
+        JField field = stmt.getFieldRef().resolve();
+        if (stmt.isStatic()) {
+            return Set.of(field);
+        }
+        Set<Object> locations = Sets.newHybridSet();
+        InstanceFieldAccess access = (InstanceFieldAccess) stmt.getFieldAccess();
+        for (Obj obj : pta.getPointsToSet(access.getBase())) {
+            locations.add(new Pair<>(obj, field));
+        }
+        return locations;
+    }
+
+    /**
+     * Records that each of {@code loads} may read the values of {@code stores}.
+     */
+    private void link(Set<? extends Stmt> loads, Set<? extends Stmt> stores) {
+        if (stores.isEmpty()) {
+            return;
+        }
+        for (Stmt load : loads) {
+            storesOfLoad.putAll(load, stores);
+        }
+        for (Stmt store : stores) {
+            loadsOfStore.putAll(store, loads);
+        }
+    }
+
+    /**
+     * @return the stores ({@link StoreField}s or {@link StoreArray}s)
+     * which may write the heap locations read by given load.
+     */
+    Set<Stmt> getStoresOf(Stmt load) {
+        return storesOfLoad.get(load);
+    }
+
+    /**
+     * @return the loads ({@link LoadField}s or {@link LoadArray}s)
+     * which may read the heap locations written by given store.
+     * They depend on the store, and must be processed again
+     * when the fact of the store changes.
+     */
+    Set<Stmt> getDependentLoads(Stmt store) {
+        return loadsOfStore.get(store);
+    }
+
+    /**
+     * @return the stores of the instance field {@code field}
+     * of {@code obj}.
+     */
+    Set<StoreField> getStores(Obj obj, JField field) {
+        return fieldStores.get(new Pair<>(obj, field));
+    }
+
+    /**
+     * @return the loads of the instance field {@code field}
+     * of {@code obj}.
+     */
+    Set<LoadField> getLoads(Obj obj, JField field) {
+        return fieldLoads.get(new Pair<>(obj, field));
+    }
+
+    /**
+     * @return the stores of the elements of array object {@code array}.
+     */
+    Set<StoreArray> getArrayStores(Obj array) {
+        return arrayStores.get(array);
+    }
+
+    /**
+     * @return the loads of the elements of array object {@code array}.
+     */
+    Set<LoadArray> getArrayLoads(Obj array) {
+        return arrayLoads.get(array);
+    }
+}
@@ -25,6 +25,7 @@ package pascal.taie.analysis.dataflow.inter;
 import pascal.taie.World;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.icfg.CallEdge;
@@ -37,7 +38,11 @@ import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
 import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
 import pascal.taie.language.classes.JMethod;
 
 /**
@@ -50,6 +55,12 @@ public class InterConstantPropagation extends
 
     private final ConstantPropagation cp;
 
+    /**
+     * Index of the aliased field and array accesses,
+     * built in {@link #initialize()}.
+     */
+    private AliasIndex aliasIndex;
+
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
         cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
@@ -59,7 +70,7 @@ public class InterConstantPropagation extends
     protected void initialize() {
         String ptaId = getOptions().getString("pta");
         PointerAnalysisResult pta = World.get().getResult(ptaId);
-        // You can do initialization work here
+        aliasIndex = new AliasIndex(icfg, pta);
     }
 
     @Override
@@ -85,37 +96,111 @@ public class InterConstantPropagation extends
 
     @Override
     protected boolean transferCallNode(Stmt stmt, CPFact in, CPFact out) {
-        // TODO - finish me
-        return false;
+        return out.copyFrom(in);
     }
 
     @Override
     protected boolean transferNonCallNode(Stmt stmt, CPFact in, CPFact out) {
-        // TODO - finish me
-        return false;
+        if (stmt instanceof LoadField load) {
+            return transferLoad(load, load.getLValue(), in, out);
+        }
+        if (stmt instanceof LoadArray load) {
+            return transferLoad(load, load.getLValue(), in, out);
+        }
+        boolean changed = cp.transferNode(stmt, in, out);
+        if (changed && (stmt instanceof StoreField ||
+                stmt instanceof StoreArray)) {
+            // the loads which may read the stored value depend on
+            // the fact of this store, thus they must be processed again
+            aliasIndex.getDependentLoads(stmt).forEach(solver::addToWorkList);
+        }
+        return changed;
+    }
+
+    /**
+     * Transfer function for {@link LoadField} and {@link LoadArray}.
+     * The value of {@code lhs} is the meet of the values stored by
+     * the aliased stores given by {@link AliasIndex#getStoresOf(Stmt)}.
+     */
+    private boolean transferLoad(Stmt load, Var lhs, CPFact in, CPFact out) {
+        CPFact newOut = in.copy();
+        if (ConstantPropagation.canHoldInt(lhs)) {
+            Value value = Value.getUndef();
+            for (Stmt store : aliasIndex.getStoresOf(load)) {
+                CPFact storeIn = solver.getInFact(store);
+                Var stored;
+                if (store instanceof StoreArray storeArray) {
+                    Value index = in.get(
+                            ((LoadArray) load).getArrayAccess().getIndex());
+                    Value storeIndex = storeIn.get(
+                            storeArray.getArrayAccess().getIndex());
+                    if (!mayBeEqual(index, storeIndex)) {
+                        continue;
+                    }
+                    stored = storeArray.getRValue();
+                } else {
+                    stored = ((StoreField) store).getRValue();
+                }
+                value = cp.meetValue(value, storeIn.get(stored));
+            }
+            newOut.update(lhs, value);
+        }
+        return out.copyFrom(newOut);
+    }
+
+    /**
+     * @return true if two array indexes of given values may be equal,
+     * i.e., the array accesses with the indexes may be aliases.
+     */
+    private static boolean mayBeEqual(Value i1, Value i2) {
+        if (i1.isUndef() || i2.isUndef()) {
+            return false;
+        }
+        if (i1.isConstant() && i2.isConstant()) {
+            return i1.getConstant() == i2.getConstant();
+        }
+        return true;
     }
 
     @Override
     protected CPFact transferNormalEdge(NormalEdge<Stmt> edge, CPFact out) {
-        // TODO - finish me
-        return null;
+        return out;
     }
 
     @Override
     protected CPFact transferCallToReturnEdge(CallToReturnEdge<Stmt> edge, CPFact out) {
-        // TODO - finish me
-        return null;
+        CPFact result = out.copy();
+        Var lhs = ((Invoke) edge.getSource()).getResult();
+        if (lhs != null) {
+            // the value of lhs is passed along the return edges
+            result.remove(lhs);
+        }
+        return result;
     }
 
     @Override
     protected CPFact transferCallEdge(CallEdge<Stmt> edge, CPFact callSiteOut) {
-        // TODO - finish me
-        return null;
+        CPFact result = newInitialFact();
+        InvokeExp invokeExp = ((Invoke) edge.getSource()).getInvokeExp();
+        IR calleeIR = edge.getCallee().getIR();
+        for (int i = 0; i < invokeExp.getArgCount(); ++i) {
+            result.update(calleeIR.getParam(i),
+                    callSiteOut.get(invokeExp.getArg(i)));
+        }
+        return result;
     }
 
     @Override
     protected CPFact transferReturnEdge(ReturnEdge<Stmt> edge, CPFact returnOut) {
-        // TODO - finish me
-        return null;
+        CPFact result = newInitialFact();
+        Var lhs = ((Invoke) edge.getCallSite()).getResult();
+        if (lhs != null && ConstantPropagation.canHoldInt(lhs)) {
+            Value value = Value.getUndef();
+            for (Var returnVar : edge.getReturnVars()) {
+                value = cp.meetValue(value, returnOut.get(returnVar));
+            }
+            result.update(lhs, value);
+        }
+        return result;
     }
 }
@@ -59,10 +59,47 @@ class InterSolver<Method, Node, Fact> {
     }
 
     private void initialize() {
-        // TODO - finish me
+        Set<Node> entryNodes = icfg.entryMethods()
+                .map(icfg::getEntryOf)
+                .collect(Collectors.toSet());
+        for (Node node : icfg) {
+            if (entryNodes.contains(node)) {
+                result.setInFact(node, analysis.newBoundaryFact(node));
+                result.setOutFact(node, analysis.newBoundaryFact(node));
+            } else {
+                result.setInFact(node, analysis.newInitialFact());
+                result.setOutFact(node, analysis.newInitialFact());
+            }
+        }
     }
 
     private void doSolve() {
-        // TODO - finish me
+        workList = new SetQueue<>();
+        icfg.forEach(workList::add);
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            Fact in = result.getInFact(node);
+            icfg.getInEdgesOf(node).forEach(edge -> analysis.meetInto(
+                    analysis.transferEdge(edge, result.getOutFact(edge.getSource())),
+                    in));
+            if (analysis.transferNode(node, in, result.getOutFact(node))) {
+                workList.addAll(icfg.getSuccsOf(node));
+            }
+        }
+    }
+
+    /**
+     * @return the IN fact of given node in the current iteration.
+     */
+    Fact getInFact(Node node) {
+        return result.getInFact(node);
+    }
+
+    /**
+     * Adds given node to the work-list, so that it is processed again,
+     * e.g., a load whose facts depend on a store whose fact has changed.
+     */
+    void addToWorkList(Node node) {
+        workList.add(node);
     }
 }
@@ -95,6 +95,29 @@ public final class Tests {
         }
     }
 
+    /**
+     * Builds the world for a specific test case, and runs given analyses
+     * (e.g., the prerequisites of the analysis to be tested) on it.
+     *
+     * @param main      the main class to be analyzed
+     * @param classPath where the main class is located
+     * @param analyses  the arguments of analyses to be executed
+     */
+    public static void buildWorld(String main, String classPath, String... analyses) {
+        List<String> args = new ArrayList<>();
+        args.add("-pp");
+        Collections.addAll(args, "-cp", classPath);
+        Collections.addAll(args, "-m", main);
+        for (String analysis : analyses) {
+            Collections.addAll(args, "-a", analysis);
+        }
+        if (analyses.length == 0) {
+            Main.buildWorld(args.toArray(new String[0]));
+        } else {
+            Main.main(args.toArray(new String[0]));
+        }
+    }
+
     public static void testPTA(String dir, String main, String... opts) {
         doTestPTA("pta", dir, main, opts);
     }
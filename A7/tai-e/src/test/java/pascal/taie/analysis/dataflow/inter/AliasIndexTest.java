@@ -0,0 +1,135 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.FieldStmt;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class AliasIndexTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/alias";
+
+    private static final List<String> PROGRAMS = List.of(
+            "Array", "ArrayInter2", "ArrayLoops", "InstanceField", "MultiStores",
+            "Interprocedural2", "ObjSens", "StaticField", "StaticFieldMultiStores");
+
+    /**
+     * Compares the stores of each load and the dependent loads of each
+     * store with the ones given by checking all pairs of the loads
+     * and stores for aliased bases.
+     */
+    @Test
+    public void testStoresAndDependentLoads() {
+        for (String program : PROGRAMS) {
+            Tests.buildWorld(program, CLASS_PATH,
+                    "cspta=cs:2-obj", "cg=algorithm:cspta", ICFGBuilder.ID);
+            ICFG<JMethod, Stmt> icfg = World.get().getResult(ICFGBuilder.ID);
+            PointerAnalysisResult pta = World.get().getResult("cspta");
+            AliasIndex aliasIndex = new AliasIndex(icfg, pta);
+            List<Stmt> loads = new ArrayList<>();
+            List<Stmt> stores = new ArrayList<>();
+            for (Stmt stmt : icfg) {
+                if (stmt instanceof LoadField || stmt instanceof LoadArray) {
+                    loads.add(stmt);
+                } else if (stmt instanceof StoreField || stmt instanceof StoreArray) {
+                    stores.add(stmt);
+                }
+            }
+            int links = 0;
+            for (Stmt load : loads) {
+                Set<Stmt> expected = Sets.newHybridSet();
+                for (Stmt store : stores) {
+                    if (mayAlias(load, store, pta)) {
+                        expected.add(store);
+                    }
+                }
+                Assert.assertEquals(program + ": " + load,
+                        expected, aliasIndex.getStoresOf(load));
+                links += expected.size();
+            }
+            for (Stmt store : stores) {
+                Set<Stmt> expected = Sets.newHybridSet();
+                for (Stmt load : loads) {
+                    if (mayAlias(load, store, pta)) {
+                        expected.add(load);
+                    }
+                }
+                Assert.assertEquals(program + ": " + store,
+                        expected, aliasIndex.getDependentLoads(store));
+            }
+            Assert.assertTrue(program + " has no aliased accesses", links > 0);
+        }
+    }
+
+    /**
+     * @return true if {@code load} may read the heap location
+     * written by {@code store}.
+     */
+    private static boolean mayAlias(Stmt load, Stmt store,
+                                    PointerAnalysisResult pta) {
+        if (load instanceof LoadField loadField &&
+                store instanceof StoreField storeField) {
+            if (!loadField.getFieldRef().resolve().equals(
+                    storeField.getFieldRef().resolve())) {
+                return false;
+            }
+            return loadField.isStatic() ||
+                    mayAlias(getBase(loadField), getBase(storeField), pta);
+        }
+        if (load instanceof LoadArray loadArray &&
+                store instanceof StoreArray storeArray) {
+            return mayAlias(loadArray.getArrayAccess().getBase(),
+                    storeArray.getArrayAccess().getBase(), pta);
+        }
+        return false;
+    }
+
+    private static Var getBase(FieldStmt<?, ?> stmt) {
+        return ((InstanceFieldAccess) stmt.getFieldAccess()).getBase();
+    }
+
+    private static boolean mayAlias(Var v1, Var v2, PointerAnalysisResult pta) {
+        Set<Obj> pts = pta.getPointsToSet(v2);
+        return pta.getPointsToSet(v1).stream().anyMatch(pts::contains);
+    }
+}
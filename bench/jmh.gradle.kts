@@ -0,0 +1,38 @@
+// JMH benchmarks of the solvers, shared by the assignments which apply
+// this script. The benchmarks of an assignment are in its src/jmh/java,
+// and the helpers used by all benchmarks (e.g., BenchmarkWorld) are in
+// bench/src. Run by "gradle jmh", and pass extra JMH arguments by
+// -PjmhArgs="...", e.g., -PjmhArgs="CSSolverBenchmark -p program=synthetic-2000".
+
+val sharedSrcDir = projectDir.parentFile.parentFile.resolve("bench/src")
+
+val sourceSets = the<SourceSetContainer>()
+
+sourceSets.create("jmh") {
+    java.srcDir(sharedSrcDir)
+    val main = sourceSets["main"]
+    compileClasspath += main.output + main.runtimeClasspath
+    runtimeClasspath += output + compileClasspath
+}
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+tasks.named<JavaCompile>("compileJmhJava") { options.encoding = "UTF-8" }
+
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs JMH benchmarks, reporting throughput and allocation rate."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val resultFile = layout.buildDirectory.file("reports/jmh/results.json").get().asFile
+    doFirst { resultFile.parentFile.mkdirs() }
+    // "-prof gc" reports allocation rate along with throughput
+    args("-prof", "gc", "-rf", "json", "-rff", resultFile.path)
+    (project.findProperty("jmhArgs") as String?)
+        ?.split(" ")
+        ?.filter { it.isNotBlank() }
+        ?.let { args(it) }
+}
@@ -0,0 +1,87 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.bench;
+
+import pascal.taie.Main;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds the world of the programs analyzed by the benchmarks.
+ * <p>
+ * A program is either the name of a main class in a test resource
+ * directory (e.g., "Array"), or "synthetic-N" which represents
+ * a program of scale N generated by {@link SyntheticPrograms}.
+ */
+public final class BenchmarkWorld {
+
+    private static final String SYNTHETIC_PREFIX = "synthetic-";
+
+    private BenchmarkWorld() {
+    }
+
+    /**
+     * Builds the world for given program, and runs given analyses
+     * (e.g., the prerequisites of the benchmarked analysis) on it.
+     *
+     * @param dir      the test resource directory containing the program
+     * @param program  the program to be analyzed
+     * @param kind     kind of the synthetic program, if program is synthetic
+     * @param analyses the arguments of analyses, e.g., "cfg"
+     */
+    public static void build(String dir, String program,
+                             SyntheticPrograms.Kind kind, String... analyses) {
+        String classPath = dir;
+        String main = program;
+        if (program.startsWith(SYNTHETIC_PREFIX)) {
+            int scale = Integer.parseInt(
+                    program.substring(SYNTHETIC_PREFIX.length()));
+            try {
+                Path tempDir = Files.createTempDirectory("tai-e-bench");
+                main = SyntheticPrograms.write(tempDir, kind, scale);
+                classPath = tempDir.toString();
+            } catch (IOException e) {
+                throw new UncheckedIOException(
+                        "Failed to generate synthetic program", e);
+            }
+        }
+        List<String> args = new ArrayList<>();
+        args.add("-pp");
+        Collections.addAll(args, "-cp", classPath);
+        Collections.addAll(args, "-m", main);
+        if (analyses.length == 0) {
+            Main.buildWorld(args.toArray(new String[0]));
+        } else {
+            for (String analysis : analyses) {
+                Collections.addAll(args, "-a", analysis);
+            }
+            Main.main(args.toArray(new String[0]));
+        }
+    }
+}
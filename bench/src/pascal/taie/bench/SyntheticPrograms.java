@@ -0,0 +1,173 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates synthetic programs for benchmarking, in two kinds:
+ * <ul>
+ *     <li>{@link Kind#DATAFLOW}: a program of scale N consists of N static
+ *     int methods, each of which contains constants, arithmetic, a loop,
+ *     a branch with constant condition, a switch, dead assignments and
+ *     a call to its successor, so both the sizes of the CFGs and
+ *     the ICFG grow with N.</li>
+ *     <li>{@link Kind#POINTER}: a program of scale N consists of N classes
+ *     which implement one interface. Each class allocates boxes, stores
+ *     and loads objects through fields and arrays, and calls the interface
+ *     method on objects of its successor class and of two randomly chosen
+ *     classes, so the sizes of the points-to sets and the call graph
+ *     grow with N.</li>
+ * </ul>
+ * The programs are generated deterministically.
+ */
+public final class SyntheticPrograms {
+
+    /**
+     * Kinds of synthetic programs.
+     */
+    public enum Kind {
+        /**
+         * Programs for data-flow analyses.
+         */
+        DATAFLOW,
+        /**
+         * Programs for pointer analyses.
+         */
+        POINTER
+    }
+
+    private static final String MAIN = "Synthetic";
+
+    private SyntheticPrograms() {
+    }
+
+    /**
+     * Writes the program of given kind and scale to given directory.
+     *
+     * @return the name of the main class.
+     */
+    public static String write(Path dir, Kind kind, int scale) throws IOException {
+        return switch (kind) {
+            case DATAFLOW -> writeDataflowProgram(dir, scale);
+            case POINTER -> writePointerProgram(dir, scale);
+        };
+    }
+
+    private static String writeDataflowProgram(Path dir, int scale) throws IOException {
+        Random random = new Random(scale);
+        StringBuilder sb = new StringBuilder();
+        sb.append("public class ").append(MAIN).append(" {\n\n");
+        for (int i = 0; i < scale; ++i) {
+            int c1 = random.nextInt(100);
+            int c2 = random.nextInt(100);
+            sb.append("    static int m").append(i).append("(int p) {\n")
+                    .append("        int a = ").append(c1).append(";\n")
+                    .append("        int b = ").append(c2).append(";\n")
+                    .append("        int c = a * b + p;\n")
+                    .append("        int dead = a - b;\n")
+                    .append("        int s = 0;\n")
+                    .append("        for (int j = 0; j < a; ++j) {\n")
+                    .append("            s += j ^ b;\n")
+                    .append("            dead = s;\n")
+                    .append("        }\n")
+                    .append("        if (a > b) {\n")
+                    .append("            c = c + a;\n")
+                    .append("        } else {\n")
+                    .append("            c = c - b;\n")
+                    .append("        }\n")
+                    .append("        switch (a % 3) {\n")
+                    .append("            case 0: s = s + 1; break;\n")
+                    .append("            case 1: s = s << 2; break;\n")
+                    .append("            default: s = s | c;\n")
+                    .append("        }\n");
+            if (i + 1 < scale) {
+                sb.append("        return m").append(i + 1).append("(a) + s + c;\n");
+            } else {
+                sb.append("        return s + c;\n");
+            }
+            sb.append("    }\n\n");
+        }
+        sb.append("    public static void main(String[] args) {\n")
+                .append("        int x = m0(args.length);\n")
+                .append("    }\n")
+                .append("}\n");
+        Files.writeString(dir.resolve(MAIN + ".java"), sb.toString());
+        return MAIN;
+    }
+
+    private static String writePointerProgram(Path dir, int scale) throws IOException {
+        Random random = new Random(scale);
+        StringBuilder sb = new StringBuilder();
+        sb.append("interface Node {\n")
+                .append("    Node next(Object o);\n")
+                .append("}\n\n");
+        sb.append("class Box {\n")
+                .append("    Object item;\n")
+                .append("    Box link;\n")
+                .append("    void put(Object o) { item = o; }\n")
+                .append("    Object take() { return item; }\n")
+                .append("}\n\n");
+        for (int i = 0; i < scale; ++i) {
+            int succ = (i + 1) % scale;
+            int peer1 = random.nextInt(scale);
+            int peer2 = random.nextInt(scale);
+            sb.append("class N").append(i).append(" implements Node {\n")
+                    .append("    Box box = new Box();\n")
+                    .append("    Node[] peers = new Node[2];\n")
+                    .append("    static Node pick() {\n")
+                    .append("        if (").append(MAIN).append(".flag) {\n")
+                    .append("            return new N").append(peer1).append("();\n")
+                    .append("        }\n")
+                    .append("        return new N").append(peer2).append("();\n")
+                    .append("    }\n")
+                    .append("    public Node next(Object o) {\n")
+                    .append("        Box b = new Box();\n")
+                    .append("        b.put(o);\n")
+                    .append("        box.link = b;\n")
+                    .append("        peers[0] = new N").append(succ).append("();\n")
+                    .append("        peers[1] = pick();\n")
+                    .append("        Node p = peers[").append(i % 2).append("];\n")
+                    .append("        Object x = box.link.take();\n")
+                    .append("        if (x == null) {\n")
+                    .append("            return this;\n")
+                    .append("        }\n")
+                    .append("        return p.next(x);\n")
+                    .append("    }\n")
+                    .append("}\n\n");
+        }
+        sb.append("public class ").append(MAIN).append(" {\n")
+                .append("    static boolean flag;\n")
+                .append("    public static void main(String[] args) {\n");
+        for (int i = 0; i < scale; i += Math.max(1, scale / 10)) {
+            sb.append("        new N").append(i).append("().next(new Object());\n");
+        }
+        sb.append("    }\n")
+                .append("}\n");
+        Files.writeString(dir.resolve(MAIN + ".java"), sb.toString());
+        return MAIN;
+    }
+}